@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/** Waits for the result of an enqueued call so that it can be returned from {@code execute()}. */
+final class BlockingCallback<T> implements Callback<T> {
+  private final CountDownLatch latch = new CountDownLatch(1);
+  private Response<T> response;
+  private Throwable failure;
+
+  @Override public void onResponse(Call<T> call, Response<T> response) {
+    this.response = response;
+    latch.countDown();
+  }
+
+  @Override public void onFailure(Call<T> call, Throwable t) {
+    this.failure = t;
+    latch.countDown();
+  }
+
+  Response<T> await(Call<T> call) throws IOException {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      call.cancel();
+      throw new InterruptedIOException("Interrupted while waiting for the call");
+    }
+    if (failure instanceof IOException) throw (IOException) failure;
+    if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+    if (failure instanceof Error) throw (Error) failure;
+    if (failure != null) throw new RuntimeException(failure);
+    return response;
+  }
+}
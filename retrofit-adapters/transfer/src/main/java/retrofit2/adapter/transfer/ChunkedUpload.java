@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Upload the request body of a method as fixed-size chunks, each sent in its own request with a
+ * {@code Content-Range} header. Requires {@link ChunkedUploadCallAdapterFactory}.
+ * <pre><code>
+ * &#64;ChunkedUpload(chunkSize = 8 * 1024 * 1024)
+ * &#64;PUT("uploads/{id}")
+ * Call&lt;Receipt&gt; upload(@Path("id") String id, @Body File file);
+ * </code></pre>
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface ChunkedUpload {
+  /** The maximum number of chunks sent concurrently. */
+  int value() default 4;
+
+  /** The size of every chunk except the last, which may be smaller. */
+  long chunkSize() default 8 * 1024 * 1024;
+
+  /**
+   * How many times a chunk is sent again before giving up when its request fails or the server
+   * answers with a transient error like 503 or 429.
+   */
+  int retries() default 3;
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.SeekableRequestBody;
+
+/** A call which uploads its request body as resumable chunks. */
+final class ChunkedUploadCall<T> implements Call<T> {
+  private final Call<T> delegate;
+  private final Converter<ResponseBody, T> responseConverter;
+  private final okhttp3.Call.Factory callFactory;
+  private final @Nullable Executor callbackExecutor;
+  private final Executor executor;
+  private final @Nullable File directory;
+  private final int concurrency;
+  private final long chunkSize;
+  private final int retries;
+
+  private volatile boolean canceled;
+  @GuardedBy("this")
+  private boolean executed;
+  @GuardedBy("this")
+  private final Set<okhttp3.Call> calls = new LinkedHashSet<>();
+
+  ChunkedUploadCall(Call<T> delegate, Converter<ResponseBody, T> responseConverter,
+      okhttp3.Call.Factory callFactory, @Nullable Executor callbackExecutor, Executor executor,
+      @Nullable File directory, int concurrency, long chunkSize, int retries) {
+    this.delegate = delegate;
+    this.responseConverter = responseConverter;
+    this.callFactory = callFactory;
+    this.callbackExecutor = callbackExecutor;
+    this.executor = executor;
+    this.directory = directory;
+    this.concurrency = concurrency;
+    this.chunkSize = chunkSize;
+    this.retries = retries;
+  }
+
+  @Override public Response<T> execute() throws IOException {
+    markExecuted();
+    BlockingCallback<T> callback = new BlockingCallback<>();
+    new Upload(callback, null).run();
+    return callback.await(this);
+  }
+
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  @Override public void enqueue(Callback<T> callback) {
+    if (callback == null) throw new NullPointerException("callback == null");
+    markExecuted();
+    executor.execute(new Upload(callback, callbackExecutor));
+  }
+
+  private synchronized void markExecuted() {
+    if (executed) throw new IllegalStateException("Already executed.");
+    executed = true;
+  }
+
+  @Override public synchronized boolean isExecuted() {
+    return executed;
+  }
+
+  @Override public void cancel() {
+    canceled = true;
+    cancelCalls();
+  }
+
+  private void cancelCalls() {
+    List<okhttp3.Call> toCancel;
+    synchronized (this) {
+      toCancel = new ArrayList<>(calls);
+    }
+    for (okhttp3.Call call : toCancel) {
+      call.cancel();
+    }
+  }
+
+  @Override public boolean isCanceled() {
+    return canceled;
+  }
+
+  @SuppressWarnings("CloneDoesntCallSuperClone") // Performing deep clone.
+  @Override public Call<T> clone() {
+    return new ChunkedUploadCall<>(delegate.clone(), responseConverter, callFactory,
+        callbackExecutor, executor, directory, concurrency, chunkSize, retries);
+  }
+
+  @Override public Request request() {
+    return delegate.request();
+  }
+
+  private void enqueue(Request request, final okhttp3.Callback callback) {
+    okhttp3.Call call = callFactory.newCall(request);
+    synchronized (this) {
+      calls.add(call);
+    }
+    if (canceled) {
+      call.cancel(); // The enqueued call fails immediately.
+    }
+    call.enqueue(new okhttp3.Callback() {
+      @Override public void onResponse(okhttp3.Call call, okhttp3.Response response)
+          throws IOException {
+        try {
+          callback.onResponse(call, response);
+        } finally {
+          finished(call);
+        }
+      }
+
+      @Override public void onFailure(okhttp3.Call call, IOException e) {
+        finished(call);
+        callback.onFailure(call, e);
+      }
+    });
+  }
+
+  private synchronized void finished(okhttp3.Call call) {
+    calls.remove(call);
+  }
+
+  /** True for statuses which say that the server may accept the same chunk later. */
+  static boolean isRetryable(int code) {
+    return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+  }
+
+  /** The bytes {@code [start, end]} of the request body. */
+  static final class Chunk {
+    final long start;
+    final long end;
+    int failures;
+
+    Chunk(long start, long end) {
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  /** The state of one execution of this call. */
+  final class Upload implements Runnable {
+    private final Callback<T> callback;
+    private final @Nullable Executor executor;
+    private Request request;
+    private SeekableRequestBody body;
+    private @Nullable File spool;
+    private @Nullable FileChannel channel;
+    private long total;
+    private Chunk last;
+    @GuardedBy("this")
+    private final Deque<Chunk> pending = new ArrayDeque<>();
+    @GuardedBy("this")
+    private int inFlight;
+    @GuardedBy("this")
+    private boolean done;
+
+    Upload(Callback<T> callback, @Nullable Executor executor) {
+      this.callback = callback;
+      this.executor = executor;
+    }
+
+    @Override public void run() {
+      try {
+        request = delegate.request();
+        RequestBody requestBody = request.body();
+        if (requestBody == null) {
+          throw new IllegalStateException(
+              "@ChunkedUpload requires a request body: " + request.method() + " " + request.url());
+        }
+        body = requestBody instanceof SeekableRequestBody
+            ? (SeekableRequestBody) requestBody
+            : spool(requestBody);
+        total = body.contentLength();
+      } catch (Throwable t) {
+        fail(t);
+        return;
+      }
+      if (canceled) {
+        fail(new IOException("Canceled"));
+        return;
+      }
+      if (total == 0L) {
+        // There is nothing to split. Send the empty body as it is.
+        enqueue(request, new ChunkCallback(null));
+        return;
+      }
+
+      List<Chunk> chunks = new ArrayList<>();
+      for (long start = 0L; start < total; start += chunkSize) {
+        chunks.add(new Chunk(start, Math.min(start + chunkSize, total) - 1));
+      }
+      last = chunks.remove(chunks.size() - 1);
+      List<Chunk> first = new ArrayList<>();
+      synchronized (this) {
+        pending.addAll(chunks);
+        while (inFlight < concurrency && !pending.isEmpty()) {
+          first.add(pending.removeFirst());
+          inFlight++;
+        }
+      }
+      if (first.isEmpty()) {
+        send(last);
+        return;
+      }
+      for (Chunk chunk : first) {
+        send(chunk);
+      }
+    }
+
+    /**
+     * Writes a body which cannot be read at any offset, like one created by a converter, to a
+     * temporary file from which it can.
+     */
+    private SeekableRequestBody spool(RequestBody requestBody) throws IOException {
+      spool = File.createTempFile("retrofit", null, directory);
+      BufferedSink sink = Okio.buffer(Okio.sink(spool));
+      try {
+        requestBody.writeTo(sink);
+      } finally {
+        sink.close();
+      }
+      channel = new RandomAccessFile(spool, "r").getChannel();
+      return SeekableRequestBody.create(requestBody.contentType(), channel);
+    }
+
+    private void send(Chunk chunk) {
+      synchronized (this) {
+        if (done) return;
+      }
+      RequestBody chunkBody = new ChunkRequestBody(body, chunk.start, chunk.end - chunk.start + 1);
+      Request chunkRequest = request.newBuilder()
+          .method(request.method(), chunkBody)
+          .header("Content-Range", "bytes " + chunk.start + "-" + chunk.end + "/" + total)
+          .build();
+      enqueue(chunkRequest, new ChunkCallback(chunk));
+    }
+
+    /** Sends {@code chunk} again unless it already failed too often. Returns false if not. */
+    private boolean retry(Chunk chunk) {
+      if (canceled || ++chunk.failures > retries) return false;
+      send(chunk);
+      return true;
+    }
+
+    /** Sends the next pending chunk, or the last chunk once every other chunk was accepted. */
+    private void chunkAccepted() {
+      Chunk next;
+      synchronized (this) {
+        if (done) return;
+        inFlight--;
+        next = pending.pollFirst();
+        if (next != null) {
+          inFlight++;
+        } else if (inFlight > 0) {
+          return;
+        }
+      }
+      send(next != null ? next : last);
+    }
+
+    final class ChunkCallback implements okhttp3.Callback {
+      /** Null for the request which completes the upload. */
+      private final @Nullable Chunk chunk;
+
+      ChunkCallback(@Nullable Chunk chunk) {
+        this.chunk = chunk;
+      }
+
+      @Override public void onResponse(okhttp3.Call call, okhttp3.Response rawResponse) {
+        boolean completesUpload = chunk == null || chunk == last;
+        int code = rawResponse.code();
+        if (!completesUpload && (rawResponse.isSuccessful() || code == 308)) {
+          rawResponse.close();
+          chunkAccepted();
+          return;
+        }
+        // The empty body of an upload without chunks is not retried.
+        if (chunk != null && isRetryable(code) && retry(chunk)) {
+          rawResponse.close();
+          return;
+        }
+        Response<T> response;
+        try {
+          response = parseResponse(rawResponse);
+        } catch (Throwable t) {
+          fail(t);
+          return;
+        }
+        complete(response);
+      }
+
+      @Override public void onFailure(okhttp3.Call call, IOException e) {
+        if (chunk == null || !retry(chunk)) {
+          fail(e);
+        }
+      }
+    }
+
+    private Response<T> parseResponse(okhttp3.Response rawResponse) throws IOException {
+      ResponseBody rawBody = rawResponse.body();
+      okhttp3.Response raw = rawResponse.newBuilder().request(request).body(null).build();
+      int code = rawResponse.code();
+      if (code < 200 || code >= 300) {
+        try {
+          Buffer buffer = new Buffer();
+          rawBody.source().readAll(buffer);
+          ResponseBody errorBody =
+              ResponseBody.create(rawBody.contentType(), rawBody.contentLength(), buffer);
+          return Response.error(errorBody, raw);
+        } finally {
+          rawBody.close();
+        }
+      }
+      if (code == 204 || code == 205) {
+        rawBody.close();
+        return Response.success(null, raw);
+      }
+      try {
+        return Response.success(responseConverter.convert(rawBody), raw);
+      } catch (RuntimeException | IOException e) {
+        rawBody.close();
+        throw e;
+      }
+    }
+
+    private void complete(Response<T> response) {
+      synchronized (this) {
+        if (done) return;
+        done = true;
+      }
+      if (!response.isSuccessful()) {
+        cancelCalls(); // Stop the other chunks.
+      }
+      cleanUp();
+      deliver(response, null);
+    }
+
+    private void fail(Throwable failure) {
+      synchronized (this) {
+        if (done) return;
+        done = true;
+      }
+      boolean wasCanceled = canceled;
+      cancelCalls(); // Stop the other chunks.
+      cleanUp();
+      deliver(null, wasCanceled ? new IOException("Canceled") : failure);
+    }
+
+    private void cleanUp() {
+      if (channel != null) {
+        try {
+          channel.close();
+        } catch (IOException ignored) {
+        }
+      }
+      if (spool != null) {
+        //noinspection ResultOfMethodCallIgnored
+        spool.delete();
+      }
+    }
+
+    private void deliver(@Nullable final Response<T> response, @Nullable final Throwable failure) {
+      if (executor == null) {
+        deliverNow(response, failure);
+        return;
+      }
+      executor.execute(new Runnable() {
+        @Override public void run() {
+          deliverNow(response, failure);
+        }
+      });
+    }
+
+    private void deliverNow(@Nullable Response<T> response, @Nullable Throwable failure) {
+      if (response != null) {
+        callback.onResponse(ChunkedUploadCall.this, response);
+      } else {
+        callback.onFailure(ChunkedUploadCall.this, failure);
+      }
+    }
+  }
+
+  /** The bytes of {@code body} from {@code position} to {@code position + contentLength}. */
+  static final class ChunkRequestBody extends RequestBody {
+    private final SeekableRequestBody body;
+    private final long position;
+    private final long contentLength;
+
+    ChunkRequestBody(SeekableRequestBody body, long position, long contentLength) {
+      this.body = body;
+      this.position = position;
+      this.contentLength = contentLength;
+    }
+
+    @Override public @Nullable MediaType contentType() {
+      return body.contentType();
+    }
+
+    @Override public long contentLength() {
+      return contentLength;
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      body.writeTo(sink, position, contentLength);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * A {@linkplain CallAdapter.Factory call adapter} which uploads the request bodies of methods
+ * annotated with {@link ChunkedUpload @ChunkedUpload} as resumable chunks.
+ * <p>
+ * The request body is first written to a temporary file. Every chunk but the last is then sent
+ * with a {@code Content-Range: bytes start-end/total} header through the
+ * {@linkplain Retrofit#callFactory() call factory}, several at a time. A chunk whose request fails
+ * is sent again on its own. Once all other chunks have been accepted the last chunk is sent and
+ * its response is converted as the response of the call.
+ * <pre><code>
+ * interface UploadService {
+ *   &#64;ChunkedUpload(4)
+ *   &#64;PUT("uploads/{id}")
+ *   Call&lt;Receipt&gt; upload(@Path("id") String id, @Body File file);
+ * }
+ * </code></pre>
+ * A chunk is accepted by a {@code 2xx} or {@code 308 Resume Incomplete} response. Any other
+ * response ends the upload and is returned as the call's error response.
+ */
+public final class ChunkedUploadCallAdapterFactory extends CallAdapter.Factory {
+  /**
+   * Create an instance which writes request bodies to temporary files on a new cached pool of
+   * daemon threads for asynchronous calls.
+   */
+  public static ChunkedUploadCallAdapterFactory create() {
+    return new ChunkedUploadCallAdapterFactory(Executors.newCachedThreadPool(new ThreadFactory() {
+      @Override public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "Retrofit ChunkedUpload");
+        thread.setDaemon(true);
+        return thread;
+      }
+    }));
+  }
+
+  /**
+   * Create an instance which writes request bodies to temporary files on {@code executor} for
+   * asynchronous calls. Synchronous calls write them on the calling thread.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static ChunkedUploadCallAdapterFactory create(Executor executor) {
+    if (executor == null) throw new NullPointerException("executor == null");
+    return new ChunkedUploadCallAdapterFactory(executor);
+  }
+
+  private final Executor executor;
+
+  private ChunkedUploadCallAdapterFactory(Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+    ChunkedUpload chunkedUpload = null;
+    for (Annotation annotation : annotations) {
+      if (annotation instanceof ChunkedUpload) {
+        chunkedUpload = (ChunkedUpload) annotation;
+      }
+    }
+    if (chunkedUpload == null || getRawType(returnType) != Call.class) {
+      return null;
+    }
+    if (!(returnType instanceof ParameterizedType)) {
+      throw new IllegalStateException("Call return type must be parameterized as Call<Foo> or "
+          + "Call<? extends Foo>");
+    }
+    if (chunkedUpload.value() < 1) {
+      throw new IllegalArgumentException(
+          "@ChunkedUpload value must be positive: " + chunkedUpload.value() + ".");
+    }
+    if (chunkedUpload.chunkSize() < 1) {
+      throw new IllegalArgumentException(
+          "@ChunkedUpload chunkSize must be positive: " + chunkedUpload.chunkSize() + ".");
+    }
+    if (chunkedUpload.retries() < 0) {
+      throw new IllegalArgumentException(
+          "@ChunkedUpload retries must not be negative: " + chunkedUpload.retries() + ".");
+    }
+    Type responseType = getParameterUpperBound(0, (ParameterizedType) returnType);
+    Converter<ResponseBody, ?> responseConverter =
+        retrofit.responseBodyConverter(responseType, annotations);
+    return new ChunkedUploadCallAdapter<>(responseType, responseConverter,
+        retrofit.callFactory(), retrofit.callbackExecutor(), executor,
+        retrofit.downloadDirectory(), chunkedUpload);
+  }
+
+  static final class ChunkedUploadCallAdapter<R> implements CallAdapter<R, Call<R>> {
+    private final Type responseType;
+    private final Converter<ResponseBody, R> responseConverter;
+    private final okhttp3.Call.Factory callFactory;
+    private final @Nullable Executor callbackExecutor;
+    private final Executor executor;
+    private final @Nullable File directory;
+    private final ChunkedUpload chunkedUpload;
+
+    @SuppressWarnings("unchecked") // The converter was created for the response type.
+    ChunkedUploadCallAdapter(Type responseType, Converter<ResponseBody, ?> responseConverter,
+        okhttp3.Call.Factory callFactory, @Nullable Executor callbackExecutor, Executor executor,
+        @Nullable File directory, ChunkedUpload chunkedUpload) {
+      this.responseType = responseType;
+      this.responseConverter = (Converter<ResponseBody, R>) responseConverter;
+      this.callFactory = callFactory;
+      this.callbackExecutor = callbackExecutor;
+      this.executor = executor;
+      this.directory = directory;
+      this.chunkedUpload = chunkedUpload;
+    }
+
+    @Override public Type responseType() {
+      return responseType;
+    }
+
+    @Override public Call<R> adapt(Call<R> call) {
+      return new ChunkedUploadCall<>(call, responseConverter, callFactory, callbackExecutor,
+          executor, directory, chunkedUpload.value(), chunkedUpload.chunkSize(),
+          chunkedUpload.retries());
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Download the response body of a method returning {@code Call<File>} as concurrent byte ranges.
+ * Requires {@link SegmentedDownloadCallAdapterFactory}.
+ * <pre><code>
+ * &#64;Segmented(4)
+ * &#64;GET("artifacts/{name}")
+ * Call&lt;File&gt; artifact(@Path("name") String name);
+ * </code></pre>
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Segmented {
+  /** The maximum number of byte ranges fetched concurrently. */
+  int value() default 4;
+
+  /** The smallest byte range worth fetching separately. Smaller bodies use fewer ranges. */
+  long minSegmentSize() default 1024 * 1024;
+
+  /** How many times a failed range is resumed from its last written byte before giving up. */
+  int retries() default 3;
+}
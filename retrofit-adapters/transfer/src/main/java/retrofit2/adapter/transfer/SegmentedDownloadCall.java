@@ -0,0 +1,461 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Sink;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/** A call which downloads its body as concurrent byte ranges. */
+final class SegmentedDownloadCall implements Call<File> {
+  private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+  private final Call<File> delegate;
+  private final okhttp3.Call.Factory callFactory;
+  private final @Nullable Executor callbackExecutor;
+  private final @Nullable File directory;
+  private final int parts;
+  private final long minSegmentSize;
+  private final int retries;
+
+  private volatile boolean canceled;
+  @GuardedBy("this")
+  private boolean executed;
+  @GuardedBy("this")
+  private final Set<okhttp3.Call> calls = new LinkedHashSet<>();
+
+  SegmentedDownloadCall(Call<File> delegate, okhttp3.Call.Factory callFactory,
+      @Nullable Executor callbackExecutor, @Nullable File directory, int parts,
+      long minSegmentSize, int retries) {
+    this.delegate = delegate;
+    this.callFactory = callFactory;
+    this.callbackExecutor = callbackExecutor;
+    this.directory = directory;
+    this.parts = parts;
+    this.minSegmentSize = minSegmentSize;
+    this.retries = retries;
+  }
+
+  @Override public Response<File> execute() throws IOException {
+    markExecuted();
+    BlockingCallback<File> callback = new BlockingCallback<>();
+    new Download(callback, null).start();
+    return callback.await(this);
+  }
+
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  @Override public void enqueue(Callback<File> callback) {
+    if (callback == null) throw new NullPointerException("callback == null");
+    markExecuted();
+    new Download(callback, callbackExecutor).start();
+  }
+
+  private synchronized void markExecuted() {
+    if (executed) throw new IllegalStateException("Already executed.");
+    executed = true;
+  }
+
+  @Override public synchronized boolean isExecuted() {
+    return executed;
+  }
+
+  @Override public void cancel() {
+    canceled = true;
+    cancelCalls();
+  }
+
+  private void cancelCalls() {
+    List<okhttp3.Call> toCancel;
+    synchronized (this) {
+      toCancel = new ArrayList<>(calls);
+    }
+    for (okhttp3.Call call : toCancel) {
+      call.cancel();
+    }
+  }
+
+  @Override public boolean isCanceled() {
+    return canceled;
+  }
+
+  @SuppressWarnings("CloneDoesntCallSuperClone") // Performing deep clone.
+  @Override public Call<File> clone() {
+    return new SegmentedDownloadCall(delegate.clone(), callFactory, callbackExecutor, directory,
+        parts, minSegmentSize, retries);
+  }
+
+  @Override public Request request() {
+    return delegate.request();
+  }
+
+  private void enqueue(Request request, final okhttp3.Callback callback) {
+    okhttp3.Call call = callFactory.newCall(request);
+    synchronized (this) {
+      calls.add(call);
+    }
+    if (canceled) {
+      call.cancel(); // The enqueued call fails immediately.
+    }
+    call.enqueue(new okhttp3.Callback() {
+      @Override public void onResponse(okhttp3.Call call, okhttp3.Response response)
+          throws IOException {
+        try {
+          callback.onResponse(call, response);
+        } finally {
+          finished(call);
+        }
+      }
+
+      @Override public void onFailure(okhttp3.Call call, IOException e) {
+        finished(call);
+        callback.onFailure(call, e);
+      }
+    });
+  }
+
+  private synchronized void finished(okhttp3.Call call) {
+    calls.remove(call);
+  }
+
+  /** Returns the start, end, and total length of a partial response. The total may be -1. */
+  static @Nullable long[] contentRange(okhttp3.Response response) {
+    String header = response.header("Content-Range");
+    if (header == null) return null;
+    Matcher matcher = CONTENT_RANGE.matcher(header);
+    if (!matcher.matches()) return null;
+    String total = matcher.group(3);
+    return new long[] {
+        Long.parseLong(matcher.group(1)),
+        Long.parseLong(matcher.group(2)),
+        "*".equals(total) ? -1L : Long.parseLong(total)
+    };
+  }
+
+  /** The bytes {@code [position, end]} which remain to be written for one range. */
+  static final class Segment {
+    long position;
+    final long end;
+    int failures;
+
+    Segment(long start, long end) {
+      this.position = start;
+      this.end = end;
+    }
+  }
+
+  /** The state of one execution of this call. */
+  final class Download {
+    private final Callback<File> callback;
+    private final @Nullable Executor executor;
+    private Request request;
+    private File file;
+    private FileChannel channel;
+    private long total;
+    private okhttp3.Response probe;
+    /** Sent as {@code If-Range} so that ranges of a changed resource aren't mixed. */
+    private @Nullable String validator;
+    @GuardedBy("this")
+    private int remaining;
+    @GuardedBy("this")
+    private boolean done;
+
+    Download(Callback<File> callback, @Nullable Executor executor) {
+      this.callback = callback;
+      this.executor = executor;
+    }
+
+    void start() {
+      try {
+        request = delegate.request();
+      } catch (Throwable t) {
+        deliver(null, t);
+        return;
+      }
+      Request probeRequest = request.newBuilder().header("Range", "bytes=0-0").build();
+      enqueue(probeRequest, new okhttp3.Callback() {
+        @Override public void onResponse(okhttp3.Call call, okhttp3.Response response) {
+          try {
+            onProbe(response);
+          } catch (Throwable t) {
+            fail(t);
+          } finally {
+            response.close();
+          }
+        }
+
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          fail(e);
+        }
+      });
+    }
+
+    private void onProbe(okhttp3.Response response) throws IOException {
+      probe = response;
+      int code = response.code();
+      if (code == 416 && "bytes */0".equals(response.header("Content-Range"))) {
+        file = File.createTempFile("retrofit", null, directory);
+        succeed();
+        return;
+      }
+      if (!response.isSuccessful()) {
+        ResponseBody body = response.body();
+        Buffer buffer = new Buffer();
+        body.source().readAll(buffer);
+        ResponseBody errorBody =
+            ResponseBody.create(body.contentType(), body.contentLength(), buffer);
+        okhttp3.Response raw = response.newBuilder().request(request).body(null).build();
+        synchronized (this) {
+          done = true;
+        }
+        deliver(Response.<File>error(errorBody, raw), null);
+        return;
+      }
+      file = File.createTempFile("retrofit", null, directory);
+      if (code != 206) {
+        // The server ignored the range. Take the whole body over this connection.
+        total = streamWholeBody(response.body());
+        succeed();
+        return;
+      }
+
+      long[] range = contentRange(response);
+      if (range == null || range[0] != 0L || range[2] == -1L) {
+        throw new IOException("Unexpected Content-Range for "
+            + request.url()
+            + ": "
+            + response.header("Content-Range"));
+      }
+      total = range[2];
+      validator = validator(response);
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+      randomAccessFile.setLength(total);
+      channel = randomAccessFile.getChannel();
+
+      Segment first = new Segment(0L, range[1]);
+      List<Segment> segments = split(range[1] + 1);
+      synchronized (this) {
+        remaining = segments.size() + 1;
+      }
+      for (Segment segment : segments) {
+        fetch(segment);
+      }
+      try {
+        write(response.body().source(), first);
+      } catch (IOException e) {
+        retry(first, e);
+        return;
+      }
+      segmentDone();
+    }
+
+    /** Returns the strong validator of {@code response}, which is all that If-Range accepts. */
+    private @Nullable String validator(okhttp3.Response response) {
+      String etag = response.header("ETag");
+      if (etag != null && !etag.startsWith("W/")) return etag;
+      return response.header("Last-Modified");
+    }
+
+    private long streamWholeBody(ResponseBody body) throws IOException {
+      long contentLength = body.contentLength();
+      long written;
+      Sink sink = Okio.sink(file);
+      try {
+        written = body.source().readAll(sink);
+      } finally {
+        sink.close();
+      }
+      if (contentLength != -1L && written != contentLength) {
+        throw new IOException(
+            "Expected " + contentLength + " bytes but received " + written + " bytes");
+      }
+      return written;
+    }
+
+    /** Divides {@code [start, total)} into at most {@code parts} ranges. */
+    private List<Segment> split(long start) {
+      long length = total - start;
+      List<Segment> segments = new ArrayList<>();
+      if (length <= 0L) return segments;
+      long count = Math.min(parts, (length + minSegmentSize - 1) / minSegmentSize);
+      long size = (length + count - 1) / count;
+      for (long position = start; position < total; position += size) {
+        segments.add(new Segment(position, Math.min(position + size, total) - 1));
+      }
+      return segments;
+    }
+
+    private void fetch(final Segment segment) {
+      synchronized (this) {
+        if (done) return;
+      }
+      Request.Builder rangeRequest = request.newBuilder()
+          .header("Range", "bytes=" + segment.position + "-" + segment.end);
+      if (validator != null) {
+        rangeRequest.header("If-Range", validator);
+      }
+      enqueue(rangeRequest.build(), new okhttp3.Callback() {
+        @Override public void onResponse(okhttp3.Call call, okhttp3.Response response) {
+          try {
+            if (response.code() == 200) {
+              // The If-Range validator didn't match, so the server sent the whole new resource.
+              fail(new IOException(request.url() + " changed during the download"));
+              return;
+            }
+            long[] range = contentRange(response);
+            if (response.code() != 206 || range == null || range[0] != segment.position) {
+              throw new IOException("Expected bytes "
+                  + segment.position
+                  + "-"
+                  + segment.end
+                  + " but was "
+                  + response.code()
+                  + " "
+                  + response.header("Content-Range"));
+            }
+            write(response.body().source(), segment);
+          } catch (IOException e) {
+            retry(segment, e);
+            return;
+          } catch (Throwable t) {
+            fail(t);
+            return;
+          } finally {
+            response.close();
+          }
+          segmentDone();
+        }
+
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          retry(segment, e);
+        }
+      });
+    }
+
+    /** Writes the body of a range at its offset, advancing the segment as bytes are written. */
+    private void write(BufferedSource source, Segment segment) throws IOException {
+      byte[] chunk = new byte[8192];
+      while (segment.position <= segment.end) {
+        int count = (int) Math.min(chunk.length, segment.end - segment.position + 1);
+        int read = source.read(chunk, 0, count);
+        if (read == -1) {
+          throw new EOFException("Range ended at " + segment.position + " before " + segment.end);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+        while (buffer.hasRemaining()) {
+          segment.position += channel.write(buffer, segment.position);
+        }
+      }
+    }
+
+    private void retry(Segment segment, IOException e) {
+      if (canceled || ++segment.failures > retries) {
+        fail(e);
+        return;
+      }
+      fetch(segment); // Resumes from the last written byte.
+    }
+
+    private void segmentDone() {
+      synchronized (this) {
+        if (done || --remaining > 0) return;
+      }
+      try {
+        channel.close();
+      } catch (IOException e) {
+        fail(e);
+        return;
+      }
+      succeed();
+    }
+
+    private void succeed() {
+      synchronized (this) {
+        done = true;
+      }
+      okhttp3.Response raw = probe.newBuilder()
+          .code(200)
+          .message("OK")
+          .request(request)
+          .removeHeader("Content-Range")
+          .header("Content-Length", String.valueOf(total))
+          .body(null)
+          .build();
+      deliver(Response.success(file, raw), null);
+    }
+
+    private void fail(Throwable failure) {
+      synchronized (this) {
+        if (done) return;
+        done = true;
+      }
+      boolean wasCanceled = canceled;
+      cancelCalls(); // Stop the other ranges.
+      if (channel != null) {
+        try {
+          channel.close();
+        } catch (IOException ignored) {
+        }
+      }
+      if (file != null) {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+      }
+      deliver(null, wasCanceled ? new IOException("Canceled") : failure);
+    }
+
+    private void deliver(@Nullable final Response<File> response,
+        @Nullable final Throwable failure) {
+      if (executor == null) {
+        deliverNow(response, failure);
+        return;
+      }
+      executor.execute(new Runnable() {
+        @Override public void run() {
+          deliverNow(response, failure);
+        }
+      });
+    }
+
+    private void deliverNow(@Nullable Response<File> response, @Nullable Throwable failure) {
+      if (response != null) {
+        callback.onResponse(SegmentedDownloadCall.this, response);
+      } else {
+        callback.onFailure(SegmentedDownloadCall.this, failure);
+      }
+    }
+  }
+}
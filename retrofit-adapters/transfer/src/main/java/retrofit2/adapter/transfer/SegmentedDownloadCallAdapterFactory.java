@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Retrofit;
+
+/**
+ * A {@linkplain CallAdapter.Factory call adapter} which downloads the bodies of methods annotated
+ * with {@link Segmented @Segmented} over several connections at once.
+ * <p>
+ * The request is first sent for its first byte only. If the server answers with
+ * {@code 206 Partial Content} the rest of the body is split into byte ranges which are fetched
+ * concurrently through the {@linkplain Retrofit#callFactory() call factory} and written at their
+ * offsets into a temporary file of the full length. A range which fails is requested again from
+ * its last written byte. A server which ignores the range and answers {@code 200 OK} is streamed
+ * into the file over that first connection.
+ * <pre><code>
+ * interface ArtifactService {
+ *   &#64;Segmented(4)
+ *   &#64;GET("artifacts/{name}")
+ *   Call&lt;File&gt; artifact(@Path("name") String name);
+ * }
+ * </code></pre>
+ * The returned file is owned by the caller. OkHttp limits concurrent requests to the same host
+ * (five by default) so more ranges than that are queued by its dispatcher.
+ */
+public final class SegmentedDownloadCallAdapterFactory extends CallAdapter.Factory {
+  public static SegmentedDownloadCallAdapterFactory create() {
+    return new SegmentedDownloadCallAdapterFactory();
+  }
+
+  private SegmentedDownloadCallAdapterFactory() {
+  }
+
+  @Override
+  public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+    Segmented segmented = null;
+    for (Annotation annotation : annotations) {
+      if (annotation instanceof Segmented) {
+        segmented = (Segmented) annotation;
+      }
+    }
+    if (segmented == null || getRawType(returnType) != Call.class) {
+      return null;
+    }
+    if (!(returnType instanceof ParameterizedType)
+        || getParameterUpperBound(0, (ParameterizedType) returnType) != File.class) {
+      throw new IllegalArgumentException("@Segmented methods must return Call<File>.");
+    }
+    if (segmented.value() < 1) {
+      throw new IllegalArgumentException(
+          "@Segmented value must be positive: " + segmented.value() + ".");
+    }
+    if (segmented.minSegmentSize() < 1) {
+      throw new IllegalArgumentException(
+          "@Segmented minSegmentSize must be positive: " + segmented.minSegmentSize() + ".");
+    }
+    if (segmented.retries() < 0) {
+      throw new IllegalArgumentException(
+          "@Segmented retries must not be negative: " + segmented.retries() + ".");
+    }
+    return new SegmentedCallAdapter(retrofit.callFactory(), retrofit.callbackExecutor(),
+        retrofit.downloadDirectory(), segmented);
+  }
+
+  static final class SegmentedCallAdapter implements CallAdapter<File, Call<File>> {
+    private final okhttp3.Call.Factory callFactory;
+    private final @Nullable Executor callbackExecutor;
+    private final @Nullable File directory;
+    private final Segmented segmented;
+
+    SegmentedCallAdapter(okhttp3.Call.Factory callFactory, @Nullable Executor callbackExecutor,
+        @Nullable File directory, Segmented segmented) {
+      this.callFactory = callFactory;
+      this.callbackExecutor = callbackExecutor;
+      this.directory = directory;
+      this.segmented = segmented;
+    }
+
+    @Override public Type responseType() {
+      return File.class;
+    }
+
+    @Override public Call<File> adapt(Call<File> call) {
+      return new SegmentedDownloadCall(call, callFactory, callbackExecutor, directory,
+          segmented.value(), segmented.minSegmentSize(), segmented.retries());
+    }
+  }
+}
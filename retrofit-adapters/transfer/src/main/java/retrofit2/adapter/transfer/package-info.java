@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package retrofit2.adapter.transfer;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/** Accepts chunks sent with {@code Content-Range} request headers and assembles them. */
+final class ChunkDispatcher extends Dispatcher {
+  private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+  final List<String> ranges = Collections.synchronizedList(new ArrayList<String>());
+  /** Chunks starting at these offsets are disconnected the first time they are received. */
+  final Set<Integer> failOnce = Collections.synchronizedSet(new HashSet<Integer>());
+  /** Chunks starting at these offsets are rejected with a server error. */
+  final Set<Integer> reject = Collections.synchronizedSet(new HashSet<Integer>());
+  /** Chunks starting at these offsets are answered with 503 the first time they are received. */
+  final Set<Integer> unavailableOnce = Collections.synchronizedSet(new HashSet<Integer>());
+  private byte[] content = new byte[0];
+  private int inFlight;
+  private int maxInFlight;
+
+  @Override public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+    String range = request.getHeader("Content-Range");
+    ranges.add(range);
+    Matcher matcher = range != null ? CONTENT_RANGE.matcher(range) : null;
+    if (matcher == null || !matcher.matches()) {
+      synchronized (this) {
+        content = request.getBody().readByteArray();
+      }
+      return new MockResponse().setBody("Done");
+    }
+    int start = Integer.parseInt(matcher.group(1));
+    int end = Integer.parseInt(matcher.group(2));
+    int total = Integer.parseInt(matcher.group(3));
+    if (failOnce.remove(start)) {
+      return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+    }
+    if (unavailableOnce.remove(start)) {
+      return new MockResponse().setResponseCode(503).setBody("Busy");
+    }
+    if (reject.contains(start)) {
+      return new MockResponse().setResponseCode(500).setBody("Nope");
+    }
+
+    synchronized (this) {
+      maxInFlight = Math.max(maxInFlight, ++inFlight);
+    }
+    Thread.sleep(10); // Give concurrent chunks a chance to overlap.
+    synchronized (this) {
+      inFlight--;
+      if (content.length != total) {
+        content = new byte[total];
+      }
+      byte[] chunk = request.getBody().readByteArray();
+      System.arraycopy(chunk, 0, content, start, end - start + 1);
+    }
+    if (end == total - 1) {
+      return new MockResponse().setBody("Done");
+    }
+    return new MockResponse().setResponseCode(308);
+  }
+
+  synchronized byte[] content() {
+    return content;
+  }
+
+  synchronized int maxInFlight() {
+    return maxInFlight;
+  }
+}
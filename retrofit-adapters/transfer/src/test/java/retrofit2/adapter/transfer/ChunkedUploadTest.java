@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.BufferedSink;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.SeekableRequestBody;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.Multipart;
+import retrofit2.http.PUT;
+import retrofit2.http.Part;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class ChunkedUploadTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @ChunkedUpload(value = 2, chunkSize = 10)
+    @PUT("/") Call<ResponseBody> upload(@Body RequestBody body);
+
+    @ChunkedUpload(value = 2, chunkSize = 10, retries = 0)
+    @PUT("/") Call<ResponseBody> noRetries(@Body RequestBody body);
+
+    @ChunkedUpload(chunkSize = 10)
+    @Multipart
+    @PUT("/") Call<ResponseBody> multipart(@Part("part") RequestBody part);
+
+    @ChunkedUpload
+    @GET("/") Call<ResponseBody> noBody();
+  }
+
+  private final ChunkDispatcher dispatcher = new ChunkDispatcher();
+  private Service service;
+
+  @Before public void setUp() {
+    server.setDispatcher(dispatcher);
+    // Chunks are retried by the adapter rather than transparently by OkHttp.
+    OkHttpClient client = new OkHttpClient.Builder()
+        .retryOnConnectionFailure(false)
+        .build();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .client(client)
+        .addCallAdapterFactory(ChunkedUploadCallAdapterFactory.create())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  private static RequestBody body(int length) {
+    return RequestBody.create(MediaType.parse("application/octet-stream"),
+        RangeDispatcher.content(length));
+  }
+
+  @Test public void chunksAreSentAndLastChunkIsConverted() throws IOException {
+    Response<ResponseBody> response = service.upload(body(45)).execute();
+    assertThat(response.code()).isEqualTo(200);
+    assertThat(response.body().string()).isEqualTo("Done");
+    assertThat(dispatcher.content()).isEqualTo(RangeDispatcher.content(45));
+
+    assertThat(dispatcher.ranges).hasSize(5);
+    assertThat(dispatcher.ranges.subList(0, 4)).containsOnly(
+        "bytes 0-9/45", "bytes 10-19/45", "bytes 20-29/45", "bytes 30-39/45");
+    assertThat(dispatcher.ranges.get(4)).isEqualTo("bytes 40-44/45");
+    assertThat(dispatcher.maxInFlight()).isLessThanOrEqualTo(2);
+  }
+
+  @Test public void singleChunk() throws IOException {
+    assertThat(service.upload(body(10)).execute().body().string()).isEqualTo("Done");
+    assertThat(dispatcher.ranges).containsExactly("bytes 0-9/10");
+    assertThat(dispatcher.content()).isEqualTo(RangeDispatcher.content(10));
+  }
+
+  @Test public void seekableBodyIsReadInPlace() throws IOException {
+    final byte[] content = RangeDispatcher.content(45);
+    RequestBody body = new SeekableRequestBody() {
+      @Override public MediaType contentType() {
+        return MediaType.parse("application/octet-stream");
+      }
+
+      @Override public long contentLength() {
+        return content.length;
+      }
+
+      @Override public void writeTo(BufferedSink sink, long position, long byteCount)
+          throws IOException {
+        sink.write(content, (int) position, (int) byteCount);
+      }
+
+      @Override public void writeTo(BufferedSink sink) {
+        throw new AssertionError("Body was spooled");
+      }
+    };
+
+    assertThat(service.upload(body).execute().body().string()).isEqualTo("Done");
+    assertThat(dispatcher.content()).isEqualTo(content);
+  }
+
+  @Test public void emptyBodyIsSentWhole() throws IOException {
+    assertThat(service.upload(body(0)).execute().body().string()).isEqualTo("Done");
+    assertThat(dispatcher.ranges).containsExactly((String) null);
+  }
+
+  @Test public void onlyFailedChunkIsRetried() throws IOException {
+    dispatcher.failOnce.add(10);
+
+    assertThat(service.upload(body(45)).execute().body().string()).isEqualTo("Done");
+    assertThat(dispatcher.content()).isEqualTo(RangeDispatcher.content(45));
+    assertThat(Collections.frequency(dispatcher.ranges, "bytes 10-19/45")).isEqualTo(2);
+    assertThat(Collections.frequency(dispatcher.ranges, "bytes 0-9/45")).isEqualTo(1);
+    assertThat(dispatcher.ranges).hasSize(6);
+  }
+
+  @Test public void exhaustedRetriesFail() {
+    dispatcher.failOnce.add(10);
+
+    try {
+      service.noRetries(body(45)).execute();
+      fail();
+    } catch (IOException expected) {
+    }
+    assertThat(dispatcher.ranges).doesNotContain("bytes 40-44/45");
+  }
+
+  @Test public void unavailableChunkIsRetried() throws IOException {
+    dispatcher.unavailableOnce.add(20);
+
+    assertThat(service.upload(body(45)).execute().body().string()).isEqualTo("Done");
+    assertThat(dispatcher.content()).isEqualTo(RangeDispatcher.content(45));
+    assertThat(Collections.frequency(dispatcher.ranges, "bytes 20-29/45")).isEqualTo(2);
+  }
+
+  @Test public void unavailableLastChunkIsRetried() throws IOException {
+    dispatcher.unavailableOnce.add(40);
+
+    Response<ResponseBody> response = service.upload(body(45)).execute();
+    assertThat(response.code()).isEqualTo(200);
+    assertThat(response.body().string()).isEqualTo("Done");
+    assertThat(dispatcher.content()).isEqualTo(RangeDispatcher.content(45));
+    assertThat(Collections.frequency(dispatcher.ranges, "bytes 40-44/45")).isEqualTo(2);
+  }
+
+  @Test public void unavailableChunkWithoutRetriesEndsUpload() throws IOException {
+    dispatcher.unavailableOnce.add(20);
+
+    Response<ResponseBody> response = service.noRetries(body(45)).execute();
+    assertThat(response.code()).isEqualTo(503);
+    assertThat(response.errorBody().string()).isEqualTo("Busy");
+    assertThat(dispatcher.ranges).doesNotContain("bytes 40-44/45");
+  }
+
+  @Test public void rejectedChunkEndsUpload() throws IOException {
+    dispatcher.reject.add(20);
+
+    Response<ResponseBody> response = service.upload(body(45)).execute();
+    assertThat(response.code()).isEqualTo(500);
+    assertThat(response.errorBody().string()).isEqualTo("Nope");
+    assertThat(dispatcher.ranges).doesNotContain("bytes 40-44/45");
+  }
+
+  @Test public void multipartBodyKeepsItsContentType() throws IOException, InterruptedException {
+    RequestBody part = RequestBody.create(MediaType.parse("text/plain"), "Hello, World!");
+    assertThat(service.multipart(part).execute().body().string()).isEqualTo("Done");
+
+    String contentType = server.takeRequest().getHeader("Content-Type");
+    assertThat(contentType).startsWith("multipart/form-data; boundary=");
+    assertThat(new String(dispatcher.content(), "UTF-8"))
+        .contains("name=\"part\"")
+        .contains("Hello, World!");
+  }
+
+  @Test public void enqueue() throws InterruptedException {
+    final AtomicReference<Response<ResponseBody>> responseRef = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    service.upload(body(45)).enqueue(new Callback<ResponseBody>() {
+      @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+        responseRef.set(response);
+        latch.countDown();
+      }
+
+      @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+        t.printStackTrace();
+      }
+    });
+    assertTrue(latch.await(10, SECONDS));
+    assertThat(responseRef.get().isSuccessful()).isTrue();
+    assertThat(dispatcher.content()).isEqualTo(RangeDispatcher.content(45));
+  }
+
+  @Test public void cancelBeforeExecute() {
+    Call<ResponseBody> call = service.upload(body(45));
+    call.cancel();
+    try {
+      call.execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Canceled");
+    }
+    assertThat(call.isCanceled()).isTrue();
+    assertThat(server.getRequestCount()).isEqualTo(0);
+  }
+
+  @Test public void requiresRequestBody() throws IOException {
+    try {
+      service.noBody().execute();
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("@ChunkedUpload requires a request body: GET " + server.url("/"));
+    }
+  }
+}
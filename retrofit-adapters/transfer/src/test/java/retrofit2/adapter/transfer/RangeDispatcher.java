@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+
+/** Serves {@code content}, honoring {@code Range} request headers. */
+final class RangeDispatcher extends Dispatcher {
+  private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+  final byte[] content;
+  final List<String> ranges = Collections.synchronizedList(new ArrayList<String>());
+  /** Ranges starting at these offsets are cut off halfway the first time they are requested. */
+  final Set<Integer> failOnce = Collections.synchronizedSet(new HashSet<Integer>());
+  /** Sent as the {@code ETag} of the content. Ranges whose {@code If-Range} differs get it all. */
+  volatile String etag;
+  /** Replaces {@link #etag} once the first range was served, as if the content changed. */
+  volatile String nextEtag;
+  volatile boolean ignoreRanges;
+  volatile int errorCode;
+
+  RangeDispatcher(byte[] content) {
+    this.content = content;
+  }
+
+  static byte[] content(int length) {
+    byte[] content = new byte[length];
+    for (int i = 0; i < length; i++) {
+      content[i] = (byte) i;
+    }
+    return content;
+  }
+
+  @Override public MockResponse dispatch(RecordedRequest request) {
+    String range = request.getHeader("Range");
+    ranges.add(range);
+    if (errorCode != 0) {
+      return new MockResponse().setResponseCode(errorCode).setBody("Nope");
+    }
+    String currentEtag = etag;
+    if (nextEtag != null) {
+      etag = nextEtag;
+    }
+    String ifRange = request.getHeader("If-Range");
+    Matcher matcher = range != null ? RANGE.matcher(range) : null;
+    if (ignoreRanges
+        || matcher == null
+        || !matcher.matches()
+        || (ifRange != null && !ifRange.equals(currentEtag))) {
+      return withEtag(new MockResponse().setBody(new Buffer().write(content)), currentEtag);
+    }
+    if (content.length == 0) {
+      return new MockResponse().setResponseCode(416).setHeader("Content-Range", "bytes */0");
+    }
+    int start = Integer.parseInt(matcher.group(1));
+    int end = Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+    MockResponse response = new MockResponse()
+        .setResponseCode(206)
+        .setHeader("Content-Range", "bytes " + start + "-" + end + "/" + content.length)
+        .setBody(new Buffer().write(content, start, end - start + 1));
+    if (failOnce.remove(start)) {
+      response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+    }
+    return withEtag(response, currentEtag);
+  }
+
+  private static MockResponse withEtag(MockResponse response, String etag) {
+    return etag != null ? response.setHeader("ETag", etag) : response;
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.transfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Okio;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class SegmentedDownloadTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  interface Service {
+    @Segmented(value = 4, minSegmentSize = 4)
+    @GET("/") Call<File> download();
+
+    @Segmented(value = 4, minSegmentSize = 4, retries = 0)
+    @GET("/") Call<File> noRetries();
+
+    @Segmented
+    @GET("/") Call<String> notFile();
+  }
+
+  private RangeDispatcher serve(int length) {
+    RangeDispatcher dispatcher = new RangeDispatcher(RangeDispatcher.content(length));
+    server.setDispatcher(dispatcher);
+    return dispatcher;
+  }
+
+  private Service service() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addCallAdapterFactory(SegmentedDownloadCallAdapterFactory.create())
+        .build();
+    return retrofit.create(Service.class);
+  }
+
+  private static byte[] readAndDelete(File file) throws IOException {
+    try {
+      return Okio.buffer(Okio.source(file)).readByteArray();
+    } finally {
+      assertThat(file.delete()).isTrue();
+    }
+  }
+
+  @Test public void rangesAreFetchedAndAssembled() throws IOException {
+    RangeDispatcher dispatcher = serve(100);
+
+    Response<File> response = service().download().execute();
+    assertThat(response.code()).isEqualTo(200);
+    assertThat(response.headers().get("Content-Length")).isEqualTo("100");
+    assertThat(response.headers().get("Content-Range")).isNull();
+    assertThat(readAndDelete(response.body())).isEqualTo(dispatcher.content);
+
+    assertThat(dispatcher.ranges.get(0)).isEqualTo("bytes=0-0");
+    assertThat(dispatcher.ranges.subList(1, 5)).containsOnly(
+        "bytes=1-25", "bytes=26-50", "bytes=51-75", "bytes=76-99");
+  }
+
+  @Test public void rangesAreAssembledInDownloadDirectory() throws IOException {
+    RangeDispatcher dispatcher = serve(100);
+    File directory = temporaryFolder.newFolder();
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .downloadDirectory(directory)
+        .addCallAdapterFactory(SegmentedDownloadCallAdapterFactory.create())
+        .build()
+        .create(Service.class);
+
+    File file = service.download().execute().body();
+    assertThat(file.getParentFile()).isEqualTo(directory);
+    assertThat(readAndDelete(file)).isEqualTo(dispatcher.content);
+  }
+
+  @Test public void smallBodyUsesFewerRanges() throws IOException {
+    RangeDispatcher dispatcher = serve(10);
+
+    File file = service().download().execute().body();
+    assertThat(readAndDelete(file)).isEqualTo(dispatcher.content);
+    assertThat(dispatcher.ranges).containsOnly(
+        "bytes=0-0", "bytes=1-3", "bytes=4-6", "bytes=7-9");
+  }
+
+  @Test public void singleByteBodyNeedsOnlyTheProbe() throws IOException {
+    RangeDispatcher dispatcher = serve(1);
+
+    File file = service().download().execute().body();
+    assertThat(readAndDelete(file)).isEqualTo(dispatcher.content);
+    assertThat(dispatcher.ranges).containsExactly("bytes=0-0");
+  }
+
+  @Test public void emptyBody() throws IOException {
+    serve(0);
+
+    File file = service().download().execute().body();
+    assertThat(readAndDelete(file)).isEmpty();
+  }
+
+  @Test public void serverIgnoringRangesIsReadInOneRequest() throws IOException {
+    RangeDispatcher dispatcher = serve(100);
+    dispatcher.ignoreRanges = true;
+
+    File file = service().download().execute().body();
+    assertThat(readAndDelete(file)).isEqualTo(dispatcher.content);
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test public void rangesAreSentWithIfRange() throws IOException, InterruptedException {
+    RangeDispatcher dispatcher = serve(100);
+    dispatcher.etag = "\"v1\"";
+
+    File file = service().download().execute().body();
+    assertThat(readAndDelete(file)).isEqualTo(dispatcher.content);
+    assertThat(server.takeRequest().getHeader("If-Range")).isNull();
+    for (int i = 0; i < 4; i++) {
+      assertThat(server.takeRequest().getHeader("If-Range")).isEqualTo("\"v1\"");
+    }
+  }
+
+  @Test public void changedResourceFails() {
+    RangeDispatcher dispatcher = serve(100);
+    dispatcher.etag = "\"v1\"";
+    dispatcher.nextEtag = "\"v2\"";
+
+    try {
+      service().download().execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage(server.url("/") + " changed during the download");
+    }
+  }
+
+  @Test public void failedRangeIsResumed() throws IOException {
+    RangeDispatcher dispatcher = serve(100);
+    dispatcher.failOnce.add(26);
+
+    File file = service().download().execute().body();
+    assertThat(readAndDelete(file)).isEqualTo(dispatcher.content);
+
+    List<String> resumed = new ArrayList<>();
+    for (String range : dispatcher.ranges) {
+      if (range.endsWith("-50")) resumed.add(range);
+    }
+    assertThat(resumed).hasSize(2);
+    assertThat(resumed.get(0)).isEqualTo("bytes=26-50");
+    int resumedAt = Integer.parseInt(resumed.get(1).substring(6, resumed.get(1).indexOf('-')));
+    assertThat(resumedAt).isGreaterThan(26);
+  }
+
+  @Test public void exhaustedRetriesFail() {
+    RangeDispatcher dispatcher = serve(100);
+    dispatcher.failOnce.add(26);
+
+    try {
+      service().noRetries().execute();
+      fail();
+    } catch (IOException expected) {
+    }
+  }
+
+  @Test public void errorResponse() throws IOException {
+    RangeDispatcher dispatcher = serve(100);
+    dispatcher.errorCode = 404;
+
+    Response<File> response = service().download().execute();
+    assertThat(response.isSuccessful()).isFalse();
+    assertThat(response.code()).isEqualTo(404);
+    assertThat(response.errorBody().string()).isEqualTo("Nope");
+  }
+
+  @Test public void enqueue() throws InterruptedException, IOException {
+    RangeDispatcher dispatcher = serve(100);
+
+    final AtomicReference<Response<File>> responseRef = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    service().download().enqueue(new Callback<File>() {
+      @Override public void onResponse(Call<File> call, Response<File> response) {
+        responseRef.set(response);
+        latch.countDown();
+      }
+
+      @Override public void onFailure(Call<File> call, Throwable t) {
+        t.printStackTrace();
+      }
+    });
+    assertTrue(latch.await(10, SECONDS));
+    assertThat(readAndDelete(responseRef.get().body())).isEqualTo(dispatcher.content);
+  }
+
+  @Test public void cancelBeforeExecute() {
+    serve(100);
+
+    Call<File> call = service().download();
+    call.cancel();
+    try {
+      call.execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Canceled");
+    }
+    assertThat(call.isCanceled()).isTrue();
+  }
+
+  @Test public void executeTwiceThrows() throws IOException {
+    serve(1);
+
+    Call<File> call = service().download();
+    assertThat(readAndDelete(call.execute().body())).hasSize(1);
+    try {
+      call.execute();
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Already executed.");
+    }
+  }
+
+  @Test public void requiresFileResponse() {
+    try {
+      service().notFile();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getCause()).hasMessage("@Segmented methods must return Call<File>.");
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.reactivex.Single;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.http.Body;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.POST;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
+import rx.Observable;
+
+/** A representative service interface shared by the benchmarks. */
+interface BenchmarkService {
+  @GET("users/{user}/repos")
+  Call<ResponseBody> repos(@Path("user") String user, @Query("sort") String sort,
+      @Query("page") int page, @Header("Authorization") String authorization);
+
+  @GET("search/{a}/{b}/{c}")
+  Call<ResponseBody> search(@Path("a") String a, @Path("b") String b, @Path("c") String c);
+
+  @POST("users/{user}/repos")
+  Call<ResponseBody> create(@Path("user") String user, @Body RequestBody body);
+
+  @GET("archive") @Streaming
+  Call<ResponseBody> archive();
+
+  @DELETE("users/{user}")
+  Call<Void> delete(@Path("user") String user);
+
+  @GET("users")
+  Single<ResponseBody> rxJava2();
+
+  @GET("users")
+  Observable<ResponseBody> rxJava();
+
+  @GET("users")
+  ListenableFuture<ResponseBody> guava();
+
+  @GET("users")
+  CompletableFuture<ResponseBody> java8();
+}
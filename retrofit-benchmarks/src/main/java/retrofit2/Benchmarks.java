@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import retrofit2.adapter.guava.GuavaCallAdapterFactory;
+import retrofit2.adapter.java8.Java8CallAdapterFactory;
+import retrofit2.adapter.rxjava.RxJavaCallAdapterFactory;
+import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line and always adds the
+ * GC profiler so that allocation rates are reported alongside each score.
+ */
+public final class Benchmarks {
+  /** A typical JSON response body of about 1 KiB. */
+  static final byte[] RESPONSE_BODY;
+
+  static {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < 10; i++) {
+      if (i > 0) json.append(',');
+      json.append("{\"id\":").append(1000 + i)
+          .append(",\"name\":\"repository-").append(i)
+          .append("\",\"description\":\"A repository used to benchmark response handling.\"")
+          .append(",\"stars\":").append(i * 31).append('}');
+    }
+    RESPONSE_BODY = json.append(']').toString().getBytes(Charset.forName("UTF-8"));
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+
+  /** Create an instance which answers every request in-process with {@code code}. */
+  static Retrofit newRetrofit(int code, @Nullable Executor callbackExecutor) {
+    Retrofit.Builder builder = new Retrofit.Builder()
+        .baseUrl("https://api.example.com/v3/")
+        .callFactory(new StubCallFactory(code, RESPONSE_BODY))
+        .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+        .addCallAdapterFactory(RxJavaCallAdapterFactory.create())
+        .addCallAdapterFactory(GuavaCallAdapterFactory.create())
+        .addCallAdapterFactory(Java8CallAdapterFactory.create());
+    if (callbackExecutor != null) {
+      builder.callbackExecutor(callbackExecutor);
+    }
+    return builder.build();
+  }
+
+  private Benchmarks() {
+  }
+}
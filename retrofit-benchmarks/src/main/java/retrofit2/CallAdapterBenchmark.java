@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link CallAdapter#adapt} for the built-in adapters and each adapter module. The
+ * {@code adapter} parameter names the service method whose return type selects the adapter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallAdapterBenchmark {
+  @Param({"call", "executorCall", "rxJava", "rxJava2", "guava", "java8"})
+  String adapter;
+
+  private ServiceMethod<Object, Object> serviceMethod;
+
+  @Setup public void setUp() throws Exception {
+    Executor executor = null;
+    String methodName = adapter;
+    if ("call".equals(adapter)) {
+      methodName = "archive";
+    } else if ("executorCall".equals(adapter)) {
+      methodName = "archive";
+      executor = new Executor() {
+        @Override public void execute(Runnable command) {
+          command.run();
+        }
+      };
+    }
+
+    Retrofit retrofit = Benchmarks.newRetrofit(200, executor);
+    //noinspection unchecked
+    serviceMethod = (ServiceMethod<Object, Object>) retrofit.loadServiceMethod(
+        BenchmarkService.class.getMethod(methodName));
+  }
+
+  @Benchmark public Object adapt() {
+    return serviceMethod.callAdapter.adapt(new OkHttpCall<>(serviceMethod, null));
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a whole call through a {@link java.lang.reflect.Proxy proxy} service: dispatch alone,
+ * and dispatch followed by a synchronous or asynchronous execution against an in-process stub.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallBenchmark {
+  private BenchmarkService service;
+
+  @Setup public void setUp() {
+    service = Benchmarks.newRetrofit(200, null).create(BenchmarkService.class);
+  }
+
+  /** The invocation handler, the service method cache lookup, and the call adapter. */
+  @Benchmark public Call<ResponseBody> dispatch() {
+    return service.repos("square", "updated", 2, "token");
+  }
+
+  @Benchmark public ResponseBody execute() throws IOException {
+    ResponseBody body = service.repos("square", "updated", 2, "token").execute().body();
+    body.close();
+    return body;
+  }
+
+  @Benchmark public void enqueue(final Blackhole blackhole) {
+    service.repos("square", "updated", 2, "token").enqueue(new Callback<ResponseBody>() {
+      @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+        blackhole.consume(response.body());
+      }
+
+      @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+        throw new AssertionError(t);
+      }
+    });
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Okio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+
+/**
+ * Measures decoding JSON response bodies of increasing size with the Jackson converter, against
+ * decoding the same body through {@link ResponseBody#charStream()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonResponseBenchmark {
+  private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+  /** Approximate size of the body in bytes. */
+  @Param({"1024", "102400", "1048576", "10485760"})
+  int size;
+
+  private byte[] bytes;
+  private ObjectReader reader;
+  private Converter<ResponseBody, ?> converter;
+
+  public static final class Repo {
+    public long id;
+    public String name;
+    public String description;
+    public int stars;
+    public boolean fork;
+  }
+
+  @Setup public void setUp() throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    List<Repo> repos = new ArrayList<>();
+    do {
+      Repo repo = new Repo();
+      repo.id = 1000 + repos.size();
+      repo.name = "repository-" + repos.size();
+      repo.description = "A repository used to benchmark decoding of response bodies. \u2615";
+      repo.stars = repos.size() * 31;
+      repo.fork = repos.size() % 3 == 0;
+      repos.add(repo);
+      bytes = mapper.writeValueAsBytes(repos);
+    } while (bytes.length < size && repos.size() < 16);
+    // Grow by repeating the list rather than serializing it after every element.
+    while (bytes.length < size) {
+      repos.addAll(new ArrayList<>(repos));
+      bytes = mapper.writeValueAsBytes(repos);
+    }
+
+    Type type = mapper.getTypeFactory().constructCollectionType(List.class, Repo.class);
+    reader = mapper.readerFor(mapper.getTypeFactory().constructType(type));
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("https://api.example.com/")
+        .callFactory(new StubCallFactory(200, bytes))
+        .build();
+    converter = JacksonConverterFactory.create(mapper)
+        .responseBodyConverter(type, new Annotation[0], retrofit);
+  }
+
+  private ResponseBody body() {
+    return ResponseBody.create(JSON, bytes.length,
+        Okio.buffer(Okio.source(new ByteArrayInputStream(bytes))));
+  }
+
+  @Benchmark public Object converter() throws IOException {
+    return converter.convert(body());
+  }
+
+  /** The previous behavior of the converter, which decoded every body with a Reader. */
+  @Benchmark public Object charStream() throws IOException {
+    ResponseBody body = body();
+    try {
+      return reader.readValue(body.charStream());
+    } finally {
+      body.close();
+    }
+  }
+}
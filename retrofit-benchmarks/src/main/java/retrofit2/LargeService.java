@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import okhttp3.ResponseBody;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+
+/** A service with many methods for measuring the cost of building service methods. */
+interface LargeService {
+  @GET("resource0/{id}") Call<ResponseBody> method0(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource1/{id}") Call<ResponseBody> method1(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource2/{id}") Call<ResponseBody> method2(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource3/{id}") Call<ResponseBody> method3(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource4/{id}") Call<ResponseBody> method4(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource5/{id}") Call<ResponseBody> method5(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource6/{id}") Call<ResponseBody> method6(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource7/{id}") Call<ResponseBody> method7(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource8/{id}") Call<ResponseBody> method8(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource9/{id}") Call<ResponseBody> method9(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource10/{id}") Call<ResponseBody> method10(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource11/{id}") Call<ResponseBody> method11(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource12/{id}") Call<ResponseBody> method12(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource13/{id}") Call<ResponseBody> method13(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource14/{id}") Call<ResponseBody> method14(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource15/{id}") Call<ResponseBody> method15(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource16/{id}") Call<ResponseBody> method16(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource17/{id}") Call<ResponseBody> method17(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource18/{id}") Call<ResponseBody> method18(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource19/{id}") Call<ResponseBody> method19(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource20/{id}") Call<ResponseBody> method20(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource21/{id}") Call<ResponseBody> method21(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource22/{id}") Call<ResponseBody> method22(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource23/{id}") Call<ResponseBody> method23(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource24/{id}") Call<ResponseBody> method24(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource25/{id}") Call<ResponseBody> method25(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource26/{id}") Call<ResponseBody> method26(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource27/{id}") Call<ResponseBody> method27(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource28/{id}") Call<ResponseBody> method28(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource29/{id}") Call<ResponseBody> method29(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource30/{id}") Call<ResponseBody> method30(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource31/{id}") Call<ResponseBody> method31(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource32/{id}") Call<ResponseBody> method32(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource33/{id}") Call<ResponseBody> method33(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource34/{id}") Call<ResponseBody> method34(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource35/{id}") Call<ResponseBody> method35(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource36/{id}") Call<ResponseBody> method36(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource37/{id}") Call<ResponseBody> method37(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource38/{id}") Call<ResponseBody> method38(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource39/{id}") Call<ResponseBody> method39(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource40/{id}") Call<ResponseBody> method40(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource41/{id}") Call<ResponseBody> method41(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource42/{id}") Call<ResponseBody> method42(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource43/{id}") Call<ResponseBody> method43(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource44/{id}") Call<ResponseBody> method44(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource45/{id}") Call<ResponseBody> method45(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource46/{id}") Call<ResponseBody> method46(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource47/{id}") Call<ResponseBody> method47(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource48/{id}") Call<ResponseBody> method48(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource49/{id}") Call<ResponseBody> method49(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource50/{id}") Call<ResponseBody> method50(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource51/{id}") Call<ResponseBody> method51(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource52/{id}") Call<ResponseBody> method52(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource53/{id}") Call<ResponseBody> method53(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource54/{id}") Call<ResponseBody> method54(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource55/{id}") Call<ResponseBody> method55(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource56/{id}") Call<ResponseBody> method56(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource57/{id}") Call<ResponseBody> method57(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource58/{id}") Call<ResponseBody> method58(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource59/{id}") Call<ResponseBody> method59(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource60/{id}") Call<ResponseBody> method60(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource61/{id}") Call<ResponseBody> method61(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource62/{id}") Call<ResponseBody> method62(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource63/{id}") Call<ResponseBody> method63(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource64/{id}") Call<ResponseBody> method64(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource65/{id}") Call<ResponseBody> method65(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource66/{id}") Call<ResponseBody> method66(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource67/{id}") Call<ResponseBody> method67(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource68/{id}") Call<ResponseBody> method68(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource69/{id}") Call<ResponseBody> method69(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource70/{id}") Call<ResponseBody> method70(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource71/{id}") Call<ResponseBody> method71(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource72/{id}") Call<ResponseBody> method72(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource73/{id}") Call<ResponseBody> method73(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource74/{id}") Call<ResponseBody> method74(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource75/{id}") Call<ResponseBody> method75(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource76/{id}") Call<ResponseBody> method76(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource77/{id}") Call<ResponseBody> method77(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource78/{id}") Call<ResponseBody> method78(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource79/{id}") Call<ResponseBody> method79(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource80/{id}") Call<ResponseBody> method80(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource81/{id}") Call<ResponseBody> method81(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource82/{id}") Call<ResponseBody> method82(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource83/{id}") Call<ResponseBody> method83(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource84/{id}") Call<ResponseBody> method84(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource85/{id}") Call<ResponseBody> method85(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource86/{id}") Call<ResponseBody> method86(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource87/{id}") Call<ResponseBody> method87(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource88/{id}") Call<ResponseBody> method88(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource89/{id}") Call<ResponseBody> method89(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource90/{id}") Call<ResponseBody> method90(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource91/{id}") Call<ResponseBody> method91(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource92/{id}") Call<ResponseBody> method92(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource93/{id}") Call<ResponseBody> method93(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource94/{id}") Call<ResponseBody> method94(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource95/{id}") Call<ResponseBody> method95(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource96/{id}") Call<ResponseBody> method96(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource97/{id}") Call<ResponseBody> method97(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource98/{id}") Call<ResponseBody> method98(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource99/{id}") Call<ResponseBody> method99(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource100/{id}") Call<ResponseBody> method100(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource101/{id}") Call<ResponseBody> method101(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource102/{id}") Call<ResponseBody> method102(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource103/{id}") Call<ResponseBody> method103(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource104/{id}") Call<ResponseBody> method104(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource105/{id}") Call<ResponseBody> method105(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource106/{id}") Call<ResponseBody> method106(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource107/{id}") Call<ResponseBody> method107(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource108/{id}") Call<ResponseBody> method108(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource109/{id}") Call<ResponseBody> method109(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource110/{id}") Call<ResponseBody> method110(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource111/{id}") Call<ResponseBody> method111(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource112/{id}") Call<ResponseBody> method112(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource113/{id}") Call<ResponseBody> method113(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource114/{id}") Call<ResponseBody> method114(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource115/{id}") Call<ResponseBody> method115(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource116/{id}") Call<ResponseBody> method116(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource117/{id}") Call<ResponseBody> method117(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource118/{id}") Call<ResponseBody> method118(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource119/{id}") Call<ResponseBody> method119(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource120/{id}") Call<ResponseBody> method120(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource121/{id}") Call<ResponseBody> method121(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource122/{id}") Call<ResponseBody> method122(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource123/{id}") Call<ResponseBody> method123(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource124/{id}") Call<ResponseBody> method124(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource125/{id}") Call<ResponseBody> method125(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource126/{id}") Call<ResponseBody> method126(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource127/{id}") Call<ResponseBody> method127(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource128/{id}") Call<ResponseBody> method128(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource129/{id}") Call<ResponseBody> method129(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource130/{id}") Call<ResponseBody> method130(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource131/{id}") Call<ResponseBody> method131(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource132/{id}") Call<ResponseBody> method132(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource133/{id}") Call<ResponseBody> method133(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource134/{id}") Call<ResponseBody> method134(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource135/{id}") Call<ResponseBody> method135(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource136/{id}") Call<ResponseBody> method136(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource137/{id}") Call<ResponseBody> method137(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource138/{id}") Call<ResponseBody> method138(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource139/{id}") Call<ResponseBody> method139(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource140/{id}") Call<ResponseBody> method140(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource141/{id}") Call<ResponseBody> method141(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource142/{id}") Call<ResponseBody> method142(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource143/{id}") Call<ResponseBody> method143(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource144/{id}") Call<ResponseBody> method144(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource145/{id}") Call<ResponseBody> method145(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource146/{id}") Call<ResponseBody> method146(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource147/{id}") Call<ResponseBody> method147(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource148/{id}") Call<ResponseBody> method148(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource149/{id}") Call<ResponseBody> method149(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource150/{id}") Call<ResponseBody> method150(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource151/{id}") Call<ResponseBody> method151(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource152/{id}") Call<ResponseBody> method152(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource153/{id}") Call<ResponseBody> method153(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource154/{id}") Call<ResponseBody> method154(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource155/{id}") Call<ResponseBody> method155(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource156/{id}") Call<ResponseBody> method156(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource157/{id}") Call<ResponseBody> method157(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource158/{id}") Call<ResponseBody> method158(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource159/{id}") Call<ResponseBody> method159(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource160/{id}") Call<ResponseBody> method160(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource161/{id}") Call<ResponseBody> method161(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource162/{id}") Call<ResponseBody> method162(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource163/{id}") Call<ResponseBody> method163(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource164/{id}") Call<ResponseBody> method164(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource165/{id}") Call<ResponseBody> method165(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource166/{id}") Call<ResponseBody> method166(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource167/{id}") Call<ResponseBody> method167(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource168/{id}") Call<ResponseBody> method168(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource169/{id}") Call<ResponseBody> method169(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource170/{id}") Call<ResponseBody> method170(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource171/{id}") Call<ResponseBody> method171(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource172/{id}") Call<ResponseBody> method172(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource173/{id}") Call<ResponseBody> method173(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource174/{id}") Call<ResponseBody> method174(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource175/{id}") Call<ResponseBody> method175(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource176/{id}") Call<ResponseBody> method176(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource177/{id}") Call<ResponseBody> method177(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource178/{id}") Call<ResponseBody> method178(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource179/{id}") Call<ResponseBody> method179(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource180/{id}") Call<ResponseBody> method180(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource181/{id}") Call<ResponseBody> method181(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource182/{id}") Call<ResponseBody> method182(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource183/{id}") Call<ResponseBody> method183(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource184/{id}") Call<ResponseBody> method184(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource185/{id}") Call<ResponseBody> method185(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource186/{id}") Call<ResponseBody> method186(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource187/{id}") Call<ResponseBody> method187(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource188/{id}") Call<ResponseBody> method188(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource189/{id}") Call<ResponseBody> method189(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource190/{id}") Call<ResponseBody> method190(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource191/{id}") Call<ResponseBody> method191(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource192/{id}") Call<ResponseBody> method192(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource193/{id}") Call<ResponseBody> method193(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource194/{id}") Call<ResponseBody> method194(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource195/{id}") Call<ResponseBody> method195(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource196/{id}") Call<ResponseBody> method196(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource197/{id}") Call<ResponseBody> method197(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource198/{id}") Call<ResponseBody> method198(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+  @GET("resource199/{id}") Call<ResponseBody> method199(@Path("id") String id,
+      @Query("q") String q, @Header("h") String h);
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ServiceMethod#toRequest} which runs the parameter handlers and
+ * {@link RequestBuilder} to create the HTTP request for a call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBenchmark {
+  private final RequestBody body =
+      RequestBody.create(MediaType.parse("application/json"), Benchmarks.RESPONSE_BODY);
+
+  private ServiceMethod<?, ?> repos;
+  private ServiceMethod<?, ?> search;
+  private ServiceMethod<?, ?> create;
+
+  @Setup public void setUp() throws Exception {
+    Retrofit retrofit = Benchmarks.newRetrofit(200, null);
+    Class<BenchmarkService> service = BenchmarkService.class;
+    repos = retrofit.loadServiceMethod(
+        service.getMethod("repos", String.class, String.class, int.class, String.class));
+    search = retrofit.loadServiceMethod(
+        service.getMethod("search", String.class, String.class, String.class));
+    create = retrofit.loadServiceMethod(
+        service.getMethod("create", String.class, RequestBody.class));
+  }
+
+  /** A path parameter, query parameters which need no encoding, and a header. */
+  @Benchmark public Request pathQueryAndHeader() throws IOException {
+    return repos.toRequest("square", "updated", 2, "token");
+  }
+
+  /** Path parameters which must be percent-encoded. */
+  @Benchmark public Request encodedPath() throws IOException {
+    return search.toRequest("hello world", "café", "a/b?c#d");
+  }
+
+  @Benchmark public Request body() throws IOException {
+    return create.toRequest("square", body);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.util.concurrent.TimeUnit;
+import okhttp3.HttpUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares resolving the expanded relative URL as text against the base URL with the
+ * pre-resolved paths of {@link UrlTemplate}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestUrlBenchmark {
+  private static final HttpUrl BASE_URL = HttpUrl.parse("https://api.example.com/v3/");
+
+  @Param({
+      "users/list",
+      "users/{a}/repos/{b}/issues/{c}",
+      "users/{a}/repos/{b}/issues/{c}?state=open",
+  })
+  String template;
+
+  @Param({"false", "true"})
+  boolean withQuery;
+
+  private UrlTemplate urlTemplate;
+  private String[] values;
+
+  @Setup public void setUp() {
+    urlTemplate = UrlTemplate.parse(BASE_URL, template);
+    values = new String[urlTemplate.slotCount()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = "value" + i;
+    }
+  }
+
+  @Benchmark public HttpUrl resolveText() {
+    String relativeUrl = urlTemplate.expand(values);
+    if (!withQuery) {
+      return BASE_URL.resolve(relativeUrl);
+    }
+    return BASE_URL.newBuilder(relativeUrl)
+        .addQueryParameter("page", "2")
+        .build();
+  }
+
+  @Benchmark public HttpUrl template() {
+    if (!withQuery) {
+      HttpUrl resolved = urlTemplate.resolved();
+      if (resolved != null) return resolved;
+    }
+    HttpUrl.Builder builder = urlTemplate.newUrlBuilder(values);
+    if (builder == null) {
+      builder = BASE_URL.newBuilder(urlTemplate.expand(values));
+    }
+    if (withQuery) {
+      builder.addQueryParameter("page", "2");
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link OkHttpCall#parseResponse} with each of the built-in response body converters.
+ * The {@code code} parameter selects the success, no content, and error handling paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+  @Param({"200", "204", "404"})
+  int code;
+
+  private StubCallFactory stub;
+  private Request request;
+  private ServiceMethod<Object, Object> buffered;
+  private ServiceMethod<Object, Object> streaming;
+  private ServiceMethod<Object, Object> empty;
+
+  @Setup public void setUp() throws Exception {
+    stub = new StubCallFactory(code, Benchmarks.RESPONSE_BODY);
+    request = new Request.Builder().url("https://api.example.com/v3/users").build();
+
+    Retrofit retrofit = Benchmarks.newRetrofit(code, null);
+    Class<BenchmarkService> service = BenchmarkService.class;
+    buffered = load(retrofit,
+        service.getMethod("repos", String.class, String.class, int.class, String.class));
+    streaming = load(retrofit, service.getMethod("archive"));
+    empty = load(retrofit, service.getMethod("delete", String.class));
+  }
+
+  @SuppressWarnings("unchecked") // Benchmarks only pass the raw response through.
+  private static ServiceMethod<Object, Object> load(Retrofit retrofit,
+      java.lang.reflect.Method method) {
+    return (ServiceMethod<Object, Object>) retrofit.loadServiceMethod(method);
+  }
+
+  /** The body is read into memory by the buffering converter. */
+  @Benchmark public Response<Object> buffered() throws IOException {
+    Response<Object> response = new OkHttpCall<>(buffered, null).parseResponse(raw());
+    close(response);
+    return response;
+  }
+
+  @Benchmark public Response<Object> streaming() throws IOException {
+    Response<Object> response = new OkHttpCall<>(streaming, null).parseResponse(raw());
+    close(response);
+    return response;
+  }
+
+  @Benchmark public Response<Object> empty() throws IOException {
+    return new OkHttpCall<>(empty, null).parseResponse(raw());
+  }
+
+  private okhttp3.Response raw() {
+    return stub.response(request);
+  }
+
+  private static void close(Response<Object> response) {
+    Object body = response.body();
+    if (body instanceof ResponseBody) {
+      ((ResponseBody) body).close();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time for {@value #THREADS} threads to concurrently load every method of a cold
+ * {@link LargeService}. The {@code globalLock} parameter reproduces the previous strategy of
+ * building every service method under a single lock.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 50)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceMethodContentionBenchmark {
+  static final int THREADS = 64;
+
+  @Param({"false", "true"})
+  boolean globalLock;
+
+  private final Method[] methods = LargeService.class.getDeclaredMethods();
+  private ExecutorService executor;
+  private Retrofit retrofit;
+  private Map<Method, ServiceMethod<?, ?>> globalCache;
+
+  @Setup(Level.Trial) public void startThreads() {
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @TearDown(Level.Trial) public void stopThreads() {
+    executor.shutdown();
+  }
+
+  /** Each iteration measures a fresh instance whose service methods have not been built. */
+  @Setup(Level.Iteration) public void createRetrofit() {
+    retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com/")
+        .callFactory(new Call.Factory() {
+          @Override public Call newCall(Request request) {
+            throw new UnsupportedOperationException();
+          }
+        })
+        .build();
+    globalCache = new ConcurrentHashMap<>();
+  }
+
+  @Benchmark public void loadAllMethods() throws Exception {
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>(THREADS);
+    for (int t = 0; t < THREADS; t++) {
+      final int offset = t * methods.length / THREADS;
+      futures.add(executor.submit(new Callable<Void>() {
+        @Override public Void call() throws Exception {
+          start.await();
+          for (int i = 0, count = methods.length; i < count; i++) {
+            load(methods[(offset + i) % count]);
+          }
+          return null;
+        }
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  private ServiceMethod<?, ?> load(Method method) {
+    if (!globalLock) {
+      return retrofit.loadServiceMethod(method);
+    }
+    ServiceMethod<?, ?> result = globalCache.get(method);
+    if (result != null) return result;
+
+    synchronized (globalCache) {
+      result = globalCache.get(method);
+      if (result == null) {
+        result = retrofit.loadServiceMethod(method);
+        globalCache.put(method, result);
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * A {@link okhttp3.Call.Factory} which answers every request in-process with the same response so
+ * that benchmarks measure Retrofit rather than the network. Asynchronous calls complete on the
+ * calling thread.
+ */
+final class StubCallFactory implements okhttp3.Call.Factory {
+  private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+  private final int code;
+  private final byte[] body;
+
+  StubCallFactory(int code, byte[] body) {
+    this.code = code;
+    this.body = body;
+  }
+
+  @Override public okhttp3.Call newCall(Request request) {
+    return new StubCall(request);
+  }
+
+  Response response(Request request) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message("OK")
+        .body(ResponseBody.create(JSON, body))
+        .build();
+  }
+
+  final class StubCall implements okhttp3.Call {
+    private final Request request;
+    private boolean executed;
+    private boolean canceled;
+
+    StubCall(Request request) {
+      this.request = request;
+    }
+
+    @Override public Request request() {
+      return request;
+    }
+
+    @Override public Response execute() throws IOException {
+      if (executed) throw new IllegalStateException("Already executed.");
+      executed = true;
+      return response(request);
+    }
+
+    @Override public void enqueue(Callback responseCallback) {
+      Response response;
+      try {
+        response = execute();
+      } catch (IOException e) {
+        responseCallback.onFailure(this, e);
+        return;
+      }
+      try {
+        responseCallback.onResponse(this, response);
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+    }
+
+    @Override public boolean isExecuted() {
+      return executed;
+    }
+
+    @Override public boolean isCanceled() {
+      return canceled;
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone")
+    @Override public okhttp3.Call clone() {
+      return new StubCall(request);
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import retrofit2.GeneratedService;
+import retrofit2.Retrofit;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+import retrofit2.http.HTTP;
+import retrofit2.http.OPTIONS;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+
+/**
+ * Generates an implementation of each service interface which declares HTTP methods. The
+ * implementations are picked up automatically by {@link Retrofit#create} which avoids creating a
+ * {@link java.lang.reflect.Proxy} and dispatching every call through an invocation handler.
+ * <p>
+ * Interfaces that Retrofit would reject (those which are private, generic, extend other
+ * interfaces, or declare generic methods) are skipped so that the usual validation error is
+ * reported at runtime.
+ */
+public final class RetrofitProcessor extends AbstractProcessor {
+  static final String SUFFIX = "_RetrofitImpl";
+
+  private static final List<Class<? extends Annotation>> HTTP_METHODS = Arrays.asList(
+      DELETE.class, GET.class, HEAD.class, OPTIONS.class, PATCH.class, POST.class, PUT.class,
+      HTTP.class);
+
+  @Override public Set<String> getSupportedAnnotationTypes() {
+    Set<String> types = new LinkedHashSet<>();
+    for (Class<? extends Annotation> annotation : HTTP_METHODS) {
+      types.add(annotation.getCanonicalName());
+    }
+    return types;
+  }
+
+  @Override public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override public boolean process(Set<? extends TypeElement> annotations,
+      RoundEnvironment roundEnv) {
+    Set<TypeElement> services = new LinkedHashSet<>();
+    for (Class<? extends Annotation> annotation : HTTP_METHODS) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        Element enclosing = element.getEnclosingElement();
+        if (enclosing.getKind() == ElementKind.INTERFACE) {
+          services.add((TypeElement) enclosing);
+        }
+      }
+    }
+
+    for (TypeElement service : services) {
+      if (!isSupported(service)) {
+        continue;
+      }
+      try {
+        writeImplementation(service);
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "Unable to write implementation for " + service + ": " + e.getMessage(), service);
+      }
+    }
+    return false;
+  }
+
+  private static boolean isSupported(TypeElement service) {
+    if (!service.getTypeParameters().isEmpty() || !service.getInterfaces().isEmpty()) {
+      return false;
+    }
+    for (Element element = service; element.getKind() != ElementKind.PACKAGE;
+        element = element.getEnclosingElement()) {
+      if (element.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+    }
+    for (ExecutableElement method : serviceMethods(service)) {
+      if (!method.getTypeParameters().isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Abstract methods of {@code service}. Default and static methods need no implementation. */
+  private static List<ExecutableElement> serviceMethods(TypeElement service) {
+    List<ExecutableElement> methods = new ArrayList<>();
+    for (ExecutableElement method : ElementFilter.methodsIn(service.getEnclosedElements())) {
+      if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+        methods.add(method);
+      }
+    }
+    return methods;
+  }
+
+  private void writeImplementation(TypeElement service) throws IOException {
+    Elements elements = processingEnv.getElementUtils();
+    Types types = processingEnv.getTypeUtils();
+
+    PackageElement packageElement = elements.getPackageOf(service);
+    String packageName = packageElement.getQualifiedName().toString();
+    String binaryName = elements.getBinaryName(service).toString();
+    String className = (packageName.isEmpty()
+        ? binaryName
+        : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+    String serviceName = service.getQualifiedName().toString();
+    List<ExecutableElement> methods = serviceMethods(service);
+
+    StringBuilder out = new StringBuilder();
+    out.append("// Generated by retrofit-compiler. Do not modify!\n");
+    if (!packageName.isEmpty()) {
+      out.append("package ").append(packageName).append(";\n\n");
+    }
+    out.append("@SuppressWarnings(\"unchecked\")\n")
+        .append("public final class ").append(className)
+        .append(" extends ").append(GeneratedService.class.getCanonicalName())
+        .append(" implements ").append(serviceName).append(" {\n");
+
+    out.append("  private static final java.lang.reflect.Method[] METHODS = {\n");
+    for (ExecutableElement method : methods) {
+      out.append("      method(").append(serviceName).append(".class, \"")
+          .append(method.getSimpleName()).append('"');
+      for (VariableElement parameter : method.getParameters()) {
+        out.append(", ").append(types.erasure(parameter.asType())).append(".class");
+      }
+      out.append("),\n");
+    }
+    out.append("  };\n\n");
+
+    out.append("  public ").append(className).append('(')
+        .append(Retrofit.class.getCanonicalName()).append(" retrofit) {\n")
+        .append("    super(retrofit, METHODS);\n")
+        .append("  }\n");
+
+    for (int i = 0, size = methods.size(); i < size; i++) {
+      ExecutableElement method = methods.get(i);
+      TypeMirror returnType = method.getReturnType();
+      List<? extends VariableElement> parameters = method.getParameters();
+
+      out.append("\n  @Override public ").append(returnType).append(' ')
+          .append(method.getSimpleName()).append('(');
+      for (int p = 0; p < parameters.size(); p++) {
+        if (p > 0) out.append(", ");
+        VariableElement parameter = parameters.get(p);
+        out.append(parameter.asType()).append(' ').append(parameter.getSimpleName());
+      }
+      out.append(')');
+      List<? extends TypeMirror> thrownTypes = method.getThrownTypes();
+      for (int t = 0; t < thrownTypes.size(); t++) {
+        out.append(t == 0 ? " throws " : ", ").append(thrownTypes.get(t));
+      }
+      out.append(" {\n    ");
+
+      // Void methods are rejected by Retrofit but must still compile so the error surfaces.
+      if (returnType.getKind() != TypeKind.VOID) {
+        out.append("return (").append(box(types, returnType)).append(") ");
+      }
+      out.append("invoke(").append(i).append(", ");
+      if (parameters.isEmpty()) {
+        out.append("null");
+      } else {
+        out.append("new Object[] { ");
+        for (int p = 0; p < parameters.size(); p++) {
+          if (p > 0) out.append(", ");
+          out.append(parameters.get(p).getSimpleName());
+        }
+        out.append(" }");
+      }
+      out.append(");\n  }\n");
+    }
+    out.append("}\n");
+
+    JavaFileObject file = processingEnv.getFiler()
+        .createSourceFile(packageName.isEmpty() ? className : packageName + '.' + className,
+            service);
+    Writer writer = file.openWriter();
+    try {
+      writer.write(out.toString());
+    } finally {
+      writer.close();
+    }
+  }
+
+  private static TypeMirror box(Types types, TypeMirror type) {
+    return type.getKind().isPrimitive()
+        ? types.boxedClass(types.getPrimitiveType(type.getKind())).asType()
+        : type;
+  }
+}
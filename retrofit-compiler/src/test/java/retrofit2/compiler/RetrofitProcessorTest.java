@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.compiler;
+
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public final class RetrofitProcessorTest {
+  @Test public void generatesImplementation() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Service", ""
+        + "package test;\n"
+        + "import java.util.List;\n"
+        + "import okhttp3.ResponseBody;\n"
+        + "import retrofit2.Call;\n"
+        + "import retrofit2.http.GET;\n"
+        + "import retrofit2.http.POST;\n"
+        + "import retrofit2.http.Path;\n"
+        + "import retrofit2.http.Query;\n"
+        + "interface Service {\n"
+        + "  @GET(\"/\") Call<ResponseBody> none();\n"
+        + "  @GET(\"/{a}\") Call<List<String>> some(@Path(\"a\") String a, @Query(\"b\") int b);\n"
+        + "  @POST(\"/\") Call<ResponseBody> array(@Query(\"c\") String[] c);\n"
+        + "}\n");
+
+    JavaFileObject expected = JavaFileObjects.forSourceString("test.Service_RetrofitImpl", ""
+        + "package test;\n"
+        + "@SuppressWarnings(\"unchecked\")\n"
+        + "public final class Service_RetrofitImpl extends retrofit2.GeneratedService\n"
+        + "    implements test.Service {\n"
+        + "  private static final java.lang.reflect.Method[] METHODS = {\n"
+        + "      method(test.Service.class, \"none\"),\n"
+        + "      method(test.Service.class, \"some\", java.lang.String.class, int.class),\n"
+        + "      method(test.Service.class, \"array\", java.lang.String[].class),\n"
+        + "  };\n"
+        + "  public Service_RetrofitImpl(retrofit2.Retrofit retrofit) {\n"
+        + "    super(retrofit, METHODS);\n"
+        + "  }\n"
+        + "  @Override public retrofit2.Call<okhttp3.ResponseBody> none() {\n"
+        + "    return (retrofit2.Call<okhttp3.ResponseBody>) invoke(0, null);\n"
+        + "  }\n"
+        + "  @Override public retrofit2.Call<java.util.List<java.lang.String>> some(\n"
+        + "      java.lang.String a, int b) {\n"
+        + "    return (retrofit2.Call<java.util.List<java.lang.String>>)\n"
+        + "        invoke(1, new Object[] { a, b });\n"
+        + "  }\n"
+        + "  @Override public retrofit2.Call<okhttp3.ResponseBody> array(java.lang.String[] c) {\n"
+        + "    return (retrofit2.Call<okhttp3.ResponseBody>) invoke(2, new Object[] { c });\n"
+        + "  }\n"
+        + "}\n");
+
+    assertAbout(javaSource()).that(source)
+        .processedWith(new RetrofitProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expected);
+  }
+
+  @Test public void nestedInterfaceUsesBinaryName() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Outer", ""
+        + "package test;\n"
+        + "import okhttp3.ResponseBody;\n"
+        + "import retrofit2.Call;\n"
+        + "import retrofit2.http.GET;\n"
+        + "class Outer {\n"
+        + "  interface Service {\n"
+        + "    @GET(\"/\") Call<ResponseBody> get();\n"
+        + "  }\n"
+        + "}\n");
+
+    assertAbout(javaSource()).that(source)
+        .processedWith(new RetrofitProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesFileNamed(javax.tools.StandardLocation.SOURCE_OUTPUT, "test",
+            "Outer$Service_RetrofitImpl.java");
+  }
+
+  @Test public void unsupportedInterfacesAreSkipped() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Outer", ""
+        + "package test;\n"
+        + "import okhttp3.ResponseBody;\n"
+        + "import retrofit2.Call;\n"
+        + "import retrofit2.http.GET;\n"
+        + "class Outer {\n"
+        + "  private interface Private {\n"
+        + "    @GET(\"/\") Call<ResponseBody> get();\n"
+        + "  }\n"
+        + "  interface Generic<T> {\n"
+        + "    @GET(\"/\") Call<T> get();\n"
+        + "  }\n"
+        + "  interface GenericMethod {\n"
+        + "    @GET(\"/\") <T> Call<T> get();\n"
+        + "  }\n"
+        + "}\n");
+
+    assertAbout(javaSource()).that(source)
+        .processedWith(new RetrofitProcessor())
+        .compilesWithoutError();
+  }
+}
@@ -23,6 +23,7 @@ import java.lang.reflect.Type;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
+import retrofit2.Memoizable;
 import retrofit2.Retrofit;
 
 /**
@@ -33,6 +34,7 @@ import retrofit2.Retrofit;
  * you must {@linkplain Retrofit.Builder#addConverterFactory(Converter.Factory) add this instance}
  * last to allow the other converters a chance to see their types.
  */
+@Memoizable
 public final class GsonConverterFactory extends Converter.Factory {
   /**
    * Create an instance using a default {@link Gson} instance for conversion. Encoding to JSON and
@@ -49,13 +51,27 @@ public final class GsonConverterFactory extends Converter.Factory {
   @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
   public static GsonConverterFactory create(Gson gson) {
     if (gson == null) throw new NullPointerException("gson == null");
-    return new GsonConverterFactory(gson);
+    return new GsonConverterFactory(gson, false, false);
   }
 
   private final Gson gson;
+  private final boolean streaming;
+  private final boolean computeContentLength;
 
-  private GsonConverterFactory(Gson gson) {
+  private GsonConverterFactory(Gson gson, boolean streaming, boolean computeContentLength) {
     this.gson = gson;
+    this.streaming = streaming;
+    this.computeContentLength = computeContentLength;
+  }
+
+  /** Return a new factory whose request bodies are a {@link retrofit2.StreamingRequestBody}. */
+  public GsonConverterFactory withStreaming() {
+    return new GsonConverterFactory(gson, true, false);
+  }
+
+  /** Return a new factory like {@link #withStreaming()} whose bodies also report their length. */
+  public GsonConverterFactory withStreamingContentLength() {
+    return new GsonConverterFactory(gson, true, true);
   }
 
   @Override
@@ -69,6 +85,6 @@ public final class GsonConverterFactory extends Converter.Factory {
   public Converter<?, RequestBody> requestBodyConverter(Type type,
       Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
     TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(type));
-    return new GsonRequestBodyConverter<>(gson, adapter);
+    return new GsonRequestBodyConverter<>(gson, adapter, streaming, computeContentLength);
   }
 }
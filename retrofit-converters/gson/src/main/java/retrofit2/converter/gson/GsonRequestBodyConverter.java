@@ -25,7 +25,9 @@ import java.nio.charset.Charset;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okio.Buffer;
+import okio.BufferedSink;
 import retrofit2.Converter;
+import retrofit2.StreamingRequestBody;
 
 final class GsonRequestBodyConverter<T> implements Converter<T, RequestBody> {
   private static final MediaType MEDIA_TYPE = MediaType.parse("application/json; charset=UTF-8");
@@ -33,13 +35,25 @@ final class GsonRequestBodyConverter<T> implements Converter<T, RequestBody> {
 
   private final Gson gson;
   private final TypeAdapter<T> adapter;
+  private final boolean streaming;
+  private final boolean computeContentLength;
 
-  GsonRequestBodyConverter(Gson gson, TypeAdapter<T> adapter) {
+  GsonRequestBodyConverter(Gson gson, TypeAdapter<T> adapter, boolean streaming,
+      boolean computeContentLength) {
     this.gson = gson;
     this.adapter = adapter;
+    this.streaming = streaming;
+    this.computeContentLength = computeContentLength;
   }
 
-  @Override public RequestBody convert(T value) throws IOException {
+  @Override public RequestBody convert(final T value) throws IOException {
+    if (streaming) {
+      return new StreamingRequestBody(MEDIA_TYPE, computeContentLength) {
+        @Override public void writeTo(BufferedSink sink) throws IOException {
+          write(value, sink);
+        }
+      };
+    }
     Buffer buffer = new Buffer();
     Writer writer = new OutputStreamWriter(buffer.outputStream(), UTF_8);
     JsonWriter jsonWriter = gson.newJsonWriter(writer);
@@ -47,4 +61,11 @@ final class GsonRequestBodyConverter<T> implements Converter<T, RequestBody> {
     jsonWriter.close();
     return RequestBody.create(MEDIA_TYPE, buffer.readByteString());
   }
+
+  void write(T value, BufferedSink sink) throws IOException {
+    Writer writer = new OutputStreamWriter(sink.outputStream(), UTF_8);
+    JsonWriter jsonWriter = gson.newJsonWriter(writer);
+    adapter.write(jsonWriter, value);
+    jsonWriter.flush(); // Closing would close the sink, which belongs to the caller.
+  }
 }
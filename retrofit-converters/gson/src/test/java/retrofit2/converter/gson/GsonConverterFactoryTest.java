@@ -85,6 +85,8 @@ public final class GsonConverterFactoryTest {
   @Rule public final MockWebServer server = new MockWebServer();
 
   private Service service;
+  private Service serviceStreaming;
+  private Service serviceStreamingLength;
 
   @Before public void setUp() {
     Gson gson = new GsonBuilder()
@@ -95,7 +97,17 @@ public final class GsonConverterFactoryTest {
         .baseUrl(server.url("/"))
         .addConverterFactory(GsonConverterFactory.create(gson))
         .build();
+    Retrofit retrofitStreaming = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(GsonConverterFactory.create(gson).withStreaming())
+        .build();
+    Retrofit retrofitStreamingLength = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(GsonConverterFactory.create(gson).withStreamingContentLength())
+        .build();
     service = retrofit.create(Service.class);
+    serviceStreaming = retrofitStreaming.create(Service.class);
+    serviceStreamingLength = retrofitStreamingLength.create(Service.class);
   }
 
   @Test public void anInterface() throws IOException, InterruptedException {
@@ -141,4 +153,31 @@ public final class GsonConverterFactoryTest {
         service.anImplementation(new AnImplementation("value")).execute();
     assertThat(response.body().getName()).isNull();
   }
+
+  @Test public void streaming() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("{\"name\":\"value\"}"));
+
+    Response<AnInterface> response =
+        serviceStreaming.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("value");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"value\"}");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/json; charset=UTF-8");
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getHeader("Content-Length")).isNull();
+  }
+
+  @Test public void streamingContentLength() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("{\"name\":\"value\"}"));
+
+    Response<AnInterface> response =
+        serviceStreamingLength.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("value");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"value\"}");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("16");
+    assertThat(request.getHeader("Transfer-Encoding")).isNull();
+  }
 }
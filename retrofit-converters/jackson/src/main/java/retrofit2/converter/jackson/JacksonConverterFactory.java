@@ -21,9 +21,14 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
+import retrofit2.Memoizable;
 import retrofit2.Retrofit;
 
 /**
@@ -33,8 +38,18 @@ import retrofit2.Retrofit;
  * handle all types. If you are mixing JSON serialization with something else (such as protocol
  * buffers), you must {@linkplain Retrofit.Builder#addConverterFactory(Converter.Factory) add this
  * instance} last to allow the other converters a chance to see their types.
+ * <p>
+ * Request bodies use the format of the {@link ObjectMapper}. Mappers for the Smile and CBOR binary
+ * formats are sent as {@code application/x-jackson-smile} and {@code application/cbor} and all
+ * others as {@code application/json}. Use {@link #withResponseFormat} to also decode responses in
+ * another format based on their {@code Content-Type}.
  */
+@Memoizable
 public final class JacksonConverterFactory extends Converter.Factory {
+  private static final MediaType JSON = MediaType.parse("application/json; charset=UTF-8");
+  private static final MediaType SMILE = MediaType.parse("application/x-jackson-smile");
+  private static final MediaType CBOR = MediaType.parse("application/cbor");
+
   /** Create an instance using a default {@link ObjectMapper} instance for conversion. */
   public static JacksonConverterFactory create() {
     return create(new ObjectMapper());
@@ -44,13 +59,50 @@ public final class JacksonConverterFactory extends Converter.Factory {
   @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
   public static JacksonConverterFactory create(ObjectMapper mapper) {
     if (mapper == null) throw new NullPointerException("mapper == null");
-    return new JacksonConverterFactory(mapper);
+    return new JacksonConverterFactory(mapper, Collections.<String, ObjectMapper>emptyMap(),
+        false, false);
   }
 
   private final ObjectMapper mapper;
+  private final MediaType mediaType;
+  /** Additional mappers for responses, keyed by the type and subtype of their media type. */
+  private final Map<String, ObjectMapper> responseMappers;
+  private final boolean streaming;
+  private final boolean computeContentLength;
 
-  private JacksonConverterFactory(ObjectMapper mapper) {
+  private JacksonConverterFactory(ObjectMapper mapper, Map<String, ObjectMapper> responseMappers,
+      boolean streaming, boolean computeContentLength) {
     this.mapper = mapper;
+    this.mediaType = mediaType(mapper);
+    this.responseMappers = responseMappers;
+    this.streaming = streaming;
+    this.computeContentLength = computeContentLength;
+  }
+
+  /**
+   * Return a new factory which also decodes responses with {@code mapper} when their
+   * {@code Content-Type} is its format, such as Smile or CBOR. Responses of any other type are
+   * still decoded with the mapper of this factory. This allows a server to move to a binary format
+   * without changing the client.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public JacksonConverterFactory withResponseFormat(ObjectMapper mapper) {
+    if (mapper == null) throw new NullPointerException("mapper == null");
+    MediaType type = mediaType(mapper);
+    Map<String, ObjectMapper> responseMappers = new LinkedHashMap<>(this.responseMappers);
+    responseMappers.put(key(type), mapper);
+    return new JacksonConverterFactory(this.mapper, Collections.unmodifiableMap(responseMappers),
+        streaming, computeContentLength);
+  }
+
+  /** Return a new factory whose request bodies are a {@link retrofit2.StreamingRequestBody}. */
+  public JacksonConverterFactory withStreaming() {
+    return new JacksonConverterFactory(mapper, responseMappers, true, false);
+  }
+
+  /** Return a new factory like {@link #withStreaming()} whose bodies also report their length. */
+  public JacksonConverterFactory withStreamingContentLength() {
+    return new JacksonConverterFactory(mapper, responseMappers, true, true);
   }
 
   @Override
@@ -58,7 +110,16 @@ public final class JacksonConverterFactory extends Converter.Factory {
       Retrofit retrofit) {
     JavaType javaType = mapper.getTypeFactory().constructType(type);
     ObjectReader reader = mapper.readerFor(javaType);
-    return new JacksonResponseBodyConverter<>(reader);
+    Map<String, ObjectReader> formatReaders = Collections.emptyMap();
+    if (!responseMappers.isEmpty()) {
+      formatReaders = new LinkedHashMap<>();
+      for (Map.Entry<String, ObjectMapper> entry : responseMappers.entrySet()) {
+        ObjectMapper formatMapper = entry.getValue();
+        JavaType formatType = formatMapper.getTypeFactory().constructType(type);
+        formatReaders.put(entry.getKey(), formatMapper.readerFor(formatType));
+      }
+    }
+    return new JacksonResponseBodyConverter<>(reader, formatReaders);
   }
 
   @Override
@@ -66,6 +127,17 @@ public final class JacksonConverterFactory extends Converter.Factory {
       Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
     JavaType javaType = mapper.getTypeFactory().constructType(type);
     ObjectWriter writer = mapper.writerFor(javaType);
-    return new JacksonRequestBodyConverter<>(writer);
+    return new JacksonRequestBodyConverter<>(writer, mediaType, streaming, computeContentLength);
+  }
+
+  private static MediaType mediaType(ObjectMapper mapper) {
+    String format = mapper.getFactory().getFormatName();
+    if ("Smile".equals(format)) return SMILE;
+    if ("CBOR".equals(format)) return CBOR;
+    return JSON;
+  }
+
+  static String key(MediaType mediaType) {
+    return mediaType.type() + "/" + mediaType.subtype();
   }
 }
@@ -15,23 +15,44 @@
  */
 package retrofit2.converter.jackson;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import java.io.IOException;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
+import okio.BufferedSink;
 import retrofit2.Converter;
+import retrofit2.StreamingRequestBody;
 
 final class JacksonRequestBodyConverter<T> implements Converter<T, RequestBody> {
-  private static final MediaType MEDIA_TYPE = MediaType.parse("application/json; charset=UTF-8");
-
   private final ObjectWriter adapter;
+  private final MediaType mediaType;
+  private final boolean streaming;
+  private final boolean computeContentLength;
 
-  JacksonRequestBodyConverter(ObjectWriter adapter) {
+  JacksonRequestBodyConverter(ObjectWriter adapter, MediaType mediaType, boolean streaming,
+      boolean computeContentLength) {
     this.adapter = adapter;
+    this.mediaType = mediaType;
+    this.streaming = streaming;
+    this.computeContentLength = computeContentLength;
   }
 
-  @Override public RequestBody convert(T value) throws IOException {
+  @Override public RequestBody convert(final T value) throws IOException {
+    if (streaming) {
+      return new StreamingRequestBody(mediaType, computeContentLength) {
+        @Override public void writeTo(BufferedSink sink) throws IOException {
+          write(value, sink);
+        }
+      };
+    }
     byte[] bytes = adapter.writeValueAsBytes(value);
-    return RequestBody.create(MEDIA_TYPE, bytes);
+    return RequestBody.create(mediaType, bytes);
+  }
+
+  void write(T value, BufferedSink sink) throws IOException {
+    JsonGenerator generator = adapter.getFactory().createGenerator(sink.outputStream());
+    adapter.writeValue(generator, value);
+    generator.flush(); // Closing would close the sink, which belongs to the caller.
   }
 }
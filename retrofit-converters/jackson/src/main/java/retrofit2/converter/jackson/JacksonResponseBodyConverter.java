@@ -17,19 +17,41 @@ package retrofit2.converter.jackson;
 
 import com.fasterxml.jackson.databind.ObjectReader;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+import okhttp3.MediaType;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
 
 final class JacksonResponseBodyConverter<T> implements Converter<ResponseBody, T> {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
   private final ObjectReader adapter;
+  /** Readers for other formats, keyed by the type and subtype of their media type. */
+  private final Map<String, ObjectReader> formatAdapters;
 
-  JacksonResponseBodyConverter(ObjectReader adapter) {
+  JacksonResponseBodyConverter(ObjectReader adapter, Map<String, ObjectReader> formatAdapters) {
     this.adapter = adapter;
+    this.formatAdapters = formatAdapters;
   }
 
   @Override public T convert(ResponseBody value) throws IOException {
     try {
-      return adapter.readValue(value.charStream());
+      MediaType contentType = value.contentType();
+      ObjectReader reader = adapter;
+      if (contentType != null && !formatAdapters.isEmpty()) {
+        ObjectReader formatReader = formatAdapters.get(JacksonConverterFactory.key(contentType));
+        if (formatReader != null) reader = formatReader;
+      }
+
+      Charset charset = contentType != null ? contentType.charset() : null;
+      if (charset == null || UTF_8.equals(charset)
+          || reader.getFactory().canHandleBinaryNatively()) {
+        // Jackson's byte parser is much faster than decoding through a Reader. It detects UTF-16
+        // and UTF-32 itself, so only other declared charsets need to be decoded for it.
+        return reader.readValue(value.byteStream());
+      }
+      return reader.readValue(value.charStream());
     } finally {
       value.close();
     }
@@ -26,10 +26,15 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.ByteString;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -109,12 +114,17 @@ public class JacksonConverterFactoryTest {
   @Rule public final MockWebServer server = new MockWebServer();
 
   private Service service;
+  private Service serviceStreaming;
+  private Service serviceStreamingLength;
 
-  @Before public void setUp() {
+  private ObjectMapper smileMapper;
+  private Service serviceSmile;
+  private Service serviceAnyFormat;
+
+  private static ObjectMapper configure(ObjectMapper mapper) {
     SimpleModule module = new SimpleModule();
     module.addSerializer(AnInterface.class, new AnInterfaceSerializer());
     module.addDeserializer(AnInterface.class, new AnInterfaceDeserializer());
-    ObjectMapper mapper = new ObjectMapper();
     mapper.registerModule(module);
     mapper.configure(MapperFeature.AUTO_DETECT_GETTERS, false);
     mapper.configure(MapperFeature.AUTO_DETECT_SETTERS, false);
@@ -122,12 +132,41 @@ public class JacksonConverterFactoryTest {
     mapper.setVisibilityChecker(mapper.getSerializationConfig()
         .getDefaultVisibilityChecker()
         .withFieldVisibility(JsonAutoDetect.Visibility.ANY));
+    return mapper;
+  }
+
+  @Before public void setUp() {
+    ObjectMapper mapper = configure(new ObjectMapper());
+    smileMapper = configure(new ObjectMapper(new SmileFactory()));
+    ObjectMapper cborMapper = configure(new ObjectMapper(new CBORFactory()));
 
     Retrofit retrofit = new Retrofit.Builder()
         .baseUrl(server.url("/"))
         .addConverterFactory(JacksonConverterFactory.create(mapper))
         .build();
+    Retrofit retrofitStreaming = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(JacksonConverterFactory.create(mapper).withStreaming())
+        .build();
+    Retrofit retrofitStreamingLength = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(JacksonConverterFactory.create(mapper).withStreamingContentLength())
+        .build();
+    Retrofit retrofitSmile = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(JacksonConverterFactory.create(smileMapper))
+        .build();
+    Retrofit retrofitAnyFormat = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(JacksonConverterFactory.create(mapper)
+            .withResponseFormat(smileMapper)
+            .withResponseFormat(cborMapper))
+        .build();
     service = retrofit.create(Service.class);
+    serviceSmile = retrofitSmile.create(Service.class);
+    serviceAnyFormat = retrofitAnyFormat.create(Service.class);
+    serviceStreaming = retrofitStreaming.create(Service.class);
+    serviceStreamingLength = retrofitStreamingLength.create(Service.class);
   }
 
   @Test public void anInterface() throws IOException, InterruptedException {
@@ -156,4 +195,113 @@ public class JacksonConverterFactoryTest {
     assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"value\"}");
     assertThat(request.getHeader("Content-Type")).isEqualTo("application/json; charset=UTF-8");
   }
+
+  @Test public void utf8() throws IOException {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/json; charset=UTF-8")
+        .setBody("{\"name\":\"caf\u00e9 \u2615\"}"));
+
+    Response<AnInterface> response = service.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("caf\u00e9 \u2615");
+  }
+
+  @Test public void utf8BomSkipped() throws IOException {
+    Buffer responseBody = new Buffer()
+        .write(ByteString.decodeHex("EFBBBF"))
+        .writeUtf8("{\"name\":\"value\"}");
+    server.enqueue(new MockResponse().setBody(responseBody));
+
+    Response<AnInterface> response = service.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("value");
+  }
+
+  @Test public void utf16WithoutCharsetIsDetected() throws IOException {
+    Buffer responseBody = new Buffer()
+        .writeString("{\"name\":\"caf\u00e9\"}", Charset.forName("UTF-16BE"));
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/json")
+        .setBody(responseBody));
+
+    Response<AnInterface> response = service.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("caf\u00e9");
+  }
+
+  @Test public void declaredCharsetIsDecoded() throws IOException {
+    Buffer responseBody = new Buffer()
+        .writeString("{\"name\":\"caf\u00e9\"}", Charset.forName("ISO-8859-1"));
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/json; charset=ISO-8859-1")
+        .setBody(responseBody));
+
+    Response<AnInterface> response = service.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("caf\u00e9");
+  }
+
+  @Test public void binaryFormatRequestAndResponse() throws IOException, InterruptedException {
+    byte[] smile = smileMapper.writeValueAsBytes(new AnImplementation("value"));
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-jackson-smile")
+        .setBody(new Buffer().write(smile)));
+
+    Response<AnInterface> response =
+        serviceSmile.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("value");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readByteArray()).isEqualTo(smile);
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/x-jackson-smile");
+  }
+
+  @Test public void responseFormatChosenByContentType() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/json")
+        .setBody("{\"name\":\"json\"}"));
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-jackson-smile")
+        .setBody(new Buffer().write(smileMapper.writeValueAsBytes(new AnImplementation("smile")))));
+    ObjectMapper cborMapper = configure(new ObjectMapper(new CBORFactory()));
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/cbor")
+        .setBody(new Buffer().write(cborMapper.writeValueAsBytes(new AnImplementation("cbor")))));
+
+    AnImplementation value = new AnImplementation("value");
+    assertThat(serviceAnyFormat.anInterface(value).execute().body().getName())
+        .isEqualTo("json");
+    assertThat(serviceAnyFormat.anInterface(value).execute().body().getName())
+        .isEqualTo("smile");
+    assertThat(serviceAnyFormat.anInterface(value).execute().body().getName())
+        .isEqualTo("cbor");
+
+    // Requests still use the format of the factory's own mapper.
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"value\"}");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/json; charset=UTF-8");
+  }
+
+  @Test public void streaming() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("{\"name\":\"value\"}"));
+
+    Response<AnInterface> response =
+        serviceStreaming.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("value");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"value\"}");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/json; charset=UTF-8");
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getHeader("Content-Length")).isNull();
+  }
+
+  @Test public void streamingContentLength() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("{\"name\":\"value\"}"));
+
+    Response<AnInterface> response =
+        serviceStreamingLength.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("value");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"value\"}");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("16");
+    assertThat(request.getHeader("Transfer-Encoding")).isNull();
+  }
 }
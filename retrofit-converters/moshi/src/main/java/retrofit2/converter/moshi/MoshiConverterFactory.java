@@ -26,6 +26,7 @@ import java.util.Set;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
+import retrofit2.Memoizable;
 import retrofit2.Retrofit;
 
 import static java.util.Collections.unmodifiableSet;
@@ -42,6 +43,7 @@ import static java.util.Collections.unmodifiableSet;
  * when looking up a request body converter and those on the method will be used when looking up a
  * response body converter.
  */
+@Memoizable
 public final class MoshiConverterFactory extends Converter.Factory {
   /** Create an instance using a default {@link Moshi} instance for conversion. */
   public static MoshiConverterFactory create() {
@@ -52,37 +54,54 @@ public final class MoshiConverterFactory extends Converter.Factory {
   @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
   public static MoshiConverterFactory create(Moshi moshi) {
     if (moshi == null) throw new NullPointerException("moshi == null");
-    return new MoshiConverterFactory(moshi, false, false, false);
+    return new MoshiConverterFactory(moshi, false, false, false, false, false);
   }
 
   private final Moshi moshi;
   private final boolean lenient;
   private final boolean failOnUnknown;
   private final boolean serializeNulls;
+  private final boolean streaming;
+  private final boolean computeContentLength;
 
   private MoshiConverterFactory(Moshi moshi, boolean lenient, boolean failOnUnknown,
-      boolean serializeNulls) {
+      boolean serializeNulls, boolean streaming, boolean computeContentLength) {
     this.moshi = moshi;
     this.lenient = lenient;
     this.failOnUnknown = failOnUnknown;
     this.serializeNulls = serializeNulls;
+    this.streaming = streaming;
+    this.computeContentLength = computeContentLength;
   }
 
   /** Return a new factory which uses {@linkplain JsonAdapter#lenient() lenient} adapters. */
   public MoshiConverterFactory asLenient() {
-    return new MoshiConverterFactory(moshi, true, failOnUnknown, serializeNulls);
+    return new MoshiConverterFactory(moshi, true, failOnUnknown, serializeNulls, streaming,
+        computeContentLength);
   }
 
   /**
    * Return a new factory which uses {@link JsonAdapter#failOnUnknown()} adapters.
    */
   public MoshiConverterFactory failOnUnknown() {
-    return new MoshiConverterFactory(moshi, lenient, true, serializeNulls);
+    return new MoshiConverterFactory(moshi, lenient, true, serializeNulls, streaming,
+        computeContentLength);
   }
 
   /** Return a new factory which includes null values into the serialized JSON. */
   public MoshiConverterFactory withNullSerialization() {
-    return new MoshiConverterFactory(moshi, lenient, failOnUnknown, true);
+    return new MoshiConverterFactory(moshi, lenient, failOnUnknown, true, streaming,
+        computeContentLength);
+  }
+
+  /** Return a new factory whose request bodies are a {@link retrofit2.StreamingRequestBody}. */
+  public MoshiConverterFactory withStreaming() {
+    return new MoshiConverterFactory(moshi, lenient, failOnUnknown, serializeNulls, true, false);
+  }
+
+  /** Return a new factory like {@link #withStreaming()} whose bodies also report their length. */
+  public MoshiConverterFactory withStreamingContentLength() {
+    return new MoshiConverterFactory(moshi, lenient, failOnUnknown, serializeNulls, true, true);
   }
 
   @Override
@@ -113,7 +132,7 @@ public final class MoshiConverterFactory extends Converter.Factory {
     if (serializeNulls) {
       adapter = adapter.serializeNulls();
     }
-    return new MoshiRequestBodyConverter<>(adapter);
+    return new MoshiRequestBodyConverter<>(adapter, streaming, computeContentLength);
   }
 
   private static Set<? extends Annotation> jsonAnnotations(Annotation[] annotations) {
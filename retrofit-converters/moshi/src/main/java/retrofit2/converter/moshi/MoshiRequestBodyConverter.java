@@ -21,21 +21,41 @@ import java.io.IOException;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okio.Buffer;
+import okio.BufferedSink;
 import retrofit2.Converter;
+import retrofit2.StreamingRequestBody;
 
 final class MoshiRequestBodyConverter<T> implements Converter<T, RequestBody> {
   private static final MediaType MEDIA_TYPE = MediaType.parse("application/json; charset=UTF-8");
 
   private final JsonAdapter<T> adapter;
+  private final boolean streaming;
+  private final boolean computeContentLength;
 
-  MoshiRequestBodyConverter(JsonAdapter<T> adapter) {
+  MoshiRequestBodyConverter(JsonAdapter<T> adapter, boolean streaming,
+      boolean computeContentLength) {
     this.adapter = adapter;
+    this.streaming = streaming;
+    this.computeContentLength = computeContentLength;
   }
 
-  @Override public RequestBody convert(T value) throws IOException {
+  @Override public RequestBody convert(final T value) throws IOException {
+    if (streaming) {
+      return new StreamingRequestBody(MEDIA_TYPE, computeContentLength) {
+        @Override public void writeTo(BufferedSink sink) throws IOException {
+          write(value, sink);
+        }
+      };
+    }
     Buffer buffer = new Buffer();
     JsonWriter writer = JsonWriter.of(buffer);
     adapter.toJson(writer, value);
     return RequestBody.create(MEDIA_TYPE, buffer.readByteString());
   }
+
+  void write(T value, BufferedSink sink) throws IOException {
+    JsonWriter writer = JsonWriter.of(sink);
+    adapter.toJson(writer, value);
+    writer.flush(); // Closing would close the sink, which belongs to the caller.
+  }
 }
@@ -119,6 +119,8 @@ public final class MoshiConverterFactoryTest {
   @Rule public final MockWebServer server = new MockWebServer();
 
   private Service service;
+  private Service serviceStreaming;
+  private Service serviceStreamingLength;
   private Service serviceLenient;
   private Service serviceNulls;
   private Service serviceFailOnUnknown;
@@ -158,7 +160,17 @@ public final class MoshiConverterFactoryTest {
         .baseUrl(server.url("/"))
         .addConverterFactory(factoryFailOnUnknown)
         .build();
+    Retrofit retrofitStreaming = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(factory.withStreaming())
+        .build();
+    Retrofit retrofitStreamingLength = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(factory.withStreamingContentLength())
+        .build();
     service = retrofit.create(Service.class);
+    serviceStreaming = retrofitStreaming.create(Service.class);
+    serviceStreamingLength = retrofitStreamingLength.create(Service.class);
     serviceLenient = retrofitLenient.create(Service.class);
     serviceNulls = retrofitNulls.create(Service.class);
     serviceFailOnUnknown = retrofitFailOnUnknown.create(Service.class);
@@ -269,4 +281,31 @@ public final class MoshiConverterFactoryTest {
     } catch (IOException expected) {
     }
   }
+
+  @Test public void streaming() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("{\"name\":\"value\"}"));
+
+    Response<AnInterface> response =
+        serviceStreaming.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("value");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"value\"}");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/json; charset=UTF-8");
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getHeader("Content-Length")).isNull();
+  }
+
+  @Test public void streamingContentLength() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("{\"name\":\"value\"}"));
+
+    Response<AnInterface> response =
+        serviceStreamingLength.anInterface(new AnImplementation("value")).execute();
+    assertThat(response.body().getName()).isEqualTo("value");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"value\"}");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("16");
+    assertThat(request.getHeader("Transfer-Encoding")).isNull();
+  }
 }
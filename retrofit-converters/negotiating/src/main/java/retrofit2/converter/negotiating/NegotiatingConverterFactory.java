@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.converter.negotiating;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * A {@linkplain Converter.Factory converter} which picks the converter for each response based on
+ * its {@code Content-Type}. Delegate factories are registered for a media type in order of
+ * preference:
+ * <pre><code>
+ * NegotiatingConverterFactory negotiating = new NegotiatingConverterFactory.Builder()
+ *     .add(MediaType.parse("application/x-protobuf"), ProtoConverterFactory.create())
+ *     .add(MediaType.parse("application/json"), GsonConverterFactory.create())
+ *     .build();
+ *
+ * OkHttpClient client = new OkHttpClient.Builder()
+ *     .addInterceptor(negotiating.acceptInterceptor())
+ *     .build();
+ * Retrofit retrofit = new Retrofit.Builder()
+ *     .client(client)
+ *     .addConverterFactory(negotiating)
+ *     // ...
+ *     .build();
+ * </code></pre>
+ * A response is converted by the delegate registered for its media type if that delegate supports
+ * the response type. Responses without a {@code Content-Type}, or whose media type has no such
+ * delegate, are converted by the most preferred delegate which supports the type. Request bodies
+ * are always converted by the most preferred delegate which supports the type.
+ * <p>
+ * Converters cannot change requests, so advertising the registered media types to the server is
+ * left to the {@linkplain #acceptInterceptor() interceptor} which must be added to the client.
+ */
+public final class NegotiatingConverterFactory extends Converter.Factory {
+  private final Map<String, Converter.Factory> factories;
+  private final String accept;
+
+  NegotiatingConverterFactory(Builder builder) {
+    this.factories = Collections.unmodifiableMap(new LinkedHashMap<>(builder.factories));
+    this.accept = accept(factories.keySet());
+  }
+
+  /** Lists {@code mediaTypes} with a descending quality for each one after the first. */
+  private static String accept(Iterable<String> mediaTypes) {
+    StringBuilder result = new StringBuilder();
+    int quality = 10;
+    for (String mediaType : mediaTypes) {
+      if (result.length() > 0) {
+        result.append(", ");
+      }
+      result.append(mediaType);
+      if (quality < 10) {
+        result.append(";q=0.").append(quality);
+      }
+      if (quality > 1) {
+        quality--;
+      }
+    }
+    return result.toString();
+  }
+
+  private static String key(MediaType mediaType) {
+    return mediaType.type() + "/" + mediaType.subtype();
+  }
+
+  /** The value of the {@code Accept} header sent by {@link #acceptInterceptor()}. */
+  public String accept() {
+    return accept;
+  }
+
+  /**
+   * Returns an interceptor which adds an {@code Accept} header listing the registered media types
+   * to requests which do not already have one. Methods which declare their own {@code Accept}, like
+   * with {@code @Headers("Accept: text/plain")}, keep it.
+   * <p>
+   * The interceptor applies to every request made with the client it is added to, including ones
+   * not made through Retrofit. To limit it to Retrofit's requests, give Retrofit its own client
+   * derived with {@link okhttp3.OkHttpClient#newBuilder()}.
+   */
+  public Interceptor acceptInterceptor() {
+    return new Interceptor() {
+      @Override public okhttp3.Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header("Accept") == null) {
+          request = request.newBuilder().header("Accept", accept).build();
+        }
+        return chain.proceed(request);
+      }
+    };
+  }
+
+  @Override
+  public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+      Retrofit retrofit) {
+    Map<String, Converter<ResponseBody, ?>> converters = new LinkedHashMap<>();
+    for (Map.Entry<String, Converter.Factory> entry : factories.entrySet()) {
+      Converter<ResponseBody, ?> converter =
+          entry.getValue().responseBodyConverter(type, annotations, retrofit);
+      if (converter != null) {
+        converters.put(entry.getKey(), converter);
+      }
+    }
+    if (converters.isEmpty()) {
+      return null;
+    }
+    return new NegotiatingResponseBodyConverter<>(converters);
+  }
+
+  @Override
+  public Converter<?, RequestBody> requestBodyConverter(Type type,
+      Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
+    for (Converter.Factory factory : factories.values()) {
+      Converter<?, RequestBody> converter =
+          factory.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+      if (converter != null) {
+        return converter;
+      }
+    }
+    return null;
+  }
+
+  static final class NegotiatingResponseBodyConverter<T> implements Converter<ResponseBody, T> {
+    private final Map<String, Converter<ResponseBody, T>> converters;
+    private final Converter<ResponseBody, T> preferred;
+
+    @SuppressWarnings("unchecked") // Each delegate converts to the method's response type.
+    NegotiatingResponseBodyConverter(Map<String, Converter<ResponseBody, ?>> converters) {
+      this.converters = (Map<String, Converter<ResponseBody, T>>) (Map) converters;
+      this.preferred = this.converters.values().iterator().next();
+    }
+
+    @Override public T convert(ResponseBody value) throws IOException {
+      MediaType contentType = value.contentType();
+      Converter<ResponseBody, T> converter =
+          contentType != null ? converters.get(key(contentType)) : null;
+      if (converter == null) {
+        converter = preferred;
+      }
+      return converter.convert(value);
+    }
+  }
+
+  /** Build a new {@link NegotiatingConverterFactory}. */
+  public static final class Builder {
+    private final Map<String, Converter.Factory> factories = new LinkedHashMap<>();
+
+    /**
+     * Use {@code factory} for responses of {@code mediaType}. Media types are preferred in the
+     * order they are added. Parameters like {@code charset} are ignored.
+     */
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder add(MediaType mediaType, Converter.Factory factory) {
+      if (mediaType == null) throw new NullPointerException("mediaType == null");
+      if (factory == null) throw new NullPointerException("factory == null");
+      String key = key(mediaType);
+      if (factories.containsKey(key)) {
+        throw new IllegalArgumentException("Duplicate media type: " + key);
+      }
+      factories.put(key, factory);
+      return this;
+    }
+
+    public NegotiatingConverterFactory build() {
+      if (factories.isEmpty()) {
+        throw new IllegalStateException("At least one media type is required.");
+      }
+      return new NegotiatingConverterFactory(this);
+    }
+  }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package retrofit2.converter.negotiating;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.converter.negotiating;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.Headers;
+import retrofit2.http.POST;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class NegotiatingConverterFactoryTest {
+  interface Service {
+    @GET("/") Call<String> string();
+    @GET("/") Call<CharSequence> charSequence();
+    @Headers("Accept: text/plain")
+    @GET("/") Call<String> explicitAccept();
+    @POST("/") Call<String> post(@Body String body);
+  }
+
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  private NegotiatingConverterFactory factory;
+  private Service service;
+
+  @Before public void setUp() {
+    factory = new NegotiatingConverterFactory.Builder()
+        .add(MediaType.parse("application/x-binary"), new PrefixConverterFactory("binary"))
+        .add(MediaType.parse("application/x-compact"), new PrefixConverterFactory("compact"))
+        .add(MediaType.parse("application/json; charset=UTF-8"),
+            new PrefixConverterFactory("json", CharSequence.class))
+        .build();
+    OkHttpClient client = new OkHttpClient.Builder()
+        .addInterceptor(factory.acceptInterceptor())
+        .build();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .client(client)
+        .addConverterFactory(factory)
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void acceptListsMediaTypesInOrder() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    service.string().execute();
+    assertThat(server.takeRequest().getHeader("Accept"))
+        .isEqualTo("application/x-binary, application/x-compact;q=0.9, application/json;q=0.8");
+    assertThat(factory.accept())
+        .isEqualTo("application/x-binary, application/x-compact;q=0.9, application/json;q=0.8");
+  }
+
+  @Test public void explicitAcceptIsKept() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    service.explicitAccept().execute();
+    assertThat(server.takeRequest().getHeader("Accept")).isEqualTo("text/plain");
+  }
+
+  @Test public void responseIsConvertedByContentType() throws IOException {
+    server.enqueue(new MockResponse().setHeader("Content-Type", "application/x-compact")
+        .setBody("Hi"));
+    server.enqueue(new MockResponse().setHeader("Content-Type", "application/json; charset=UTF-8")
+        .setBody("Hi"));
+
+    assertThat(service.string().execute().body()).isEqualTo("compact:Hi");
+    assertThat(service.string().execute().body()).isEqualTo("json:Hi");
+  }
+
+  @Test public void unknownOrMissingContentTypeUsesPreferred() throws IOException {
+    server.enqueue(new MockResponse().setHeader("Content-Type", "text/html").setBody("Hi"));
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    assertThat(service.string().execute().body()).isEqualTo("binary:Hi");
+    assertThat(service.string().execute().body()).isEqualTo("binary:Hi");
+  }
+
+  @Test public void unsupportedTypesAreSkipped() throws IOException {
+    server.enqueue(new MockResponse().setHeader("Content-Type", "application/x-binary")
+        .setBody("Hi"));
+
+    assertThat(service.charSequence().execute().body().toString()).isEqualTo("json:Hi");
+  }
+
+  @Test public void requestBodyUsesPreferred() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    service.post("Hello").execute();
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isEqualTo("binary:Hello");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/x-binary; charset=utf-8");
+  }
+
+  @Test public void duplicateMediaTypeThrows() {
+    NegotiatingConverterFactory.Builder builder = new NegotiatingConverterFactory.Builder()
+        .add(MediaType.parse("application/json"), new PrefixConverterFactory("json"));
+    try {
+      builder.add(MediaType.parse("application/json; charset=UTF-8"),
+          new PrefixConverterFactory("json"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Duplicate media type: application/json");
+    }
+  }
+
+  @Test public void emptyBuilderThrows() {
+    try {
+      new NegotiatingConverterFactory.Builder().build();
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("At least one media type is required.");
+    }
+  }
+
+  /** Converts strings by prefixing them with a name. Only supports {@code type}. */
+  static final class PrefixConverterFactory extends Converter.Factory {
+    private final String prefix;
+    private final Type type;
+
+    PrefixConverterFactory(String prefix) {
+      this(prefix, String.class);
+    }
+
+    PrefixConverterFactory(String prefix, Type type) {
+      this.prefix = prefix;
+      this.type = type;
+    }
+
+    @Override public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+        Annotation[] annotations, Retrofit retrofit) {
+      if (type != String.class && type != this.type) {
+        return null;
+      }
+      return new Converter<ResponseBody, String>() {
+        @Override public String convert(ResponseBody value) throws IOException {
+          return prefix + ":" + value.string();
+        }
+      };
+    }
+
+    @Override public Converter<?, RequestBody> requestBodyConverter(Type type,
+        Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
+      if (type != String.class) {
+        return null;
+      }
+      return new Converter<String, RequestBody>() {
+        @Override public RequestBody convert(String value) throws IOException {
+          MediaType mediaType = MediaType.parse("application/x-" + prefix);
+          return RequestBody.create(mediaType, prefix + ":" + value);
+        }
+      };
+    }
+  }
+}
@@ -27,6 +27,7 @@ import javax.annotation.Nullable;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
+import retrofit2.Memoizable;
 import retrofit2.Retrofit;
 
 /**
@@ -35,20 +36,32 @@ import retrofit2.Retrofit;
  * This converter only applies for types which extend from {@link MessageLite} (or one of its
  * subclasses).
  */
+@Memoizable
 public final class ProtoConverterFactory extends Converter.Factory {
   public static ProtoConverterFactory create() {
-    return new ProtoConverterFactory(null);
+    return new ProtoConverterFactory(null, false);
   }
 
   /** Create an instance which uses {@code registry} when deserializing. */
   public static ProtoConverterFactory createWithRegistry(@Nullable ExtensionRegistryLite registry) {
-    return new ProtoConverterFactory(registry);
+    return new ProtoConverterFactory(registry, false);
   }
 
   private final @Nullable ExtensionRegistryLite registry;
+  private final boolean aliasing;
 
-  private ProtoConverterFactory(@Nullable ExtensionRegistryLite registry) {
+  private ProtoConverterFactory(@Nullable ExtensionRegistryLite registry, boolean aliasing) {
     this.registry = registry;
+    this.aliasing = aliasing;
+  }
+
+  /**
+   * Return a new factory which buffers each response body and decodes {@code bytes} fields as
+   * views of that buffer instead of copies. This avoids copying large {@code bytes} fields at the
+   * cost of keeping the whole response in memory for as long as any of those fields are reachable.
+   */
+  public ProtoConverterFactory withAliasing() {
+    return new ProtoConverterFactory(registry, true);
   }
 
   @Override
@@ -81,7 +94,7 @@ public final class ProtoConverterFactory extends Converter.Factory {
             + " had no parser() method or PARSER field.");
       }
     }
-    return new ProtoResponseBodyConverter<>(parser, registry);
+    return new ProtoResponseBodyConverter<>(parser, registry, aliasing);
   }
 
   @Override
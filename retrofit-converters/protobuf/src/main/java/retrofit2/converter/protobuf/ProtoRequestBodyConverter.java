@@ -19,13 +19,35 @@ import com.google.protobuf.MessageLite;
 import java.io.IOException;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
+import okio.BufferedSink;
 import retrofit2.Converter;
 
 final class ProtoRequestBodyConverter<T extends MessageLite> implements Converter<T, RequestBody> {
   private static final MediaType MEDIA_TYPE = MediaType.parse("application/x-protobuf");
 
   @Override public RequestBody convert(T value) throws IOException {
-    byte[] bytes = value.toByteArray();
-    return RequestBody.create(MEDIA_TYPE, bytes);
+    return new MessageRequestBody(value);
+  }
+
+  /** Encodes a message directly into the sink instead of into an intermediate array. */
+  static final class MessageRequestBody extends RequestBody {
+    private final MessageLite value;
+
+    MessageRequestBody(MessageLite value) {
+      this.value = value;
+    }
+
+    @Override public MediaType contentType() {
+      return MEDIA_TYPE;
+    }
+
+    @Override public long contentLength() {
+      return value.getSerializedSize(); // Memoized by the message.
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      // Writes through a CodedOutputStream sized for the message and flushes it into the sink.
+      value.writeTo(sink.outputStream());
+    }
   }
 }
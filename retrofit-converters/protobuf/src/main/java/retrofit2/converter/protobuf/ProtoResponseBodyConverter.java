@@ -15,11 +15,14 @@
  */
 package retrofit2.converter.protobuf;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ExtensionRegistryLite;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
 import com.google.protobuf.Parser;
+import com.google.protobuf.UnsafeByteOperations;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import javax.annotation.Nullable;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
@@ -28,15 +31,28 @@ final class ProtoResponseBodyConverter<T extends MessageLite>
     implements Converter<ResponseBody, T> {
   private final Parser<T> parser;
   private final @Nullable ExtensionRegistryLite registry;
+  private final boolean aliasing;
 
-  ProtoResponseBodyConverter(Parser<T> parser, @Nullable ExtensionRegistryLite registry) {
+  ProtoResponseBodyConverter(Parser<T> parser, @Nullable ExtensionRegistryLite registry,
+      boolean aliasing) {
     this.parser = parser;
     this.registry = registry;
+    this.aliasing = aliasing;
   }
 
   @Override public T convert(ResponseBody value) throws IOException {
     try {
-      return parser.parseFrom(value.byteStream(), registry);
+      if (!aliasing) {
+        return parser.parseFrom(value.byteStream(), registry);
+      }
+      // Protobuf only aliases input which it considers immutable. The array from bytes() is a
+      // fresh copy that nothing else references, so it is safe to wrap rather than copy again.
+      CodedInputStream input =
+          UnsafeByteOperations.unsafeWrap(ByteBuffer.wrap(value.bytes())).newCodedInput();
+      input.enableAliasing(true);
+      T message = parser.parseFrom(input, registry);
+      input.checkLastTagWas(0); // Unlike the other parseFrom overloads, this one doesn't check.
+      return message;
     } catch (InvalidProtocolBufferException e) {
       throw new RuntimeException(e); // Despite extending IOException, this is data mismatch.
     } finally {
@@ -48,11 +48,15 @@ public final class ProtoConverterFactoryTest {
   interface ServiceWithRegistry {
     @GET("/") Call<Phone> get();
   }
+  interface ServiceWithAliasing {
+    @GET("/") Call<Phone> get();
+  }
 
   @Rule public final MockWebServer server = new MockWebServer();
 
   private Service service;
   private ServiceWithRegistry serviceWithRegistry;
+  private ServiceWithAliasing serviceWithAliasing;
 
   @Before public void setUp() {
     Retrofit retrofit = new Retrofit.Builder()
@@ -68,6 +72,12 @@ public final class ProtoConverterFactoryTest {
         .addConverterFactory(ProtoConverterFactory.createWithRegistry(registry))
         .build();
     serviceWithRegistry = retrofitWithRegistry.create(ServiceWithRegistry.class);
+
+    Retrofit retrofitWithAliasing = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(ProtoConverterFactory.createWithRegistry(registry).withAliasing())
+        .build();
+    serviceWithAliasing = retrofitWithAliasing.create(ServiceWithAliasing.class);
   }
 
   @Test public void serializeAndDeserialize() throws IOException, InterruptedException {
@@ -82,6 +92,7 @@ public final class ProtoConverterFactoryTest {
     RecordedRequest request = server.takeRequest();
     assertThat(request.getBody().readByteString()).isEqualTo(encoded);
     assertThat(request.getHeader("Content-Type")).isEqualTo("application/x-protobuf");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("16");
   }
 
   @Test public void deserializeEmpty() throws IOException {
@@ -104,6 +115,31 @@ public final class ProtoConverterFactoryTest {
     assertThat(body.getExtension(PhoneProtos.voicemail)).isEqualTo(true);
   }
 
+  @Test public void deserializeWithAliasing() throws IOException {
+    ByteString encoded = ByteString.decodeBase64("Cg4oNTE5KSA4NjctNTMwORAB");
+    server.enqueue(new MockResponse().setBody(new Buffer().write(encoded)));
+
+    Call<Phone> call = serviceWithAliasing.get();
+    Response<Phone> response = call.execute();
+    Phone body = response.body();
+    assertThat(body.getNumber()).isEqualTo("(519) 867-5309");
+    assertThat(body.getExtension(PhoneProtos.voicemail)).isEqualTo(true);
+  }
+
+  @Test public void deserializeWithAliasingRejectsUnmatchedEndGroup() throws IOException {
+    ByteString encoded = ByteString.decodeBase64("Cg4oNTE5KSA4NjctNTMwOQw=");
+    server.enqueue(new MockResponse().setBody(new Buffer().write(encoded)));
+
+    Call<?> call = serviceWithAliasing.get();
+    try {
+      call.execute();
+      fail();
+    } catch (RuntimeException e) {
+      assertThat(e.getCause()).isInstanceOf(InvalidProtocolBufferException.class)
+          .hasMessageContaining("end-group tag did not match");
+    }
+  }
+
   @Test public void deserializeWrongClass() throws IOException {
     ByteString encoded = ByteString.decodeBase64("Cg4oNTE5KSA4NjctNTMwOQ==");
     server.enqueue(new MockResponse().setBody(new Buffer().write(encoded)));
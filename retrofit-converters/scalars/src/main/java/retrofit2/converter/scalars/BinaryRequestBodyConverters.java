@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.converter.scalars;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+import retrofit2.Converter;
+
+final class BinaryRequestBodyConverters {
+  static final MediaType MEDIA_TYPE = MediaType.parse("application/octet-stream");
+
+  private BinaryRequestBodyConverters() {
+  }
+
+  static final class ByteArrayRequestBodyConverter implements Converter<byte[], RequestBody> {
+    static final ByteArrayRequestBodyConverter INSTANCE = new ByteArrayRequestBodyConverter();
+
+    @Override public RequestBody convert(byte[] value) {
+      return RequestBody.create(MEDIA_TYPE, value);
+    }
+  }
+
+  static final class ByteStringRequestBodyConverter
+      implements Converter<ByteString, RequestBody> {
+    static final ByteStringRequestBodyConverter INSTANCE = new ByteStringRequestBodyConverter();
+
+    @Override public RequestBody convert(ByteString value) {
+      return RequestBody.create(MEDIA_TYPE, value);
+    }
+  }
+
+  static final class ByteBufferRequestBodyConverter
+      implements Converter<ByteBuffer, RequestBody> {
+    static final ByteBufferRequestBodyConverter INSTANCE = new ByteBufferRequestBodyConverter();
+
+    @Override public RequestBody convert(ByteBuffer value) {
+      return new ByteBufferRequestBody(value.duplicate());
+    }
+  }
+
+  static final class InputStreamRequestBodyConverter
+      implements Converter<InputStream, RequestBody> {
+    static final InputStreamRequestBodyConverter INSTANCE = new InputStreamRequestBodyConverter();
+
+    @Override public RequestBody convert(InputStream value) {
+      return new SourceRequestBody(Okio.source(value));
+    }
+  }
+
+  static final class BufferedSourceRequestBodyConverter
+      implements Converter<BufferedSource, RequestBody> {
+    static final BufferedSourceRequestBodyConverter INSTANCE =
+        new BufferedSourceRequestBodyConverter();
+
+    @Override public RequestBody convert(BufferedSource value) {
+      return new SourceRequestBody(value);
+    }
+  }
+
+  /** Writes the buffer's remaining bytes without changing its position. */
+  static final class ByteBufferRequestBody extends RequestBody {
+    private final ByteBuffer buffer;
+
+    ByteBufferRequestBody(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override public MediaType contentType() {
+      return MEDIA_TYPE;
+    }
+
+    @Override public long contentLength() {
+      return buffer.remaining();
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      if (buffer.hasArray()) {
+        sink.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        return;
+      }
+      ByteBuffer source = buffer.duplicate();
+      byte[] chunk = new byte[(int) Math.min(source.remaining(), 8192)];
+      while (source.hasRemaining()) {
+        int count = Math.min(source.remaining(), chunk.length);
+        source.get(chunk, 0, count);
+        sink.write(chunk, 0, count);
+      }
+    }
+  }
+
+  /**
+   * Streams a source of unknown length to the network and closes it. The source can only be read
+   * once, so the request cannot be retried or redirected with its body.
+   */
+  static final class SourceRequestBody extends RequestBody {
+    private final Source source;
+
+    SourceRequestBody(Source source) {
+      this.source = source;
+    }
+
+    @Override public MediaType contentType() {
+      return MEDIA_TYPE;
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      try {
+        sink.writeAll(source);
+      } finally {
+        source.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.converter.scalars;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.ForwardingSource;
+import okio.Okio;
+import retrofit2.Converter;
+
+final class BinaryResponseBodyConverters {
+  private BinaryResponseBodyConverters() {
+  }
+
+  /**
+   * Reads all of {@code value} and closes it. When its length is known the bytes are read into
+   * storage of exactly that size and the stream is checked to agree with it.
+   */
+  static ByteString readByteString(ResponseBody value) throws IOException {
+    try {
+      BufferedSource source = value.source();
+      long contentLength = value.contentLength();
+      if (contentLength == -1L) {
+        return source.readByteString();
+      }
+      ByteString bytes = source.readByteString(contentLength);
+      if (!source.exhausted()) {
+        throw new IOException("Content-Length ("
+            + contentLength
+            + ") and stream length disagree");
+      }
+      return bytes;
+    } finally {
+      value.close();
+    }
+  }
+
+  static final class ByteArrayResponseBodyConverter implements Converter<ResponseBody, byte[]> {
+    static final ByteArrayResponseBodyConverter INSTANCE = new ByteArrayResponseBodyConverter();
+
+    @Override public byte[] convert(ResponseBody value) throws IOException {
+      return value.bytes();
+    }
+  }
+
+  static final class ByteStringResponseBodyConverter
+      implements Converter<ResponseBody, ByteString> {
+    static final ByteStringResponseBodyConverter INSTANCE = new ByteStringResponseBodyConverter();
+
+    @Override public ByteString convert(ResponseBody value) throws IOException {
+      return readByteString(value);
+    }
+  }
+
+  static final class ByteBufferResponseBodyConverter
+      implements Converter<ResponseBody, ByteBuffer> {
+    static final ByteBufferResponseBodyConverter INSTANCE = new ByteBufferResponseBodyConverter();
+
+    @Override public ByteBuffer convert(ResponseBody value) throws IOException {
+      return ByteBuffer.wrap(value.bytes());
+    }
+  }
+
+  static final class InputStreamResponseBodyConverter
+      implements Converter<ResponseBody, InputStream> {
+    static final InputStreamResponseBodyConverter INSTANCE =
+        new InputStreamResponseBodyConverter();
+
+    @Override public InputStream convert(ResponseBody value) {
+      return Okio.buffer(new AutoClosingSource(value)).inputStream();
+    }
+  }
+
+  static final class BufferedSourceResponseBodyConverter
+      implements Converter<ResponseBody, BufferedSource> {
+    static final BufferedSourceResponseBodyConverter INSTANCE =
+        new BufferedSourceResponseBodyConverter();
+
+    @Override public BufferedSource convert(ResponseBody value) {
+      return Okio.buffer(new AutoClosingSource(value));
+    }
+  }
+
+  /** Closes the response body once it is exhausted or fails, whichever comes first. */
+  static final class AutoClosingSource extends ForwardingSource {
+    private final ResponseBody body;
+    private boolean closed;
+
+    AutoClosingSource(ResponseBody body) {
+      super(body.source());
+      this.body = body;
+    }
+
+    @Override public long read(Buffer sink, long byteCount) throws IOException {
+      if (closed) return -1L;
+      long read;
+      try {
+        read = super.read(sink, byteCount);
+      } catch (IOException e) {
+        close();
+        throw e;
+      }
+      if (read == -1L) {
+        close();
+      }
+      return read;
+    }
+
+    @Override public void close() {
+      if (closed) return;
+      closed = true;
+      body.close();
+    }
+  }
+}
@@ -15,12 +15,27 @@
  */
 package retrofit2.converter.scalars;
 
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ByteString;
 import retrofit2.Converter;
+import retrofit2.Memoizable;
 import retrofit2.Retrofit;
+import retrofit2.converter.scalars.BinaryRequestBodyConverters.BufferedSourceRequestBodyConverter;
+import retrofit2.converter.scalars.BinaryRequestBodyConverters.ByteArrayRequestBodyConverter;
+import retrofit2.converter.scalars.BinaryRequestBodyConverters.ByteBufferRequestBodyConverter;
+import retrofit2.converter.scalars.BinaryRequestBodyConverters.ByteStringRequestBodyConverter;
+import retrofit2.converter.scalars.BinaryRequestBodyConverters.InputStreamRequestBodyConverter;
+import retrofit2.converter.scalars.BinaryResponseBodyConverters.BufferedSourceResponseBodyConverter;
+import retrofit2.converter.scalars.BinaryResponseBodyConverters.ByteArrayResponseBodyConverter;
+import retrofit2.converter.scalars.BinaryResponseBodyConverters.ByteBufferResponseBodyConverter;
+import retrofit2.converter.scalars.BinaryResponseBodyConverters.ByteStringResponseBodyConverter;
+import retrofit2.converter.scalars.BinaryResponseBodyConverters.InputStreamResponseBodyConverter;
 import retrofit2.converter.scalars.ScalarResponseBodyConverters.BooleanResponseBodyConverter;
 import retrofit2.converter.scalars.ScalarResponseBodyConverters.ByteResponseBodyConverter;
 import retrofit2.converter.scalars.ScalarResponseBodyConverters.CharacterResponseBodyConverter;
@@ -34,13 +49,33 @@ import retrofit2.converter.scalars.ScalarResponseBodyConverters.StringResponseBo
 /**
  * A {@linkplain Converter.Factory converter} for strings and both primitives and their boxed types
  * to {@code text/plain} bodies.
+ * <p>
+ * Binary bodies are supported as {@code byte[]}, {@link ByteString}, {@link ByteBuffer},
+ * {@link InputStream}, and {@link BufferedSource} by a factory created with
+ * {@link #withBinaryTypes()}. Requests of these types are sent as
+ * {@code application/octet-stream}; streams are sent with an unknown length and closed once
+ * written. Responses of the first three types are read fully and their body is closed. Streams
+ * are read as they are consumed and close their response body once exhausted, so a stream which
+ * is not read to the end must be closed by the caller.
  */
+@Memoizable
 public final class ScalarsConverterFactory extends Converter.Factory {
   public static ScalarsConverterFactory create() {
-    return new ScalarsConverterFactory();
+    return new ScalarsConverterFactory(false);
   }
 
-  private ScalarsConverterFactory() {
+  private final boolean binaryTypes;
+
+  private ScalarsConverterFactory(boolean binaryTypes) {
+    this.binaryTypes = binaryTypes;
+  }
+
+  /**
+   * Return a new factory which also converts the binary types. Factories added after this one
+   * will no longer be asked for those types.
+   */
+  public ScalarsConverterFactory withBinaryTypes() {
+    return new ScalarsConverterFactory(true);
   }
 
   @Override public Converter<?, RequestBody> requestBodyConverter(Type type,
@@ -64,6 +99,24 @@ public final class ScalarsConverterFactory extends Converter.Factory {
         || type == Short.class) {
       return ScalarRequestBodyConverter.INSTANCE;
     }
+    if (!binaryTypes) {
+      return null;
+    }
+    if (type == byte[].class) {
+      return ByteArrayRequestBodyConverter.INSTANCE;
+    }
+    if (type == ByteString.class) {
+      return ByteStringRequestBodyConverter.INSTANCE;
+    }
+    if (type == ByteBuffer.class) {
+      return ByteBufferRequestBodyConverter.INSTANCE;
+    }
+    if (type == InputStream.class) {
+      return InputStreamRequestBodyConverter.INSTANCE;
+    }
+    if (type == BufferedSource.class) {
+      return BufferedSourceRequestBodyConverter.INSTANCE;
+    }
     return null;
   }
 
@@ -97,6 +150,24 @@ public final class ScalarsConverterFactory extends Converter.Factory {
     if (type == Short.class || type == short.class) {
       return ShortResponseBodyConverter.INSTANCE;
     }
+    if (!binaryTypes) {
+      return null;
+    }
+    if (type == byte[].class) {
+      return ByteArrayResponseBodyConverter.INSTANCE;
+    }
+    if (type == ByteString.class) {
+      return ByteStringResponseBodyConverter.INSTANCE;
+    }
+    if (type == ByteBuffer.class) {
+      return ByteBufferResponseBodyConverter.INSTANCE;
+    }
+    if (type == InputStream.class) {
+      return InputStreamResponseBodyConverter.INSTANCE;
+    }
+    if (type == BufferedSource.class) {
+      return BufferedSourceResponseBodyConverter.INSTANCE;
+    }
     return null;
   }
 }
@@ -15,15 +15,25 @@
  */
 package retrofit2.converter.scalars;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import okhttp3.ResponseBody;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import retrofit2.Call;
+import retrofit2.Converter;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.scalars.ScalarsConverterFactory;
@@ -55,6 +65,11 @@ public final class ScalarsConverterFactoryTest {
       @POST("/") Call<ResponseBody> longObject(@Body Long body);
       @POST("/") Call<ResponseBody> shortPrimitive(@Body short body);
       @POST("/") Call<ResponseBody> shortObject(@Body Short body);
+      @POST("/") Call<ResponseBody> byteArray(@Body byte[] body);
+      @POST("/") Call<ResponseBody> byteString(@Body ByteString body);
+      @POST("/") Call<ResponseBody> byteBuffer(@Body ByteBuffer body);
+      @POST("/") Call<ResponseBody> inputStream(@Body InputStream body);
+      @POST("/") Call<ResponseBody> bufferedSource(@Body BufferedSource body);
 
       @GET("/") Call<Object> object();
 
@@ -67,6 +82,11 @@ public final class ScalarsConverterFactoryTest {
       @GET("/") Call<Integer> integerObject();
       @GET("/") Call<Long> longObject();
       @GET("/") Call<Short> shortObject();
+      @GET("/") Call<byte[]> byteArray();
+      @GET("/") Call<ByteString> byteString();
+      @GET("/") Call<ByteBuffer> byteBuffer();
+      @GET("/") Call<InputStream> inputStream();
+      @GET("/") Call<BufferedSource> bufferedSource();
   }
 
   @Rule public final MockWebServer server = new MockWebServer();
@@ -76,7 +96,7 @@ public final class ScalarsConverterFactoryTest {
   @Before public void setUp() {
     Retrofit retrofit = new Retrofit.Builder()
         .baseUrl(server.url("/"))
-        .addConverterFactory(ScalarsConverterFactory.create())
+        .addConverterFactory(ScalarsConverterFactory.create().withBinaryTypes())
         .build();
     service = retrofit.create(Service.class);
   }
@@ -287,4 +307,139 @@ public final class ScalarsConverterFactoryTest {
     Response<Short> shortResponse = service.shortObject().execute();
     assertThat(shortResponse.body()).isEqualTo((short) 134);
   }
+
+  @Test public void supportedBinaryRequestTypes() throws IOException, InterruptedException {
+    RecordedRequest request;
+
+    server.enqueue(new MockResponse());
+    service.byteArray(new byte[] { 1, 2, 3 }).execute();
+    request = server.takeRequest();
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/octet-stream");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("3");
+    assertThat(request.getBody().readByteString())
+        .isEqualTo(ByteString.of((byte) 1, (byte) 2, (byte) 3));
+
+    server.enqueue(new MockResponse());
+    service.byteString(ByteString.encodeUtf8("byteString")).execute();
+    request = server.takeRequest();
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/octet-stream");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("10");
+    assertThat(request.getBody().readUtf8()).isEqualTo("byteString");
+
+    server.enqueue(new MockResponse());
+    ByteBuffer heap = ByteBuffer.wrap("xxheap".getBytes("UTF-8"));
+    heap.position(2);
+    service.byteBuffer(heap).execute();
+    request = server.takeRequest();
+    assertThat(request.getHeader("Content-Length")).isEqualTo("4");
+    assertThat(request.getBody().readUtf8()).isEqualTo("heap");
+    assertThat(heap.position()).isEqualTo(2);
+
+    server.enqueue(new MockResponse());
+    ByteBuffer direct = ByteBuffer.allocateDirect(6);
+    direct.put("direct".getBytes("UTF-8")).flip();
+    service.byteBuffer(direct).execute();
+    request = server.takeRequest();
+    assertThat(request.getHeader("Content-Length")).isEqualTo("6");
+    assertThat(request.getBody().readUtf8()).isEqualTo("direct");
+
+    server.enqueue(new MockResponse());
+    service.inputStream(new ByteArrayInputStream("inputStream".getBytes("UTF-8"))).execute();
+    request = server.takeRequest();
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/octet-stream");
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getBody().readUtf8()).isEqualTo("inputStream");
+
+    server.enqueue(new MockResponse());
+    Buffer source = new Buffer().writeUtf8("bufferedSource");
+    service.bufferedSource(source).execute();
+    request = server.takeRequest();
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getBody().readUtf8()).isEqualTo("bufferedSource");
+    assertThat(source.size()).isEqualTo(0);
+  }
+
+  @Test public void supportedBinaryResponseTypes() throws IOException {
+    server.enqueue(new MockResponse().setBody("byteArray"));
+    Response<byte[]> byteArrayResponse = service.byteArray().execute();
+    assertThat(byteArrayResponse.body()).isEqualTo("byteArray".getBytes("UTF-8"));
+
+    server.enqueue(new MockResponse().setBody("byteString"));
+    Response<ByteString> byteStringResponse = service.byteString().execute();
+    assertThat(byteStringResponse.body()).isEqualTo(ByteString.encodeUtf8("byteString"));
+
+    server.enqueue(new MockResponse().setBody("byteBuffer"));
+    Response<ByteBuffer> byteBufferResponse = service.byteBuffer().execute();
+    assertThat(byteBufferResponse.body())
+        .isEqualTo(ByteBuffer.wrap("byteBuffer".getBytes("UTF-8")));
+
+    server.enqueue(new MockResponse().setBody("inputStream"));
+    Response<InputStream> inputStreamResponse = service.inputStream().execute();
+    assertThat(Okio.buffer(Okio.source(inputStreamResponse.body())).readUtf8())
+        .isEqualTo("inputStream");
+
+    server.enqueue(new MockResponse().setBody("bufferedSource"));
+    Response<BufferedSource> bufferedSourceResponse = service.bufferedSource().execute();
+    assertThat(bufferedSourceResponse.body().readUtf8()).isEqualTo("bufferedSource");
+  }
+
+  @Test public void chunkedByteStringResponse() throws IOException {
+    server.enqueue(new MockResponse().setChunkedBody("byteString", 3));
+    Response<ByteString> response = service.byteString().execute();
+    assertThat(response.body()).isEqualTo(ByteString.encodeUtf8("byteString"));
+  }
+
+  @Test public void exhaustedStreamReleasesConnection() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("first"));
+    server.enqueue(new MockResponse().setBody("second"));
+
+    InputStream stream = service.inputStream().execute().body();
+    while (stream.read() != -1) {
+    }
+    // The body was closed without closing the stream so the connection can be reused.
+    assertThat(service.stringObject().execute().body()).isEqualTo("second");
+    assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(0);
+    assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(1);
+  }
+
+  @Test public void binaryTypesAreLeftToLaterFactoriesByDefault() throws IOException {
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(ScalarsConverterFactory.create())
+        .addConverterFactory(new ByteStringConverterFactory())
+        .build()
+        .create(Service.class);
+
+    server.enqueue(new MockResponse().setBody("byteString"));
+    assertThat(service.byteString().execute().body()).isEqualTo(ByteString.encodeUtf8("later"));
+    server.enqueue(new MockResponse().setBody("string"));
+    assertThat(service.stringObject().execute().body()).isEqualTo("string");
+  }
+
+  @Test public void binaryTypesClaimedBeforeLaterFactories() throws IOException {
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(ScalarsConverterFactory.create().withBinaryTypes())
+        .addConverterFactory(new ByteStringConverterFactory())
+        .build()
+        .create(Service.class);
+
+    server.enqueue(new MockResponse().setBody("byteString"));
+    assertThat(service.byteString().execute().body())
+        .isEqualTo(ByteString.encodeUtf8("byteString"));
+  }
+
+  /** Converts every {@link ByteString} response to "later". */
+  static final class ByteStringConverterFactory extends Converter.Factory {
+    @Override public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+        Annotation[] annotations, Retrofit retrofit) {
+      if (type != ByteString.class) return null;
+      return new Converter<ResponseBody, ByteString>() {
+        @Override public ByteString convert(ResponseBody value) {
+          value.close();
+          return ByteString.encodeUtf8("later");
+        }
+      };
+    }
+  }
 }
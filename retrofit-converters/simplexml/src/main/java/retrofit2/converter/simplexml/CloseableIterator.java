@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.converter.simplexml;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An iterator over the child elements of a response document which holds the response body open
+ * until it has no more elements. Callers which stop early must {@linkplain #close() close} it to
+ * release the body.
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+  /** Releases the response body. Afterwards this iterator has no more elements. */
+  @Override void close();
+}
@@ -16,7 +16,9 @@
 package retrofit2.converter.simplexml;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Iterator;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import org.simpleframework.xml.Serializer;
@@ -28,7 +30,13 @@ import retrofit2.Retrofit;
  * A {@linkplain Converter.Factory converter} which uses Simple Framework for XML.
  * <p>
  * This converter only applies for class types. Parameterized types (e.g., {@code List<Foo>}) are
- * not handled.
+ * not handled, with the exception of {@code CloseableIterator<Foo>} and {@code Iterator<Foo>}
+ * response types. Those yield each child element of the document's root as a {@code Foo}, one at a
+ * time, so that documents with many records can be read without holding all of them in memory. The
+ * response body is read as the iterator advances and is closed once it has no more elements. An
+ * iterator which is not read to its end must be {@linkplain CloseableIterator#close() closed}.
+ * Declare such methods with {@link retrofit2.http.Streaming @Streaming} to keep the response from
+ * being buffered by other layers.
  */
 public final class SimpleXmlConverterFactory extends Converter.Factory {
   /** Create an instance using a default {@link Persister} instance for conversion. */
@@ -38,7 +46,7 @@ public final class SimpleXmlConverterFactory extends Converter.Factory {
 
   /** Create an instance using {@code serializer} for conversion. */
   public static SimpleXmlConverterFactory create(Serializer serializer) {
-    return new SimpleXmlConverterFactory(serializer, true);
+    return new SimpleXmlConverterFactory(serializer, true, false, false);
   }
 
   /** Create an instance using a default {@link Persister} instance for non-strict conversion. */
@@ -50,24 +58,49 @@ public final class SimpleXmlConverterFactory extends Converter.Factory {
   @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
   public static SimpleXmlConverterFactory createNonStrict(Serializer serializer) {
     if (serializer == null) throw new NullPointerException("serializer == null");
-    return new SimpleXmlConverterFactory(serializer, false);
+    return new SimpleXmlConverterFactory(serializer, false, false, false);
   }
 
   private final Serializer serializer;
   private final boolean strict;
+  private final boolean streaming;
+  private final boolean computeContentLength;
 
-  private SimpleXmlConverterFactory(Serializer serializer, boolean strict) {
+  private SimpleXmlConverterFactory(Serializer serializer, boolean strict, boolean streaming,
+      boolean computeContentLength) {
     this.serializer = serializer;
     this.strict = strict;
+    this.streaming = streaming;
+    this.computeContentLength = computeContentLength;
   }
 
   public boolean isStrict() {
     return strict;
   }
 
+  /** Return a new factory whose request bodies are a {@link retrofit2.StreamingRequestBody}. */
+  public SimpleXmlConverterFactory withStreaming() {
+    return new SimpleXmlConverterFactory(serializer, strict, true, false);
+  }
+
+  /** Return a new factory like {@link #withStreaming()} whose bodies also report their length. */
+  public SimpleXmlConverterFactory withStreamingContentLength() {
+    return new SimpleXmlConverterFactory(serializer, strict, true, true);
+  }
+
   @Override
   public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
       Retrofit retrofit) {
+    Class<?> rawType = getRawType(type);
+    if ((rawType == CloseableIterator.class || rawType == Iterator.class)
+        && type instanceof ParameterizedType) {
+      Type elementType = getParameterUpperBound(0, (ParameterizedType) type);
+      if (!(elementType instanceof Class)) {
+        return null;
+      }
+      Class<?> cls = (Class<?>) elementType;
+      return new SimpleXmlIteratorResponseBodyConverter<>(cls, serializer, strict);
+    }
     if (!(type instanceof Class)) {
       return null;
     }
@@ -81,6 +114,6 @@ public final class SimpleXmlConverterFactory extends Converter.Factory {
     if (!(type instanceof Class)) {
       return null;
     }
-    return new SimpleXmlRequestBodyConverter<>(serializer);
+    return new SimpleXmlRequestBodyConverter<>(serializer, streaming, computeContentLength);
   }
 }
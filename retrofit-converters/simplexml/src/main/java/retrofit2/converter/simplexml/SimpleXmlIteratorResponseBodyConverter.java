@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.converter.simplexml;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
+import org.simpleframework.xml.Serializer;
+import org.simpleframework.xml.stream.InputNode;
+import org.simpleframework.xml.stream.NodeBuilder;
+import retrofit2.Converter;
+
+final class SimpleXmlIteratorResponseBodyConverter<T>
+    implements Converter<ResponseBody, CloseableIterator<T>> {
+  private final Class<T> cls;
+  private final Serializer serializer;
+  private final boolean strict;
+
+  SimpleXmlIteratorResponseBodyConverter(Class<T> cls, Serializer serializer, boolean strict) {
+    this.cls = cls;
+    this.serializer = serializer;
+    this.strict = strict;
+  }
+
+  @Override public CloseableIterator<T> convert(ResponseBody value) throws IOException {
+    InputNode root;
+    try {
+      root = NodeBuilder.read(value.charStream());
+    } catch (RuntimeException | IOException e) {
+      value.close();
+      throw e;
+    } catch (Exception e) {
+      value.close();
+      throw new RuntimeException(e);
+    }
+    return new ElementIterator<>(cls, serializer, strict, value, root);
+  }
+
+  /** Reads one child element of the root each time it advances. */
+  static final class ElementIterator<T> implements CloseableIterator<T> {
+    private final Class<T> cls;
+    private final Serializer serializer;
+    private final boolean strict;
+    private final ResponseBody body;
+    private final InputNode root;
+    private @Nullable InputNode next;
+    private boolean closed;
+
+    ElementIterator(Class<T> cls, Serializer serializer, boolean strict, ResponseBody body,
+        InputNode root) {
+      this.cls = cls;
+      this.serializer = serializer;
+      this.strict = strict;
+      this.body = body;
+      this.root = root;
+    }
+
+    @Override public boolean hasNext() {
+      if (next == null && !closed) {
+        try {
+          next = root.getNext();
+        } catch (Exception e) {
+          throw fail(e);
+        }
+        if (next == null) {
+          close();
+        }
+      }
+      return next != null;
+    }
+
+    @Override public T next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      InputNode node = next;
+      next = null;
+      T read;
+      try {
+        read = serializer.read(cls, node, strict);
+      } catch (Exception e) {
+        throw fail(e);
+      }
+      if (read == null) {
+        throw fail(new IllegalStateException("Could not deserialize element as " + cls));
+      }
+      return read;
+    }
+
+    @Override public void remove() {
+      throw new UnsupportedOperationException("remove");
+    }
+
+    private RuntimeException fail(Exception e) {
+      close();
+      return e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+    }
+
+    @Override public void close() {
+      closed = true;
+      next = null;
+      body.close();
+    }
+  }
+}
@@ -20,20 +20,34 @@ import java.io.OutputStreamWriter;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okio.Buffer;
+import okio.BufferedSink;
 import org.simpleframework.xml.Serializer;
 import retrofit2.Converter;
+import retrofit2.StreamingRequestBody;
 
 final class SimpleXmlRequestBodyConverter<T> implements Converter<T, RequestBody> {
   private static final MediaType MEDIA_TYPE = MediaType.parse("application/xml; charset=UTF-8");
   private static final String CHARSET = "UTF-8";
 
   private final Serializer serializer;
+  private final boolean streaming;
+  private final boolean computeContentLength;
 
-  SimpleXmlRequestBodyConverter(Serializer serializer) {
+  SimpleXmlRequestBodyConverter(Serializer serializer, boolean streaming,
+      boolean computeContentLength) {
     this.serializer = serializer;
+    this.streaming = streaming;
+    this.computeContentLength = computeContentLength;
   }
 
-  @Override public RequestBody convert(T value) throws IOException {
+  @Override public RequestBody convert(final T value) throws IOException {
+    if (streaming) {
+      return new StreamingRequestBody(MEDIA_TYPE, computeContentLength) {
+        @Override public void writeTo(BufferedSink sink) throws IOException {
+          write(value, sink);
+        }
+      };
+    }
     Buffer buffer = new Buffer();
     try {
       OutputStreamWriter osw = new OutputStreamWriter(buffer.outputStream(), CHARSET);
@@ -44,4 +58,16 @@ final class SimpleXmlRequestBodyConverter<T> implements Converter<T, RequestBody
     }
     return RequestBody.create(MEDIA_TYPE, buffer.readByteString());
   }
+
+  void write(T value, BufferedSink sink) throws IOException {
+    try {
+      OutputStreamWriter osw = new OutputStreamWriter(sink.outputStream(), CHARSET);
+      serializer.write(value, osw);
+      osw.flush(); // Closing would close the sink, which belongs to the caller.
+    } catch (IOException e) {
+      throw e; // Writing to the network failed. Report it like any other transport failure.
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
 }
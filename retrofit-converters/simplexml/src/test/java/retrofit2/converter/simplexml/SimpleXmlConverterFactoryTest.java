@@ -17,10 +17,18 @@ package retrofit2.converter.simplexml;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
 import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -35,6 +43,7 @@ import retrofit2.Retrofit;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
+import retrofit2.http.Streaming;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
@@ -44,20 +53,37 @@ public class SimpleXmlConverterFactoryTest {
     @GET("/") Call<MyObject> get();
     @POST("/") Call<MyObject> post(@Body MyObject impl);
     @GET("/") Call<String> wrongClass();
+    @Streaming @GET("/") Call<Iterator<MyObject>> iterator();
+    @Streaming @GET("/") Call<CloseableIterator<MyObject>> closeableIterator();
   }
 
   @Rule public final MockWebServer server = new MockWebServer();
 
   private Service service;
+  private Service serviceStreaming;
+  private Service serviceStreamingLength;
 
   @Before public void setUp() {
     Format format = new Format(0, null, new HyphenStyle(), Verbosity.HIGH);
     Persister persister = new Persister(format);
+    SimpleXmlConverterFactory factory = SimpleXmlConverterFactory.create(persister);
     Retrofit retrofit = new Retrofit.Builder()
         .baseUrl(server.url("/"))
-        .addConverterFactory(SimpleXmlConverterFactory.create(persister))
+        .addConverterFactory(factory)
         .build();
     service = retrofit.create(Service.class);
+
+    Retrofit retrofitStreaming = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(factory.withStreaming())
+        .build();
+    serviceStreaming = retrofitStreaming.create(Service.class);
+
+    Retrofit retrofitStreamingLength = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(factory.withStreamingContentLength())
+        .build();
+    serviceStreamingLength = retrofitStreamingLength.create(Service.class);
   }
 
   @Test public void bodyWays() throws IOException, InterruptedException {
@@ -115,4 +141,117 @@ public class SimpleXmlConverterFactoryTest {
       assertThat(e).hasMessage("Could not deserialize body as class java.lang.String");
     }
   }
+
+  @Test public void streaming() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody(
+        "<my-object><message>hello world</message><count>10</count></my-object>"));
+
+    Response<MyObject> response = serviceStreaming.post(new MyObject("hello world", 10)).execute();
+    assertThat(response.body().getMessage()).isEqualTo("hello world");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).isIn(
+        "<my-object><message>hello world</message><count>10</count></my-object>",
+        "<my-object><count>10</count><message>hello world</message></my-object>");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/xml; charset=UTF-8");
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getHeader("Content-Length")).isNull();
+  }
+
+  @Test public void streamingContentLength() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody(
+        "<my-object><message>hello world</message><count>10</count></my-object>"));
+
+    Response<MyObject> response =
+        serviceStreamingLength.post(new MyObject("hello world", 10)).execute();
+    assertThat(response.body().getMessage()).isEqualTo("hello world");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getBody().readUtf8()).hasSize(70);
+    assertThat(request.getHeader("Content-Length")).isEqualTo("70");
+    assertThat(request.getHeader("Transfer-Encoding")).isNull();
+  }
+
+  @Test public void iterator() throws IOException {
+    server.enqueue(new MockResponse().setBody("<feed>"
+        + "<my-object><message>hello</message><count>1</count></my-object>"
+        + "<my-object><message>world</message><count>2</count></my-object>"
+        + "</feed>"));
+
+    Iterator<MyObject> iterator = service.iterator().execute().body();
+    assertThat(iterator.hasNext()).isTrue();
+    assertThat(iterator.next()).isEqualTo(new MyObject("hello", 1));
+    assertThat(iterator.next()).isEqualTo(new MyObject("world", 2));
+    assertThat(iterator.hasNext()).isFalse();
+    try {
+      iterator.next();
+      fail();
+    } catch (NoSuchElementException expected) {
+    }
+  }
+
+  @Test public void iteratorEmpty() throws IOException {
+    server.enqueue(new MockResponse().setBody("<feed/>"));
+
+    Iterator<MyObject> iterator = service.iterator().execute().body();
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test public void iteratorWrongValue() throws IOException {
+    server.enqueue(new MockResponse().setBody("<feed>"
+        + "<my-object><message>hello</message><count>1</count></my-object>"
+        + "<my-object><foo/></my-object>"
+        + "</feed>"));
+
+    Iterator<MyObject> iterator = service.iterator().execute().body();
+    assertThat(iterator.next()).isEqualTo(new MyObject("hello", 1));
+    try {
+      iterator.next();
+      fail();
+    } catch (RuntimeException e) {
+      assertThat(e.getCause()).isInstanceOf(ElementException.class)
+          .hasMessageStartingWith("Element 'foo' does not have a match in class retrofit2.converter.simplexml.MyObject");
+    }
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test public void iteratorClosedEarlyReleasesBody() throws IOException {
+    server.enqueue(new MockResponse().setBody("<feed>"
+        + "<my-object><message>hello</message><count>1</count></my-object>"
+        + "<my-object><message>world</message><count>2</count></my-object>"
+        + "</feed>"));
+    final AtomicBoolean bodyClosed = new AtomicBoolean();
+    OkHttpClient client = new OkHttpClient.Builder()
+        .addInterceptor(new Interceptor() {
+          @Override public okhttp3.Response intercept(Chain chain) throws IOException {
+            okhttp3.Response response = chain.proceed(chain.request());
+            ResponseBody body = response.body();
+            ForwardingSource source = new ForwardingSource(body.source()) {
+              @Override public void close() throws IOException {
+                bodyClosed.set(true);
+                super.close();
+              }
+            };
+            return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(),
+                    Okio.buffer(source)))
+                .build();
+          }
+        })
+        .build();
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .client(client)
+        .addConverterFactory(SimpleXmlConverterFactory.create())
+        .build()
+        .create(Service.class);
+
+    CloseableIterator<MyObject> iterator = service.closeableIterator().execute().body();
+    assertThat(iterator.next()).isEqualTo(new MyObject("hello", 1));
+    assertThat(bodyClosed.get()).isFalse();
+
+    iterator.close();
+    assertThat(bodyClosed.get()).isTrue();
+    assertThat(iterator.hasNext()).isFalse();
+  }
 }
@@ -22,6 +22,7 @@ import java.lang.reflect.Type;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
+import retrofit2.Memoizable;
 import retrofit2.Retrofit;
 
 /**
@@ -29,6 +30,7 @@ import retrofit2.Retrofit;
  * <p>
  * This converter only applies for types which extend from {@link Message}.
  */
+@Memoizable
 public final class WireConverterFactory extends Converter.Factory {
   public static WireConverterFactory create() {
     return new WireConverterFactory();
@@ -20,7 +20,7 @@ import com.squareup.wire.ProtoAdapter;
 import java.io.IOException;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
-import okio.Buffer;
+import okio.BufferedSink;
 import retrofit2.Converter;
 
 final class WireRequestBodyConverter<T extends Message<T, ?>> implements Converter<T, RequestBody> {
@@ -33,8 +33,33 @@ final class WireRequestBodyConverter<T extends Message<T, ?>> implements Convert
   }
 
   @Override public RequestBody convert(T value) throws IOException {
-    Buffer buffer = new Buffer();
-    adapter.encode(buffer, value);
-    return RequestBody.create(MEDIA_TYPE, buffer.snapshot());
+    return new MessageRequestBody<>(adapter, value);
+  }
+
+  /** Encodes a message directly into the sink instead of into an intermediate buffer. */
+  static final class MessageRequestBody<T> extends RequestBody {
+    private final ProtoAdapter<T> adapter;
+    private final T value;
+    private long contentLength = -1L;
+
+    MessageRequestBody(ProtoAdapter<T> adapter, T value) {
+      this.adapter = adapter;
+      this.value = value;
+    }
+
+    @Override public MediaType contentType() {
+      return MEDIA_TYPE;
+    }
+
+    @Override public long contentLength() {
+      if (contentLength == -1L) {
+        contentLength = adapter.encodedSize(value);
+      }
+      return contentLength;
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      adapter.encode(sink, value);
+    }
   }
 }
@@ -19,32 +19,51 @@ import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+/**
+ * Applies {@link NetworkBehavior} to a call. Delays are timers on {@code scheduler} rather than
+ * sleeping threads so that any number of calls can be delayed at once, and canceling a call
+ * cancels its timer. Callbacks are invoked on {@code backgroundExecutor}.
+ */
 final class BehaviorCall<T> implements Call<T> {
   final NetworkBehavior behavior;
   final ExecutorService backgroundExecutor;
+  final ScheduledExecutorService scheduler;
   final Call<T> delegate;
 
-  private volatile Future<?> task;
   volatile boolean canceled;
-  private volatile boolean executed;
-
-  BehaviorCall(NetworkBehavior behavior, ExecutorService backgroundExecutor, Call<T> delegate) {
+  @GuardedBy("this")
+  private boolean executed;
+  @GuardedBy("this")
+  private @Nullable Callback<T> callback;
+  @GuardedBy("this")
+  private @Nullable Future<?> task;
+  @GuardedBy("this")
+  private boolean completed;
+
+  BehaviorCall(NetworkBehavior behavior, ExecutorService backgroundExecutor,
+      ScheduledExecutorService scheduler, Call<T> delegate) {
     this.behavior = behavior;
     this.backgroundExecutor = backgroundExecutor;
+    this.scheduler = scheduler;
     this.delegate = delegate;
   }
 
   @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type & this saves clearing state.
   @Override public Call<T> clone() {
-    return new BehaviorCall<>(behavior, backgroundExecutor, delegate.clone());
+    return new BehaviorCall<>(behavior, backgroundExecutor, scheduler, delegate.clone());
   }
 
   @Override public Request request() {
@@ -58,48 +77,120 @@ final class BehaviorCall<T> implements Call<T> {
     synchronized (this) {
       if (executed) throw new IllegalStateException("Already executed");
       executed = true;
+      this.callback = callback;
     }
-    task = backgroundExecutor.submit(new Runnable() {
-      boolean delaySleep() {
-        long sleepMs = behavior.calculateDelay(MILLISECONDS);
-        if (sleepMs > 0) {
-          try {
-            Thread.sleep(sleepMs);
-          } catch (InterruptedException e) {
-            callback.onFailure(BehaviorCall.this, new IOException("canceled"));
-            return false;
-          }
-        }
-        return true;
-      }
-
-      @Override public void run() {
-        if (canceled) {
-          callback.onFailure(BehaviorCall.this, new IOException("canceled"));
-        } else if (behavior.calculateIsFailure()) {
-          if (delaySleep()) {
-            callback.onFailure(BehaviorCall.this, behavior.failureException());
-          }
-        } else if (behavior.calculateIsError()) {
-          if (delaySleep()) {
-            //noinspection unchecked An error response has no body.
-            callback.onResponse(BehaviorCall.this, (Response<T>) behavior.createErrorResponse());
-          }
-        } else {
+    if (canceled) {
+      deliverCanceled();
+    } else if (behavior.calculateIsFailure()) {
+      deliverAfterDelay(null, behavior.failureException());
+    } else if (behavior.calculateIsError()) {
+      //noinspection unchecked An error response has no body.
+      deliverAfterDelay((Response<T>) behavior.createErrorResponse(), null);
+    } else {
+      setTask(backgroundExecutor.submit(new Runnable() {
+        @Override public void run() {
           delegate.enqueue(new Callback<T>() {
             @Override public void onResponse(Call<T> call, Response<T> response) {
-              if (delaySleep()) {
-                callback.onResponse(call, response);
-              }
+              deliverAfterDelay(response, null);
             }
 
             @Override public void onFailure(Call<T> call, Throwable t) {
-              if (delaySleep()) {
-                callback.onFailure(call, t);
-              }
+              deliverAfterDelay(null, t);
             }
           });
         }
+      }));
+    }
+  }
+
+  /** Schedules a timer which completes this call with {@code response} or {@code failure}. */
+  void deliverAfterDelay(@Nullable final Response<T> response, @Nullable final Throwable failure) {
+    final Runnable delivery = new Runnable() {
+      @Override public void run() {
+        deliver(response, failure);
+      }
+    };
+    long delayNanos = behavior.calculateDelay(NANOSECONDS);
+    if (response != null) {
+      long transferNanos =
+          behavior.calculateTransferDelay(transferredBytes(response), NANOSECONDS);
+      // Both saturate at Long.MAX_VALUE, so their sum must too rather than wrap around to negative.
+      delayNanos = transferNanos < Long.MAX_VALUE - delayNanos
+          ? delayNanos + transferNanos
+          : Long.MAX_VALUE;
+    }
+    if (delayNanos <= 0) {
+      setTask(backgroundExecutor.submit(delivery));
+      return;
+    }
+    setTask(scheduler.schedule(new Runnable() {
+      @Override public void run() {
+        // Hand off so that slow callbacks don't hold up the timers of other calls.
+        setTask(backgroundExecutor.submit(delivery));
+      }
+    }, delayNanos, NANOSECONDS));
+  }
+
+  /**
+   * The number of request and response body bytes which {@code response} took to transfer, as far
+   * as they are known. A successful response's body size is taken from a {@link ResponseBody} or
+   * from its {@code Content-Length} header.
+   */
+  long transferredBytes(Response<T> response) {
+    long byteCount = 0L;
+    RequestBody requestBody = delegate.request().body();
+    if (requestBody != null) {
+      try {
+        byteCount += Math.max(0L, requestBody.contentLength());
+      } catch (IOException ignored) {
+      }
+    }
+    ResponseBody responseBody = null;
+    if (!response.isSuccessful()) {
+      responseBody = response.errorBody();
+    } else if (response.body() instanceof ResponseBody) {
+      responseBody = (ResponseBody) response.body();
+    }
+    if (responseBody != null) {
+      byteCount += Math.max(0L, responseBody.contentLength());
+    } else {
+      String contentLength = response.headers().get("Content-Length");
+      if (contentLength != null) {
+        try {
+          byteCount += Math.max(0L, Long.parseLong(contentLength));
+        } catch (NumberFormatException ignored) {
+        }
+      }
+    }
+    return byteCount;
+  }
+
+  private synchronized void setTask(Future<?> task) {
+    this.task = task;
+    if (completed) {
+      task.cancel(false);
+    }
+  }
+
+  /** Invokes the callback unless this call was already completed, as by {@link #cancel()}. */
+  void deliver(@Nullable Response<T> response, @Nullable Throwable failure) {
+    Callback<T> callback;
+    synchronized (this) {
+      if (completed) return;
+      completed = true;
+      callback = this.callback;
+    }
+    if (response != null) {
+      callback.onResponse(this, response);
+    } else {
+      callback.onFailure(this, failure);
+    }
+  }
+
+  void deliverCanceled() {
+    backgroundExecutor.execute(new Runnable() {
+      @Override public void run() {
+        deliver(null, new IOException("canceled"));
       }
     });
   }
@@ -126,6 +217,7 @@ final class BehaviorCall<T> implements Call<T> {
     try {
       latch.await();
     } catch (InterruptedException e) {
+      cancel();
       throw new IOException("canceled");
     }
     Response<T> response = responseRef.get();
@@ -137,11 +229,19 @@ final class BehaviorCall<T> implements Call<T> {
   }
 
   @Override public void cancel() {
-    canceled = true;
-    Future<?> task = this.task;
+    Future<?> task;
+    synchronized (this) {
+      if (canceled) return;
+      canceled = true;
+      // Before the call is enqueued there is nothing to stop. Enqueueing will fail instead.
+      if (callback == null || completed) return;
+      task = this.task;
+    }
     if (task != null) {
-      task.cancel(true);
+      task.cancel(false);
     }
+    delegate.cancel();
+    deliverCanceled();
   }
 
   @Override public boolean isCanceled() {
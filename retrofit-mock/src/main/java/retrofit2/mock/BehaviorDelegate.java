@@ -21,6 +21,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nullable;
 import retrofit2.Call;
 import retrofit2.CallAdapter;
@@ -37,13 +38,15 @@ public final class BehaviorDelegate<T> {
   final Retrofit retrofit;
   private final NetworkBehavior behavior;
   private final ExecutorService executor;
+  private final ScheduledExecutorService scheduler;
   private final Class<T> service;
 
   BehaviorDelegate(Retrofit retrofit, NetworkBehavior behavior, ExecutorService executor,
-      Class<T> service) {
+      ScheduledExecutorService scheduler, Class<T> service) {
     this.retrofit = retrofit;
     this.behavior = behavior;
     this.executor = executor;
+    this.scheduler = scheduler;
     this.service = service;
   }
 
@@ -53,7 +56,7 @@ public final class BehaviorDelegate<T> {
 
   @SuppressWarnings("unchecked") // Single-interface proxy creation guarded by parameter safety.
   public <R> T returning(Call<R> call) {
-    final Call<R> behaviorCall = new BehaviorCall<>(behavior, executor, call);
+    final Call<R> behaviorCall = new BehaviorCall<>(behavior, executor, scheduler, call);
     return (T) Proxy.newProxyInstance(service.getClassLoader(), new Class[] { service },
         new InvocationHandler() {
           @Override
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A distribution of network round trip delays from which {@link NetworkBehavior} draws the delay
+ * of each call. Real latency is rarely uniform: most calls are fast while a long tail is much
+ * slower. Use {@link #logNormal}, {@link #pareto}, or a {@linkplain #percentiles percentile table}
+ * measured in production to reproduce that tail.
+ *
+ * @see NetworkBehavior#setLatencyDistribution(LatencyDistribution)
+ */
+public abstract class LatencyDistribution {
+  /**
+   * Delays spread evenly within plus-or-minus {@code variancePercent} of {@code delay}. This is
+   * the distribution configured by {@link NetworkBehavior#setDelay} and
+   * {@link NetworkBehavior#setVariancePercent}.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static LatencyDistribution uniform(long delay, TimeUnit unit, int variancePercent) {
+    if (delay < 0) throw new IllegalArgumentException("Delay must be positive value.");
+    if (unit == null) throw new NullPointerException("unit == null");
+    if (variancePercent < 0 || variancePercent > 100) {
+      throw new IllegalArgumentException("Variance percentage must be between 0 and 100.");
+    }
+    return new Uniform(unit.toMillis(delay), variancePercent);
+  }
+
+  /**
+   * Delays whose logarithm is normally distributed around the logarithm of {@code median} with
+   * standard deviation {@code sigma}. Larger values of {@code sigma} give a heavier tail; the
+   * 99th percentile is {@code median * exp(2.326 * sigma)}.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static LatencyDistribution logNormal(long median, TimeUnit unit, double sigma) {
+    if (median <= 0) throw new IllegalArgumentException("Median must be positive value.");
+    if (unit == null) throw new NullPointerException("unit == null");
+    if (!(sigma >= 0)) throw new IllegalArgumentException("Sigma must be positive value.");
+    return new LogNormal(unit.toNanos(median), sigma);
+  }
+
+  /**
+   * Delays of at least {@code minimum} following a Pareto distribution with shape
+   * {@code alpha}. Smaller values of {@code alpha} give a heavier tail; the 99th percentile is
+   * {@code minimum * pow(100, 1 / alpha)}.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static LatencyDistribution pareto(long minimum, TimeUnit unit, double alpha) {
+    if (minimum <= 0) throw new IllegalArgumentException("Minimum must be positive value.");
+    if (unit == null) throw new NullPointerException("unit == null");
+    if (!(alpha > 0)) throw new IllegalArgumentException("Alpha must be positive value.");
+    return new Pareto(unit.toNanos(minimum), alpha);
+  }
+
+  /**
+   * Delays which reproduce an empirical table of percentiles, such as a histogram of production
+   * latency: {@code {50.0=120, 90.0=300, 99.0=900, 99.9=2500}}. Keys are percentiles between 0
+   * and 100 and values are the delay at that percentile in {@code unit}. Delays between two
+   * percentiles are interpolated linearly. Delays below the lowest percentile or above the highest
+   * are clamped to that percentile's delay.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static LatencyDistribution percentiles(Map<Double, Long> delays, TimeUnit unit) {
+    if (delays == null) throw new NullPointerException("delays == null");
+    if (unit == null) throw new NullPointerException("unit == null");
+    if (delays.isEmpty()) throw new IllegalArgumentException("At least one percentile required.");
+    TreeMap<Double, Long> nanos = new TreeMap<>();
+    for (Map.Entry<Double, Long> entry : delays.entrySet()) {
+      Double percentile = entry.getKey();
+      Long delay = entry.getValue();
+      if (percentile == null || !(percentile >= 0 && percentile <= 100)) {
+        throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+      }
+      if (delay == null || delay < 0) {
+        throw new IllegalArgumentException(
+            "Delay must be positive value: " + delay + " at percentile " + percentile);
+      }
+      nanos.put(percentile, unit.toNanos(delay));
+    }
+    long previous = 0L;
+    for (Map.Entry<Double, Long> entry : nanos.entrySet()) {
+      if (entry.getValue() < previous) {
+        throw new IllegalArgumentException(
+            "Delays must not decrease as percentiles increase: " + delays);
+      }
+      previous = entry.getValue();
+    }
+    return new Percentiles(nanos);
+  }
+
+  /**
+   * Returns a delay in nanoseconds drawn from this distribution. Implementations must only use
+   * {@code random} as a source of randomness so that a seeded {@link NetworkBehavior} is
+   * repeatable.
+   */
+  public abstract long sampleNanos(Random random);
+
+  static long toNanos(double nanos) {
+    return nanos >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) nanos;
+  }
+
+  static final class Uniform extends LatencyDistribution {
+    private final long delayMs;
+    private final int variancePercent;
+
+    Uniform(long delayMs, int variancePercent) {
+      this.delayMs = delayMs;
+      this.variancePercent = variancePercent;
+    }
+
+    @Override public long sampleNanos(Random random) {
+      float delta = variancePercent / 100f; // e.g., 20 / 100f == 0.2f
+      float lowerBound = 1f - delta; // 0.2f --> 0.8f
+      float upperBound = 1f + delta; // 0.2f --> 1.2f
+      float bound = upperBound - lowerBound; // 1.2f - 0.8f == 0.4f
+      float delayPercent = lowerBound + (random.nextFloat() * bound); // 0.8 + (rnd * 0.4)
+      long callDelayMs = (long) (delayMs * delayPercent);
+      return MILLISECONDS.toNanos(callDelayMs);
+    }
+  }
+
+  static final class LogNormal extends LatencyDistribution {
+    private final double medianNanos;
+    private final double sigma;
+
+    LogNormal(long medianNanos, double sigma) {
+      this.medianNanos = medianNanos;
+      this.sigma = sigma;
+    }
+
+    @Override public long sampleNanos(Random random) {
+      return toNanos(medianNanos * Math.exp(sigma * random.nextGaussian()));
+    }
+  }
+
+  static final class Pareto extends LatencyDistribution {
+    private final double minimumNanos;
+    private final double alpha;
+
+    Pareto(long minimumNanos, double alpha) {
+      this.minimumNanos = minimumNanos;
+      this.alpha = alpha;
+    }
+
+    @Override public long sampleNanos(Random random) {
+      // Inverse transform sampling. 1 - nextDouble() is in (0, 1] so this is always finite.
+      return toNanos(minimumNanos / Math.pow(1d - random.nextDouble(), 1d / alpha));
+    }
+  }
+
+  static final class Percentiles extends LatencyDistribution {
+    private final NavigableMap<Double, Long> nanos;
+
+    Percentiles(NavigableMap<Double, Long> nanos) {
+      this.nanos = nanos;
+    }
+
+    @Override public long sampleNanos(Random random) {
+      double percentile = random.nextDouble() * 100d;
+      Map.Entry<Double, Long> floor = nanos.floorEntry(percentile);
+      Map.Entry<Double, Long> ceiling = nanos.ceilingEntry(percentile);
+      if (floor == null) return ceiling.getValue();
+      if (ceiling == null || floor.getKey().equals(ceiling.getKey())) return floor.getValue();
+      double fraction = (percentile - floor.getKey()) / (ceiling.getKey() - floor.getKey());
+      return floor.getValue() + (long) (fraction * (ceiling.getValue() - floor.getValue()));
+    }
+  }
+}
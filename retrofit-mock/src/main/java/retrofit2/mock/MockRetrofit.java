@@ -18,17 +18,22 @@ package retrofit2.mock;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import retrofit2.Retrofit;
 
 public final class MockRetrofit {
   private final Retrofit retrofit;
   private final NetworkBehavior behavior;
   private final ExecutorService executor;
+  private final ScheduledExecutorService scheduler;
 
-  MockRetrofit(Retrofit retrofit, NetworkBehavior behavior, ExecutorService executor) {
+  MockRetrofit(Retrofit retrofit, NetworkBehavior behavior, ExecutorService executor,
+      ScheduledExecutorService scheduler) {
     this.retrofit = retrofit;
     this.behavior = behavior;
     this.executor = executor;
+    this.scheduler = scheduler;
   }
 
   public Retrofit retrofit() {
@@ -43,15 +48,20 @@ public final class MockRetrofit {
     return executor;
   }
 
+  public ScheduledExecutorService scheduler() {
+    return scheduler;
+  }
+
   @SuppressWarnings("unchecked") // Single-interface proxy creation guarded by parameter safety.
   public <T> BehaviorDelegate<T> create(Class<T> service) {
-    return new BehaviorDelegate<>(retrofit, behavior, executor, service);
+    return new BehaviorDelegate<>(retrofit, behavior, executor, scheduler, service);
   }
 
   public static final class Builder {
     private final Retrofit retrofit;
     private NetworkBehavior behavior;
     private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
 
     @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
     public Builder(Retrofit retrofit) {
@@ -73,10 +83,31 @@ public final class MockRetrofit {
       return this;
     }
 
+    /**
+     * The scheduler whose timers delay calls by the {@linkplain NetworkBehavior network behavior}.
+     * Use a {@link VirtualTimeScheduler} to control the passing of time in tests.
+     */
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder scheduler(ScheduledExecutorService scheduler) {
+      if (scheduler == null) throw new NullPointerException("scheduler == null");
+      this.scheduler = scheduler;
+      return this;
+    }
+
     public MockRetrofit build() {
       if (behavior == null) behavior = NetworkBehavior.create();
       if (executor == null) executor = Executors.newCachedThreadPool();
-      return new MockRetrofit(retrofit, behavior, executor);
+      if (scheduler == null) {
+        // Delays are only timers so one thread serves every call.
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+          @Override public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "MockRetrofit Scheduler");
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+      }
+      return new MockRetrofit(retrofit, behavior, executor, scheduler);
     }
   }
 }
@@ -23,21 +23,26 @@ import okhttp3.ResponseBody;
 import retrofit2.Response;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * A simple emulation of the behavior of network calls.
  * <p>
- * This class models three properties of a network:
+ * This class models these properties of a network:
  * <ul>
  * <li>Delay – the time it takes before a response is received (successful or otherwise).</li>
- * <li>Variance – the amount of fluctuation of the delay to be faster or slower.</li>
+ * <li>Variance – the amount of fluctuation of the delay to be faster or slower. Instead of a
+ * delay and variance, the delay can be drawn from any {@link LatencyDistribution}.</li>
+ * <li>Bandwidth – the rate at which request and response bodies are transferred, which adds to the
+ * delay of calls with large bodies.</li>
  * <li>Failure - the percentage of operations which fail (such as {@link IOException}).</li>
  * </ul>
  * Behavior can be applied to a Retrofit interface with {@link MockRetrofit}. Behavior can also
  * be applied elsewhere using {@link #calculateDelay(TimeUnit)} and {@link #calculateIsFailure()}.
  * <p>
  * By default, instances of this class will use a 2 second delay with 40% variance. Failures
- * will occur 3% of the time. HTTP errors will occur 0% of the time.
+ * will occur 3% of the time. HTTP errors will occur 0% of the time. Bandwidth is unlimited.
  */
 public final class NetworkBehavior {
   private static final int DEFAULT_DELAY_MS = 2000; // Network calls will take 2 seconds.
@@ -64,6 +69,9 @@ public final class NetworkBehavior {
 
   private volatile long delayMs = DEFAULT_DELAY_MS;
   private volatile int variancePercent = DEFAULT_VARIANCE_PERCENT;
+  private volatile LatencyDistribution latency =
+      LatencyDistribution.uniform(DEFAULT_DELAY_MS, MILLISECONDS, DEFAULT_VARIANCE_PERCENT);
+  private volatile long bytesPerSecond; // 0 is unlimited.
   private volatile int failurePercent = DEFAULT_FAILURE_PERCENT;
   private volatile Throwable failureException;
   private volatile int errorPercent = DEFAULT_ERROR_PERCENT;
@@ -80,23 +88,31 @@ public final class NetworkBehavior {
     failureException.setStackTrace(new StackTraceElement[0]);
   }
 
-  /** Set the network round trip delay. */
+  /**
+   * Set the network round trip delay. This replaces any {@linkplain #setLatencyDistribution
+   * latency distribution} with a uniform one around this delay.
+   */
   public void setDelay(long amount, TimeUnit unit) {
     if (amount < 0) {
       throw new IllegalArgumentException("Amount must be positive value.");
     }
     this.delayMs = unit.toMillis(amount);
+    this.latency = LatencyDistribution.uniform(delayMs, MILLISECONDS, variancePercent);
   }
 
   /** The network round trip delay. */
   public long delay(TimeUnit unit) {
-    return MILLISECONDS.convert(delayMs, unit);
+    return unit.convert(delayMs, MILLISECONDS);
   }
 
-  /** Set the plus-or-minus variance percentage of the network round trip delay. */
+  /**
+   * Set the plus-or-minus variance percentage of the network round trip delay. This replaces any
+   * {@linkplain #setLatencyDistribution latency distribution} with a uniform one around the delay.
+   */
   public void setVariancePercent(int variancePercent) {
     checkPercentageValidity(variancePercent, "Variance percentage must be between 0 and 100.");
     this.variancePercent = variancePercent;
+    this.latency = LatencyDistribution.uniform(delayMs, MILLISECONDS, variancePercent);
   }
 
   /** The plus-or-minus variance percentage of the network round trip delay. */
@@ -104,6 +120,39 @@ public final class NetworkBehavior {
     return variancePercent;
   }
 
+  /**
+   * Set the distribution from which {@link #calculateDelay(TimeUnit)} draws delays. This replaces
+   * the uniform distribution configured by {@link #setDelay} and {@link #setVariancePercent}.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public void setLatencyDistribution(LatencyDistribution latency) {
+    if (latency == null) {
+      throw new NullPointerException("latency == null");
+    }
+    this.latency = latency;
+  }
+
+  /** The distribution from which {@link #calculateDelay(TimeUnit)} draws delays. */
+  public LatencyDistribution latencyDistribution() {
+    return latency;
+  }
+
+  /**
+   * Set the rate at which request and response bodies are transferred in bytes per second, or 0
+   * for unlimited bandwidth.
+   */
+  public void setBandwidth(long bytesPerSecond) {
+    if (bytesPerSecond < 0) {
+      throw new IllegalArgumentException("Bandwidth must be positive value or 0 for unlimited.");
+    }
+    this.bytesPerSecond = bytesPerSecond;
+  }
+
+  /** The rate at which bodies are transferred in bytes per second, or 0 if unlimited. */
+  public long bandwidth() {
+    return bytesPerSecond;
+  }
+
   /** Set the percentage of calls to {@link #calculateIsFailure()} that return {@code true}. */
   public void setFailurePercent(int failurePercent) {
     checkPercentageValidity(failurePercent, "Failure percentage must be between 0 and 100.");
@@ -195,13 +244,18 @@ public final class NetworkBehavior {
    * behavior.
    */
   public long calculateDelay(TimeUnit unit) {
-    float delta = variancePercent / 100f; // e.g., 20 / 100f == 0.2f
-    float lowerBound = 1f - delta; // 0.2f --> 0.8f
-    float upperBound = 1f + delta; // 0.2f --> 1.2f
-    float bound = upperBound - lowerBound; // 1.2f - 0.8f == 0.4f
-    float delayPercent = lowerBound + (random.nextFloat() * bound); // 0.8 + (rnd * 0.4)
-    long callDelayMs = (long) (delayMs * delayPercent);
-    return MILLISECONDS.convert(callDelayMs, unit);
+    return unit.convert(latency.sampleNanos(random), NANOSECONDS);
+  }
+
+  /**
+   * Get the additional delay needed to transfer {@code byteCount} bytes of request and response
+   * bodies in accordance with the configured bandwidth.
+   */
+  public long calculateTransferDelay(long byteCount, TimeUnit unit) {
+    long bytesPerSecond = this.bytesPerSecond;
+    if (bytesPerSecond == 0L || byteCount <= 0L) return 0L;
+    double nanos = byteCount * (double) SECONDS.toNanos(1L) / bytesPerSecond;
+    return unit.convert(LatencyDistribution.toNanos(nanos), NANOSECONDS);
   }
 
   private static void checkPercentageValidity(int percentage, String message) {
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A scheduler whose clock only moves when told to. Tasks never run on their own: they run on the
+ * thread which calls {@link #advanceBy(long, TimeUnit)} or {@link #runUntilIdle()}, in the order
+ * of their scheduled time.
+ * <p>
+ * Using one instance as both the {@linkplain MockRetrofit.Builder#scheduler scheduler} and the
+ * {@linkplain MockRetrofit.Builder#backgroundExecutor background executor} of
+ * {@link MockRetrofit} makes the {@linkplain NetworkBehavior network delay} of enqueued calls
+ * deterministic and instant:
+ * <pre><code>
+ * VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+ * MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+ *     .scheduler(scheduler)
+ *     .backgroundExecutor(scheduler)
+ *     .build();
+ *
+ * service.getUser("jw").enqueue(callback); // Not yet called back.
+ * scheduler.advanceBy(2, SECONDS);         // Called back now, on this thread.
+ * </code></pre>
+ * A synchronous {@code execute()} blocks until time is advanced by another thread.
+ */
+public final class VirtualTimeScheduler extends AbstractExecutorService
+    implements ScheduledExecutorService {
+  @GuardedBy("this")
+  private final PriorityQueue<Task<?>> queue = new PriorityQueue<>();
+  @GuardedBy("this")
+  private long nowNanos;
+  @GuardedBy("this")
+  private long nextSequence;
+  @GuardedBy("this")
+  private boolean shutdown;
+
+  /** The time elapsed since this scheduler was created. */
+  public synchronized long now(TimeUnit unit) {
+    return unit.convert(nowNanos, NANOSECONDS);
+  }
+
+  /**
+   * Move the clock forward by {@code amount}, running every task scheduled up to the new time. The
+   * clock is set to each task's scheduled time while it runs, so tasks may schedule further tasks
+   * which also run if they fall within {@code amount}.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public void advanceBy(long amount, TimeUnit unit) {
+    if (amount < 0) throw new IllegalArgumentException("amount < 0: " + amount);
+    if (unit == null) throw new NullPointerException("unit == null");
+    long targetNanos = timeAfter(amount, unit);
+    Task<?> task;
+    while ((task = next(targetNanos)) != null) {
+      task.run();
+    }
+    synchronized (this) {
+      if (nowNanos < targetNanos) nowNanos = targetNanos;
+    }
+  }
+
+  /**
+   * Run tasks until none are left, moving the clock forward to each task's scheduled time. This
+   * never returns while a periodic task is scheduled.
+   */
+  public void runUntilIdle() {
+    Task<?> task;
+    while ((task = next(Long.MAX_VALUE)) != null) {
+      task.run();
+    }
+  }
+
+  /** The number of tasks scheduled but not yet run or canceled. */
+  public synchronized int pendingTaskCount() {
+    return queue.size();
+  }
+
+  /** Removes and returns the first task scheduled no later than {@code limitNanos}. */
+  private synchronized @Nullable Task<?> next(long limitNanos) {
+    Task<?> task = queue.peek();
+    if (task == null || task.timeNanos > limitNanos) return null;
+    queue.remove();
+    if (nowNanos < task.timeNanos) nowNanos = task.timeNanos;
+    return task;
+  }
+
+  private synchronized <V> Task<V> enqueue(Task<V> task) {
+    if (shutdown) throw new RejectedExecutionException("Scheduler is shut down.");
+    task.sequence = nextSequence++;
+    queue.add(task);
+    return task;
+  }
+
+  private synchronized long timeAfter(long delay, TimeUnit unit) {
+    long delayNanos = Math.max(0L, unit.toNanos(delay));
+    return delayNanos < Long.MAX_VALUE - nowNanos ? nowNanos + delayNanos : Long.MAX_VALUE;
+  }
+
+  synchronized void remove(Task<?> task) {
+    queue.remove(task);
+  }
+
+  @Override public void execute(Runnable command) {
+    schedule(command, 0L, NANOSECONDS);
+  }
+
+  @Override public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    Callable<Object> callable = Executors.callable(command);
+    return enqueue(new Task<>(callable, timeAfter(delay, unit), 0L));
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    return enqueue(new Task<>(callable, timeAfter(delay, unit), 0L));
+  }
+
+  @Override public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay,
+      long period, TimeUnit unit) {
+    if (period <= 0) throw new IllegalArgumentException("period <= 0: " + period);
+    Callable<Object> callable = Executors.callable(command);
+    return enqueue(new Task<>(callable, timeAfter(initialDelay, unit), unit.toNanos(period)));
+  }
+
+  @Override public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay,
+      long delay, TimeUnit unit) {
+    if (delay <= 0) throw new IllegalArgumentException("delay <= 0: " + delay);
+    Callable<Object> callable = Executors.callable(command);
+    return enqueue(new Task<>(callable, timeAfter(initialDelay, unit), -unit.toNanos(delay)));
+  }
+
+  @Override public synchronized void shutdown() {
+    shutdown = true;
+  }
+
+  @Override public synchronized List<Runnable> shutdownNow() {
+    shutdown = true;
+    List<Runnable> pending = new ArrayList<Runnable>(queue);
+    queue.clear();
+    return pending;
+  }
+
+  @Override public synchronized boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override public synchronized boolean isTerminated() {
+    return shutdown && queue.isEmpty();
+  }
+
+  /** Returns immediately as waiting cannot advance virtual time. */
+  @Override public boolean awaitTermination(long timeout, TimeUnit unit) {
+    return isTerminated();
+  }
+
+  final class Task<V> extends FutureTask<V> implements ScheduledFuture<V> {
+    long timeNanos;
+    long sequence;
+    /** Positive for a fixed rate, negative for a fixed delay, and zero for one-shot tasks. */
+    private final long periodNanos;
+
+    Task(Callable<V> callable, long timeNanos, long periodNanos) {
+      super(callable);
+      this.timeNanos = timeNanos;
+      this.periodNanos = periodNanos;
+    }
+
+    @Override public void run() {
+      if (periodNanos == 0L) {
+        super.run();
+        return;
+      }
+      if (!runAndReset()) return;
+      synchronized (VirtualTimeScheduler.this) {
+        if (shutdown) return;
+        timeNanos = periodNanos > 0L ? timeNanos + periodNanos : nowNanos - periodNanos;
+        sequence = nextSequence++;
+        queue.add(this);
+      }
+    }
+
+    @Override public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean canceled = super.cancel(mayInterruptIfRunning);
+      if (canceled) remove(this);
+      return canceled;
+    }
+
+    @Override public long getDelay(TimeUnit unit) {
+      synchronized (VirtualTimeScheduler.this) {
+        return unit.convert(timeNanos - nowNanos, NANOSECONDS);
+      }
+    }
+
+    @Override public int compareTo(Delayed other) {
+      if (other == this) return 0;
+      if (other instanceof Task) {
+        Task<?> task = (Task<?>) other;
+        if (timeNanos != task.timeNanos) return timeNanos < task.timeNanos ? -1 : 1;
+        return sequence < task.sequence ? -1 : 1;
+      }
+      long difference = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+      return difference == 0L ? 0 : difference < 0L ? -1 : 1;
+    }
+  }
+}
@@ -19,9 +19,13 @@ package retrofit2.mock;
 import java.io.IOException;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.Headers;
 import org.junit.Before;
 import org.junit.Test;
 import retrofit2.Call;
@@ -29,6 +33,7 @@ import retrofit2.Callback;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 
+import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -247,8 +252,6 @@ public final class BehaviorDelegateTest {
       }
     });
 
-    // TODO we shouldn't need to sleep
-    Thread.sleep(100); // Ensure the task has started.
     call.cancel();
 
     assertTrue(latch.await(1, SECONDS));
@@ -295,4 +298,182 @@ public final class BehaviorDelegateTest {
     assertTrue(latch.await(1, SECONDS));
     assertThat(failureRef.get()).isExactlyInstanceOf(IOException.class).hasMessage("canceled");
   }
+
+  @Test public void delayedCallsDoNotHoldThreads() throws InterruptedException {
+    behavior.setDelay(500, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .backgroundExecutor(executor)
+        .build();
+    BehaviorDelegate<DoWorkService> delegate = mockRetrofit.create(DoWorkService.class);
+
+    // Sleeping for each call on the single background thread would take 50 seconds.
+    int count = 100;
+    final CountDownLatch latch = new CountDownLatch(count);
+    for (int i = 0; i < count; i++) {
+      delegate.returningResponse("Response!").response().enqueue(new Callback<String>() {
+        @Override public void onResponse(Call<String> call, Response<String> response) {
+          latch.countDown();
+        }
+
+        @Override public void onFailure(Call<String> call, Throwable t) {
+          throw new AssertionError(t);
+        }
+      });
+    }
+    try {
+      assertTrue(latch.await(5, SECONDS));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test public void virtualTimeControlsDelay() {
+    behavior.setDelay(2, SECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .scheduler(scheduler)
+        .backgroundExecutor(scheduler)
+        .build();
+    BehaviorDelegate<DoWorkService> delegate = mockRetrofit.create(DoWorkService.class);
+
+    final AtomicReference<Response<String>> responseRef = new AtomicReference<>();
+    final AtomicLong calledAtMs = new AtomicLong(-1);
+    delegate.returningResponse("Response!").response().enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        responseRef.set(response);
+        calledAtMs.set(scheduler.now(MILLISECONDS));
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        throw new AssertionError(t);
+      }
+    });
+
+    scheduler.advanceBy(1999, MILLISECONDS);
+    assertThat(responseRef.get()).isNull();
+    scheduler.advanceBy(1, MILLISECONDS);
+    assertThat(responseRef.get().body()).isEqualTo("Response!");
+    assertThat(calledAtMs.get()).isEqualTo(2000);
+  }
+
+  @Test public void virtualTimeCancelStopsTimer() {
+    behavior.setDelay(2, SECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .scheduler(scheduler)
+        .backgroundExecutor(scheduler)
+        .build();
+    BehaviorDelegate<DoWorkService> delegate = mockRetrofit.create(DoWorkService.class);
+
+    final AtomicReference<Throwable> failureRef = new AtomicReference<>();
+    Call<String> call = delegate.returningResponse("Response!").response();
+    call.enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        throw new AssertionError();
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        failureRef.set(t);
+      }
+    });
+    scheduler.advanceBy(1, SECONDS);
+    call.cancel();
+    scheduler.runUntilIdle();
+
+    assertThat(failureRef.get()).hasMessage("canceled");
+    assertThat(scheduler.now(MILLISECONDS)).isEqualTo(1000);
+    assertThat(scheduler.pendingTaskCount()).isEqualTo(0);
+  }
+
+  @Test public void bandwidthDelaysLargeBodies() {
+    behavior.setDelay(100, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+    behavior.setBandwidth(1000);
+
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .scheduler(scheduler)
+        .backgroundExecutor(scheduler)
+        .build();
+    BehaviorDelegate<DoWorkService> delegate = mockRetrofit.create(DoWorkService.class);
+
+    final AtomicLong calledAtMs = new AtomicLong(-1);
+    Response<String> response =
+        Response.success("Response!", Headers.of("Content-Length", "2000"));
+    delegate.returning(Calls.response(response)).response().enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        calledAtMs.set(scheduler.now(MILLISECONDS));
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        throw new AssertionError(t);
+      }
+    });
+    scheduler.runUntilIdle();
+
+    // 100ms of latency plus 2000 bytes at 1000 bytes per second.
+    assertThat(calledAtMs.get()).isEqualTo(2100);
+  }
+
+  @Test public void hugeTransferDelayDoesNotOverflow() {
+    behavior.setDelay(100, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+    behavior.setBandwidth(1);
+
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .scheduler(scheduler)
+        .backgroundExecutor(scheduler)
+        .build();
+    BehaviorDelegate<DoWorkService> delegate = mockRetrofit.create(DoWorkService.class);
+
+    final AtomicBoolean called = new AtomicBoolean();
+    Response<String> response = Response.success("Response!",
+        Headers.of("Content-Length", String.valueOf(Long.MAX_VALUE)));
+    delegate.returning(Calls.response(response)).response().enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        called.set(true);
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        called.set(true);
+      }
+    });
+    scheduler.advanceBy(365, DAYS);
+
+    assertThat(called.get()).isFalse();
+    assertThat(scheduler.pendingTaskCount()).isEqualTo(1);
+  }
 }
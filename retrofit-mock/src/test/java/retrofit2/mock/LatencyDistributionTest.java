@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class LatencyDistributionTest {
+  private final Random random = new Random(2847);
+
+  /** Returns the delays in milliseconds at {@code percentiles} of 100k samples. */
+  private long[] percentiles(LatencyDistribution distribution, double... percentiles) {
+    long[] samples = new long[100000];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = NANOSECONDS.toMillis(distribution.sampleNanos(random));
+    }
+    Arrays.sort(samples);
+    long[] result = new long[percentiles.length];
+    for (int i = 0; i < percentiles.length; i++) {
+      result[i] = samples[(int) (percentiles[i] / 100 * (samples.length - 1))];
+    }
+    return result;
+  }
+
+  @Test public void uniform() {
+    long[] delays = percentiles(LatencyDistribution.uniform(2000, MILLISECONDS, 40), 0, 50, 100);
+    assertThat(delays[0]).isEqualTo(1200);
+    assertThat(delays[1]).isBetween(1980L, 2020L);
+    assertThat(delays[2]).isEqualTo(2799);
+  }
+
+  @Test public void logNormal() {
+    long[] delays = percentiles(LatencyDistribution.logNormal(100, MILLISECONDS, 1), 50, 99);
+    assertThat(delays[0]).isBetween(97L, 103L);
+    assertThat(delays[1]).isBetween(964L, 1084L); // 100 * exp(2.326)
+  }
+
+  @Test public void pareto() {
+    long[] delays = percentiles(LatencyDistribution.pareto(100, MILLISECONDS, 2), 0, 50, 99);
+    assertThat(delays[0]).isEqualTo(100);
+    assertThat(delays[1]).isBetween(138L, 144L); // 100 * sqrt(2)
+    assertThat(delays[2]).isBetween(940L, 1060L); // 100 * sqrt(100)
+  }
+
+  @Test public void percentileTable() {
+    Map<Double, Long> table = new LinkedHashMap<>();
+    table.put(50.0, 100L);
+    table.put(90.0, 300L);
+    table.put(99.0, 1000L);
+    table.put(99.9, 5000L);
+
+    long[] delays = percentiles(LatencyDistribution.percentiles(table, MILLISECONDS),
+        10, 50, 70, 90, 99, 100);
+    assertThat(delays[0]).isEqualTo(100); // Clamped below the lowest percentile.
+    assertThat(delays[1]).isBetween(95L, 105L);
+    assertThat(delays[2]).isBetween(195L, 205L); // Interpolated.
+    assertThat(delays[3]).isBetween(295L, 305L);
+    assertThat(delays[4]).isBetween(950L, 1050L);
+    assertThat(delays[5]).isEqualTo(5000); // Clamped above the highest percentile.
+  }
+
+  @Test public void percentileTableMustNotDecrease() {
+    Map<Double, Long> table = new LinkedHashMap<>();
+    table.put(50.0, 100L);
+    table.put(90.0, 50L);
+    try {
+      LatencyDistribution.percentiles(table, MILLISECONDS);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage(
+          "Delays must not decrease as percentiles increase: {50.0=100, 90.0=50}");
+    }
+  }
+
+  @Test public void percentileTableRequiresValidPercentiles() {
+    Map<Double, Long> table = new LinkedHashMap<>();
+    table.put(101.0, 100L);
+    try {
+      LatencyDistribution.percentiles(table, MILLISECONDS);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Percentile must be between 0 and 100: 101.0");
+    }
+  }
+
+  @Test public void invalidParametersThrow() {
+    try {
+      LatencyDistribution.logNormal(0, MILLISECONDS, 1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Median must be positive value.");
+    }
+    try {
+      LatencyDistribution.pareto(100, MILLISECONDS, 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Alpha must be positive value.");
+    }
+  }
+}
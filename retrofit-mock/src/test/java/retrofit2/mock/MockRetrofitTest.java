@@ -70,4 +70,27 @@ public final class MockRetrofitTest {
         .build();
     assertThat(mockRetrofit.backgroundExecutor()).isSameAs(executor);
   }
+
+  @Test public void schedulerNullThrows() {
+    MockRetrofit.Builder builder = new MockRetrofit.Builder(retrofit);
+    try {
+      builder.scheduler(null);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e).hasMessage("scheduler == null");
+    }
+  }
+
+  @Test public void schedulerDefault() {
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit).build();
+    assertThat(mockRetrofit.scheduler()).isNotNull();
+  }
+
+  @Test public void schedulerPropagated() {
+    VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .scheduler(scheduler)
+        .build();
+    assertThat(mockRetrofit.scheduler()).isSameAs(scheduler);
+  }
 }
@@ -18,6 +18,7 @@ package retrofit2.mock;
 import java.io.IOException;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import okhttp3.ResponseBody;
 import org.junit.Test;
 import retrofit2.Response;
@@ -223,4 +224,50 @@ public final class NetworkBehaviorTest {
     assertThat(upperBound).isEqualTo(2799); // ~40% above 2000
     assertThat(lowerBound).isEqualTo(1200); // ~40% below 2000
   }
+
+  @Test public void delayInUnit() {
+    behavior.setDelay(2, SECONDS);
+    assertThat(behavior.delay(MILLISECONDS)).isEqualTo(2000);
+    assertThat(behavior.delay(SECONDS)).isEqualTo(2);
+  }
+
+  @Test public void latencyDistributionIsUsed() {
+    behavior.setLatencyDistribution(LatencyDistribution.pareto(100, MILLISECONDS, 1.5));
+    for (int i = 0; i < 1000; i++) {
+      assertThat(behavior.calculateDelay(MILLISECONDS)).isGreaterThanOrEqualTo(100);
+    }
+
+    // Setting a delay restores the uniform distribution.
+    behavior.setDelay(2, SECONDS);
+    behavior.setVariancePercent(0);
+    assertThat(behavior.calculateDelay(MILLISECONDS)).isEqualTo(2000);
+  }
+
+  @Test public void latencyDistributionIsNotNull() {
+    try {
+      behavior.setLatencyDistribution(null);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e).hasMessage("latency == null");
+    }
+  }
+
+  @Test public void bandwidthAddsTransferDelay() {
+    assertThat(behavior.calculateTransferDelay(1_000_000, MILLISECONDS)).isEqualTo(0);
+
+    behavior.setBandwidth(500_000);
+    assertThat(behavior.bandwidth()).isEqualTo(500_000);
+    assertThat(behavior.calculateTransferDelay(1_000_000, MILLISECONDS)).isEqualTo(2000);
+    assertThat(behavior.calculateTransferDelay(1, TimeUnit.NANOSECONDS)).isEqualTo(2000);
+    assertThat(behavior.calculateTransferDelay(0, MILLISECONDS)).isEqualTo(0);
+  }
+
+  @Test public void bandwidthMustNotBeNegative() {
+    try {
+      behavior.setBandwidth(-1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Bandwidth must be positive value or 0 for unlimited.");
+    }
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class VirtualTimeSchedulerTest {
+  private final VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+  private final List<String> log = new ArrayList<>();
+
+  private Runnable record(final String name) {
+    return new Runnable() {
+      @Override public void run() {
+        log.add(name + "@" + scheduler.now(MILLISECONDS));
+      }
+    };
+  }
+
+  @Test public void tasksRunInTimeOrderWhenAdvanced() {
+    scheduler.schedule(record("b"), 200, MILLISECONDS);
+    scheduler.schedule(record("a"), 100, MILLISECONDS);
+    scheduler.execute(record("now"));
+    scheduler.schedule(record("c"), 1, SECONDS);
+    assertThat(log).isEmpty();
+
+    scheduler.advanceBy(200, MILLISECONDS);
+    assertThat(log).containsExactly("now@0", "a@100", "b@200");
+    assertThat(scheduler.now(MILLISECONDS)).isEqualTo(200);
+    assertThat(scheduler.pendingTaskCount()).isEqualTo(1);
+
+    scheduler.runUntilIdle();
+    assertThat(log).containsExactly("now@0", "a@100", "b@200", "c@1000");
+  }
+
+  @Test public void tasksAtTheSameTimeRunInScheduledOrder() {
+    scheduler.schedule(record("a"), 100, MILLISECONDS);
+    scheduler.schedule(record("b"), 100, MILLISECONDS);
+    scheduler.schedule(record("c"), 100, MILLISECONDS);
+
+    scheduler.advanceBy(100, MILLISECONDS);
+    assertThat(log).containsExactly("a@100", "b@100", "c@100");
+  }
+
+  @Test public void tasksScheduledByTasksRunWithinTheSameAdvance() {
+    scheduler.schedule(new Runnable() {
+      @Override public void run() {
+        scheduler.schedule(record("nested"), 100, MILLISECONDS);
+      }
+    }, 100, MILLISECONDS);
+
+    scheduler.advanceBy(250, MILLISECONDS);
+    assertThat(log).containsExactly("nested@200");
+    assertThat(scheduler.now(MILLISECONDS)).isEqualTo(250);
+  }
+
+  @Test public void canceledTaskDoesNotRun() {
+    ScheduledFuture<?> future = scheduler.schedule(record("a"), 100, MILLISECONDS);
+    assertThat(future.getDelay(MILLISECONDS)).isEqualTo(100);
+    assertThat(future.cancel(false)).isTrue();
+    assertThat(scheduler.pendingTaskCount()).isEqualTo(0);
+
+    scheduler.advanceBy(1, SECONDS);
+    assertThat(log).isEmpty();
+  }
+
+  @Test public void callableResult() throws ExecutionException, InterruptedException {
+    ScheduledFuture<String> future = scheduler.schedule(new Callable<String>() {
+      @Override public String call() {
+        return "Hi";
+      }
+    }, 1, SECONDS);
+    assertThat(future.isDone()).isFalse();
+
+    scheduler.advanceBy(1, SECONDS);
+    assertThat(future.get()).isEqualTo("Hi");
+  }
+
+  @Test public void fixedRateAndFixedDelay() {
+    ScheduledFuture<?> rate = scheduler.scheduleAtFixedRate(record("rate"), 0, 300, MILLISECONDS);
+    ScheduledFuture<?> delay =
+        scheduler.scheduleWithFixedDelay(record("delay"), 500, 500, MILLISECONDS);
+
+    scheduler.advanceBy(1, SECONDS);
+    assertThat(log).containsExactly(
+        "rate@0", "rate@300", "delay@500", "rate@600", "rate@900", "delay@1000");
+
+    rate.cancel(false);
+    delay.cancel(false);
+    assertThat(scheduler.pendingTaskCount()).isEqualTo(0);
+  }
+
+  @Test public void shutdownRejectsTasks() {
+    scheduler.schedule(record("a"), 100, MILLISECONDS);
+    assertThat(scheduler.shutdownNow()).hasSize(1);
+    assertThat(scheduler.isTerminated()).isTrue();
+    try {
+      scheduler.execute(record("b"));
+      fail();
+    } catch (RejectedExecutionException e) {
+      assertThat(e).hasMessage("Scheduler is shut down.");
+    }
+  }
+
+  @Test public void negativeAdvanceThrows() {
+    try {
+      scheduler.advanceBy(-1, SECONDS);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("amount < 0: -1");
+    }
+  }
+}
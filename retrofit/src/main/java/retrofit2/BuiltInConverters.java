@@ -15,14 +15,28 @@
  */
 package retrofit2;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.annotation.Nullable;
+import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
 import retrofit2.http.Streaming;
 
+@Memoizable
 final class BuiltInConverters extends Converter.Factory {
+  static final MediaType OCTET_STREAM = MediaType.parse("application/octet-stream");
+
   @Override
   public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
       Retrofit retrofit) {
@@ -34,15 +48,28 @@ final class BuiltInConverters extends Converter.Factory {
     if (type == Void.class) {
       return VoidResponseBodyConverter.INSTANCE;
     }
+    if (type == File.class) {
+      return new FileResponseBodyConverter(retrofit.downloadDirectory());
+    }
     return null;
   }
 
   @Override
   public Converter<?, RequestBody> requestBodyConverter(Type type,
       Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
-    if (RequestBody.class.isAssignableFrom(Utils.getRawType(type))) {
+    Class<?> rawType = Utils.getRawType(type);
+    if (RequestBody.class.isAssignableFrom(rawType)) {
       return RequestBodyConverter.INSTANCE;
     }
+    if (type == File.class) {
+      return FileRequestBodyConverter.INSTANCE;
+    }
+    if (FileChannel.class.isAssignableFrom(rawType)) {
+      return FileChannelRequestBodyConverter.INSTANCE;
+    }
+    if (Platform.get().isPath(rawType)) {
+      return PathRequestBodyConverter.INSTANCE;
+    }
     return null;
   }
 
@@ -63,6 +90,59 @@ final class BuiltInConverters extends Converter.Factory {
     }
   }
 
+  static final class FileRequestBodyConverter implements Converter<File, RequestBody> {
+    static final FileRequestBodyConverter INSTANCE = new FileRequestBodyConverter();
+
+    @Override public RequestBody convert(File value) throws IOException {
+      return SeekableRequestBody.create(OCTET_STREAM, value);
+    }
+  }
+
+  static final class FileChannelRequestBodyConverter
+      implements Converter<FileChannel, RequestBody> {
+    static final FileChannelRequestBodyConverter INSTANCE = new FileChannelRequestBodyConverter();
+
+    @Override public RequestBody convert(FileChannel value) throws IOException {
+      return SeekableRequestBody.create(OCTET_STREAM, value);
+    }
+  }
+
+  @IgnoreJRERequirement // Only classloaded and used when Platform.isPath is true.
+  static final class PathRequestBodyConverter implements Converter<Path, RequestBody> {
+    static final PathRequestBodyConverter INSTANCE = new PathRequestBodyConverter();
+
+    @Override public RequestBody convert(Path value) throws IOException {
+      return new PathRequestBody(value, Files.size(value));
+    }
+  }
+
+  /** Opens {@code path} each time the body is written so that it may be retried. */
+  @IgnoreJRERequirement // Only classloaded and used when Platform.isPath is true.
+  static final class PathRequestBody extends SeekableRequestBody {
+    private final Path path;
+    private final long contentLength;
+
+    PathRequestBody(Path path, long contentLength) {
+      this.path = path;
+      this.contentLength = contentLength;
+    }
+
+    @Override public MediaType contentType() {
+      return OCTET_STREAM;
+    }
+
+    @Override public long contentLength() {
+      return contentLength;
+    }
+
+    @Override public void writeTo(BufferedSink sink, long position, long byteCount)
+        throws IOException {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        transfer(channel, position, byteCount, sink);
+      }
+    }
+  }
+
   static final class StreamingResponseBodyConverter
       implements Converter<ResponseBody, ResponseBody> {
     static final StreamingResponseBodyConverter INSTANCE = new StreamingResponseBodyConverter();
@@ -86,6 +166,43 @@ final class BuiltInConverters extends Converter.Factory {
     }
   }
 
+  /** Downloads into a new file in {@code directory}. The caller owns the file and deletes it. */
+  static final class FileResponseBodyConverter implements Converter<ResponseBody, File> {
+    private final @Nullable File directory;
+
+    FileResponseBodyConverter(@Nullable File directory) {
+      this.directory = directory;
+    }
+
+    @Override public File convert(ResponseBody value) throws IOException {
+      File file = File.createTempFile("retrofit", null, directory);
+      boolean complete = false;
+      try {
+        long contentLength = value.contentLength();
+        long written;
+        Sink sink = Okio.sink(file);
+        try {
+          // Hands the source's segments straight to the file without copying them in between.
+          written = value.source().readAll(sink);
+        } finally {
+          sink.close();
+        }
+        if (contentLength != -1L && written != contentLength) {
+          throw new IOException(
+              "Expected " + contentLength + " bytes but received " + written + " bytes");
+        }
+        complete = true;
+        return file;
+      } finally {
+        value.close();
+        if (!complete) {
+          //noinspection ResultOfMethodCallIgnored
+          file.delete();
+        }
+      }
+    }
+  }
+
   static final class ToStringConverter implements Converter<Object, String> {
     static final ToStringConverter INSTANCE = new ToStringConverter();
 
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+
+/**
+ * Shares one HTTP exchange and one converted body between identical in-flight calls of a method
+ * annotated with {@link retrofit2.http.Coalesce @Coalesce}.
+ */
+final class CallCoalescer<T> {
+  final ConcurrentMap<String, Flight<T>> flights = new ConcurrentHashMap<>();
+
+  static String key(Request request) {
+    return request.url() + "\n" + request.headers();
+  }
+
+  /**
+   * Wait for the response to {@code rawCall}, which was created by {@code call}. If an identical
+   * request is already in flight its result is shared, otherwise {@code rawCall} is enqueued and
+   * later identical calls will share its result.
+   */
+  void join(OkHttpCall<T> call, okhttp3.Call rawCall, Callback<T> callback) {
+    String key = key(rawCall.request());
+    while (true) {
+      Flight<T> flight = flights.get(key);
+      if (flight == null) {
+        Flight<T> created = new Flight<>(this, key, call, rawCall);
+        created.add(call, callback);
+        flight = flights.putIfAbsent(key, created);
+        if (flight == null) {
+          call.joined(created);
+          rawCall.enqueue(created);
+          return;
+        }
+      }
+      if (flight.add(call, callback)) {
+        call.joined(flight);
+        return;
+      }
+      // The flight completed or was canceled by all of its calls. Start another.
+      flights.remove(key, flight);
+    }
+  }
+
+  static final class Flight<T> implements okhttp3.Callback {
+    private final CallCoalescer<T> coalescer;
+    private final String key;
+    private final OkHttpCall<T> leader;
+    private final okhttp3.Call rawCall;
+    @GuardedBy("this")
+    private final Map<OkHttpCall<T>, Callback<T>> waiters = new LinkedHashMap<>();
+    @GuardedBy("this")
+    private boolean done;
+
+    Flight(CallCoalescer<T> coalescer, String key, OkHttpCall<T> leader, okhttp3.Call rawCall) {
+      this.coalescer = coalescer;
+      this.key = key;
+      this.leader = leader;
+      this.rawCall = rawCall;
+    }
+
+    /** Returns false if this flight can no longer be joined. */
+    synchronized boolean add(OkHttpCall<T> call, Callback<T> callback) {
+      if (done) return false;
+      waiters.put(call, callback);
+      return true;
+    }
+
+    /**
+     * Stop waiting on behalf of {@code call}, which fails as canceled. The exchange itself is only
+     * canceled once no calls are left waiting for it.
+     */
+    void cancel(OkHttpCall<T> call) {
+      Callback<T> callback;
+      boolean cancelExchange;
+      synchronized (this) {
+        callback = waiters.remove(call);
+        if (callback == null) return; // Already completed or canceled.
+        cancelExchange = waiters.isEmpty();
+        if (cancelExchange) done = true;
+      }
+      if (cancelExchange) {
+        coalescer.flights.remove(key, this);
+        rawCall.cancel();
+      }
+      callback.onFailure(call, new IOException("Canceled"));
+    }
+
+    @Override public void onResponse(okhttp3.Call call, okhttp3.Response rawResponse) {
+      Response<T> response;
+      try {
+        // The leader owns the raw call so its response is converted on its behalf.
+        response = leader.parseResponse(rawResponse);
+      } catch (Throwable t) {
+        complete(null, t);
+        return;
+      }
+      complete(response, null);
+    }
+
+    @Override public void onFailure(okhttp3.Call call, IOException e) {
+      complete(null, e);
+    }
+
+    private void complete(@Nullable Response<T> response, @Nullable Throwable failure) {
+      List<Map.Entry<OkHttpCall<T>, Callback<T>>> waiting;
+      synchronized (this) {
+        done = true;
+        waiting = new ArrayList<>(waiters.entrySet());
+        waiters.clear();
+      }
+      coalescer.flights.remove(key, this);
+
+      // A buffered error body can only be read once so each call gets its own copy.
+      MediaType errorType = null;
+      byte[] errorBytes = null;
+      if (response != null && !response.isSuccessful()) {
+        ResponseBody errorBody = response.errorBody();
+        try {
+          errorType = errorBody.contentType();
+          errorBytes = errorBody.bytes();
+        } catch (IOException e) {
+          response = null;
+          failure = e;
+        }
+      }
+
+      for (Map.Entry<OkHttpCall<T>, Callback<T>> waiter : waiting) {
+        OkHttpCall<T> call = waiter.getKey();
+        Callback<T> callback = waiter.getValue();
+        if (response == null) {
+          callback.onFailure(call, failure);
+        } else if (errorBytes != null) {
+          ResponseBody errorBody = ResponseBody.create(errorType, errorBytes);
+          callback.onResponse(call, Response.<T>error(errorBody, response.raw()));
+        } else {
+          callback.onResponse(call, response);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.reflect.Method;
+
+/**
+ * Listener for the phases of each call made by a {@link Retrofit} instance. Install one with
+ * {@link Retrofit.Builder#eventListener}. Every event carries the {@link Call} which executes the
+ * HTTP request, the service interface method which created it, and a {@link System#nanoTime()}
+ * timestamp taken when the event occurred.
+ * <p>
+ * A successful synchronous call produces these events, in order:
+ * <ol>
+ * <li>{@link #callStart}</li>
+ * <li>{@link #requestConversionStart} and {@link #requestConversionEnd} around converting the
+ * method arguments into a request.</li>
+ * <li>{@link #networkStart} and {@link #networkEnd} around waiting for the response headers.</li>
+ * <li>{@link #responseConversionStart} and {@link #responseConversionEnd} around reading and
+ * converting the response body.</li>
+ * <li>{@link #callEnd}</li>
+ * </ol>
+ * Asynchronous calls additionally report {@link #callbackStart} and {@link #callbackEnd} around
+ * invoking the {@link Callback}, before {@link #callEnd}. When a callback executor is used these
+ * occur on its thread, so the time since {@link #responseConversionEnd} is the time spent
+ * waiting for the executor. A call which fails reports {@link #callFailed} instead of
+ * {@link #callEnd}.
+ * <p>
+ * The call passed to each event is the one created by Retrofit. It may be wrapped by a
+ * {@linkplain CallAdapter call adapter} before being returned from the service method, but the
+ * same instance is passed to every event of a call so it can be used to correlate them.
+ * <p>
+ * Events are delivered synchronously on the thread doing the work, so implementations should
+ * return quickly. All methods do nothing by default.
+ */
+public abstract class EventListener {
+  public void callStart(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void requestConversionStart(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void requestConversionEnd(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void networkStart(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void networkEnd(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void responseConversionStart(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void responseConversionEnd(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void callbackStart(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void callbackEnd(Call<?> call, Method method, long nanoTime) {
+  }
+
+  public void callEnd(Call<?> call, Method method, long nanoTime) {
+  }
+
+  /** Invoked when a call fails at any phase with {@code t}. No further events follow. */
+  public void callFailed(Call<?> call, Method method, long nanoTime, Throwable t) {
+  }
+}
@@ -23,6 +23,7 @@ import okhttp3.Request;
 
 import static retrofit2.Utils.checkNotNull;
 
+@Memoizable
 final class ExecutorCallAdapterFactory extends CallAdapter.Factory {
   final Executor callbackExecutor;
 
@@ -59,15 +60,28 @@ final class ExecutorCallAdapterFactory extends CallAdapter.Factory {
     @Override public void enqueue(final Callback<T> callback) {
       checkNotNull(callback, "callback == null");
 
-      delegate.enqueue(new Callback<T>() {
+      // Calls created by Retrofit report the callback on the executor's thread instead.
+      @SuppressWarnings("unchecked") // The delegate is a Call<T> so an OkHttpCall is one of T.
+      final OkHttpCall<T> okHttpCall =
+          delegate instanceof OkHttpCall ? (OkHttpCall<T>) delegate : null;
+
+      Callback<T> dispatchingCallback = new Callback<T>() {
         @Override public void onResponse(Call<T> call, final Response<T> response) {
           callbackExecutor.execute(new Runnable() {
             @Override public void run() {
-              if (delegate.isCanceled()) {
-                // Emulate OkHttp's behavior of throwing/delivering an IOException on cancellation.
-                callback.onFailure(ExecutorCallbackCall.this, new IOException("Canceled"));
-              } else {
-                callback.onResponse(ExecutorCallbackCall.this, response);
+              if (okHttpCall != null) okHttpCall.callbackStarted();
+              IOException failure = null;
+              try {
+                if (delegate.isCanceled()) {
+                  // Emulate OkHttp's behavior of throwing/delivering an IOException on
+                  // cancellation.
+                  failure = new IOException("Canceled");
+                  callback.onFailure(ExecutorCallbackCall.this, failure);
+                } else {
+                  callback.onResponse(ExecutorCallbackCall.this, response);
+                }
+              } finally {
+                if (okHttpCall != null) okHttpCall.callbackEnded(failure);
               }
             }
           });
@@ -76,11 +90,22 @@ final class ExecutorCallAdapterFactory extends CallAdapter.Factory {
         @Override public void onFailure(Call<T> call, final Throwable t) {
           callbackExecutor.execute(new Runnable() {
             @Override public void run() {
-              callback.onFailure(ExecutorCallbackCall.this, t);
+              if (okHttpCall != null) okHttpCall.callbackStarted();
+              try {
+                callback.onFailure(ExecutorCallbackCall.this, t);
+              } finally {
+                if (okHttpCall != null) okHttpCall.callbackEnded(t);
+              }
             }
           });
         }
-      });
+      };
+
+      if (okHttpCall != null) {
+        okHttpCall.enqueue(dispatchingCallback, false);
+      } else {
+        delegate.enqueue(dispatchingCallback);
+      }
     }
 
     @Override public boolean isExecuted() {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+import retrofit2.http.Body;
+import retrofit2.http.DELETE;
+import retrofit2.http.Field;
+import retrofit2.http.FieldMap;
+import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+import retrofit2.http.HTTP;
+import retrofit2.http.Header;
+import retrofit2.http.HeaderMap;
+import retrofit2.http.Headers;
+import retrofit2.http.OPTIONS;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+import retrofit2.http.Part;
+import retrofit2.http.PartMap;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.QueryMap;
+import retrofit2.http.QueryName;
+import retrofit2.http.Url;
+
+/**
+ * Identifies a converter or call adapter lookup in {@link Retrofit}. Results from
+ * {@link Memoizable} factories are stored under this key so that methods sharing a type resolve
+ * it once.
+ * <p>
+ * Retrofit's routing and parameter annotations such as {@code @GET("/users")} or
+ * {@code @Query("page")} differ on almost every method and are not part of the key. Every other
+ * annotation is retained because converters and call adapters may be chosen by it.
+ */
+final class FactoryKey {
+  static final int CALL_ADAPTER = 0;
+  static final int REQUEST_BODY = 1;
+  static final int RESPONSE_BODY = 2;
+  static final int STRING = 3;
+
+  /** Annotations which only describe the request and never select a converter or adapter. */
+  private static final Set<Class<? extends Annotation>> IGNORED =
+      new HashSet<Class<? extends Annotation>>(Arrays.asList(
+          DELETE.class, GET.class, HEAD.class, HTTP.class, OPTIONS.class, PATCH.class, POST.class,
+          PUT.class, Headers.class, Body.class, Field.class, FieldMap.class, Header.class,
+          HeaderMap.class, Part.class, PartMap.class, Path.class, Query.class, QueryMap.class,
+          QueryName.class, Url.class));
+
+  private final int kind;
+  private final @Nullable Object skipPast;
+  private final Type type;
+  private final List<Annotation> annotations;
+  private final List<Annotation> methodAnnotations;
+
+  FactoryKey(int kind, @Nullable Object skipPast, Type type, Annotation[] annotations,
+      @Nullable Annotation[] methodAnnotations) {
+    this.kind = kind;
+    this.skipPast = skipPast;
+    this.type = type;
+    this.annotations = relevant(annotations);
+    this.methodAnnotations = methodAnnotations != null
+        ? relevant(methodAnnotations)
+        : Collections.<Annotation>emptyList();
+  }
+
+  private static List<Annotation> relevant(Annotation[] annotations) {
+    if (annotations.length == 0) return Collections.emptyList();
+
+    List<Annotation> result = new ArrayList<>(annotations.length);
+    for (Annotation annotation : annotations) {
+      if (annotation == null || !IGNORED.contains(annotation.annotationType())) {
+        result.add(annotation);
+      }
+    }
+    return result;
+  }
+
+  @Override public boolean equals(Object other) {
+    if (!(other instanceof FactoryKey)) return false;
+    FactoryKey that = (FactoryKey) other;
+    return kind == that.kind
+        && skipPast == that.skipPast
+        && type.equals(that.type)
+        && annotations.equals(that.annotations)
+        && methodAnnotations.equals(that.methodAnnotations);
+  }
+
+  @Override public int hashCode() {
+    int result = kind;
+    result = 31 * result + System.identityHashCode(skipPast);
+    result = 31 * result + type.hashCode();
+    result = 31 * result + annotations.hashCode();
+    result = 31 * result + methodAnnotations.hashCode();
+    return result;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.reflect.Method;
+import javax.annotation.Nullable;
+
+/**
+ * Base class for service implementations generated by {@code retrofit-compiler}. This type is an
+ * implementation detail of the generated code and should not be used directly.
+ * <p>
+ * For a service interface {@code com.example.GitHub} the generated class is named
+ * {@code com.example.GitHub_RetrofitImpl}. When present, {@link Retrofit#create} instantiates it
+ * instead of creating a {@link java.lang.reflect.Proxy}.
+ */
+public abstract class GeneratedService {
+  /** The suffix appended to the binary name of a service interface to name its implementation. */
+  static final String SUFFIX = "_RetrofitImpl";
+
+  private final Retrofit retrofit;
+  private final Method[] methods;
+  private final ServiceMethod<?, ?>[] serviceMethods;
+
+  protected GeneratedService(Retrofit retrofit, Method[] methods) {
+    this.retrofit = retrofit;
+    this.methods = methods;
+    this.serviceMethods = new ServiceMethod<?, ?>[methods.length];
+  }
+
+  /** Look up the declared method {@code name} of {@code service}. */
+  protected static Method method(Class<?> service, String name, Class<?>... parameterTypes) {
+    try {
+      return service.getDeclaredMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /** Invoke the method at {@code index} in the array supplied to the constructor. */
+  protected final Object invoke(int index, @Nullable Object[] args) {
+    // A racy read is safe: service methods are immutable and loadServiceMethod is idempotent.
+    @SuppressWarnings("unchecked")
+    ServiceMethod<Object, Object> serviceMethod =
+        (ServiceMethod<Object, Object>) serviceMethods[index];
+    if (serviceMethod == null) {
+      //noinspection unchecked
+      serviceMethod = (ServiceMethod<Object, Object>) retrofit.loadServiceMethod(methods[index]);
+      serviceMethods[index] = serviceMethod;
+    }
+    OkHttpCall<Object> okHttpCall = new OkHttpCall<>(serviceMethod, args);
+    return serviceMethod.callAdapter.adapt(okHttpCall);
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a {@link Converter.Factory} or {@link CallAdapter.Factory} which returns equivalent
+ * results for equal types and annotations. {@link Retrofit} resolves each distinct lookup against
+ * such factories once and shares the result between all service methods.
+ * <p>
+ * Retrofit's own request annotations like {@link retrofit2.http.GET @GET} and
+ * {@link retrofit2.http.Query @Query} are ignored when comparing annotations, so a memoizable
+ * factory must not depend on them. {@link retrofit2.http.Streaming @Streaming},
+ * {@link retrofit2.http.FormUrlEncoded @FormUrlEncoded}, and
+ * {@link retrofit2.http.Multipart @Multipart} are compared.
+ * <p>
+ * Results are only memoized if every factory consulted for a lookup carries this annotation.
+ * Subclasses of an annotated factory are not memoizable unless also annotated.
+ */
+@Documented
+@Target(TYPE)
+@Retention(RUNTIME)
+public @interface Memoizable {
+}
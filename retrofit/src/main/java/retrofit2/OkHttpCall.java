@@ -16,6 +16,8 @@
 package retrofit2;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import okhttp3.MediaType;
@@ -29,7 +31,7 @@ import okio.Okio;
 import static retrofit2.Utils.checkNotNull;
 
 final class OkHttpCall<T> implements Call<T> {
-  private final ServiceMethod<T, ?> serviceMethod;
+  final ServiceMethod<T, ?> serviceMethod;
   private final @Nullable Object[] args;
 
   private volatile boolean canceled;
@@ -40,6 +42,10 @@ final class OkHttpCall<T> implements Call<T> {
   private @Nullable Throwable creationFailure; // Either a RuntimeException or IOException.
   @GuardedBy("this")
   private boolean executed;
+  // Written with the raw call, which happens before the response is parsed.
+  private @Nullable String cacheKey;
+  private @Nullable ResponseCache.Entry<T> cacheEntry;
+  private volatile @Nullable CallCoalescer.Flight<T> flight;
 
   OkHttpCall(ServiceMethod<T, ?> serviceMethod, @Nullable Object[] args) {
     this.serviceMethod = serviceMethod;
@@ -74,16 +80,35 @@ final class OkHttpCall<T> implements Call<T> {
     }
   }
 
-  @Override public void enqueue(final Callback<T> callback) {
-    checkNotNull(callback, "callback == null");
+  @Override public void enqueue(Callback<T> callback) {
+    enqueue(callback, true);
+  }
 
-    okhttp3.Call call;
-    Throwable failure;
+  /**
+   * Asynchronously send the request. If {@code reportCallback} is false the caller takes over
+   * reporting the callback and the end of the call to the event listener, such as when it
+   * dispatches to the callback on another thread.
+   */
+  void enqueue(Callback<T> callback, boolean reportCallback) {
+    checkNotNull(callback, "callback == null");
 
     synchronized (this) {
       if (executed) throw new IllegalStateException("Already executed.");
       executed = true;
+    }
+    start(callback, reportCallback);
+  }
 
+  private void start(Callback<T> callback, boolean reportCallback) {
+    EventListener listener = serviceMethod.eventListener;
+    if (listener != null) {
+      listener.callStart(this, serviceMethod.method, System.nanoTime());
+    }
+
+    okhttp3.Call call;
+    Throwable failure;
+
+    synchronized (this) {
       call = rawCall;
       failure = creationFailure;
       if (call == null && failure == null) {
@@ -96,47 +121,143 @@ final class OkHttpCall<T> implements Call<T> {
     }
 
     if (failure != null) {
-      callback.onFailure(this, failure);
+      if (reportCallback) callbackStarted();
+      try {
+        callback.onFailure(this, failure);
+      } finally {
+        if (reportCallback) callbackEnded(failure);
+      }
+      return;
+    }
+
+    if (listener != null) {
+      listener.networkStart(this, serviceMethod.method, System.nanoTime());
+    }
+    DeliveringCallback delivering = new DeliveringCallback(callback, reportCallback);
+
+    ResponseCache.Entry<T> entry = cacheEntry;
+    if (entry != null && entry.isFresh() && !canceled) {
+      // Deliver the cached response on the calling thread rather than going to the network.
+      delivering.onResponse(call, entry.rawResponse);
+      return;
+    }
+
+    CallCoalescer<T> coalescer = serviceMethod.coalescer;
+    if (coalescer != null) {
+      if (canceled) {
+        delivering.onFailure(this, new IOException("Canceled"));
+      } else {
+        coalescer.join(this, call, delivering);
+      }
       return;
     }
 
     if (canceled) {
       call.cancel();
     }
+    call.enqueue(delivering);
+  }
 
-    call.enqueue(new okhttp3.Callback() {
-      @Override public void onResponse(okhttp3.Call call, okhttp3.Response rawResponse)
-          throws IOException {
-        Response<T> response;
-        try {
-          response = parseResponse(rawResponse);
-        } catch (Throwable e) {
-          callFailure(e);
-          return;
-        }
-        callSuccess(response);
-      }
+  /** Called by {@code flight} once this call is waiting for its result. */
+  void joined(CallCoalescer.Flight<T> flight) {
+    this.flight = flight;
+    if (canceled) {
+      flight.cancel(this); // Canceled while joining.
+    }
+  }
+
+  /**
+   * Converts the response of an enqueued call and delivers it to the callback, reporting each
+   * phase to the event listener. Coalesced calls receive a response which was already converted.
+   */
+  private final class DeliveringCallback implements okhttp3.Callback, Callback<T> {
+    private final Callback<T> callback;
+    private final boolean reportCallback;
+    private final @Nullable EventListener listener = serviceMethod.eventListener;
+
+    DeliveringCallback(Callback<T> callback, boolean reportCallback) {
+      this.callback = callback;
+      this.reportCallback = reportCallback;
+    }
 
-      @Override public void onFailure(okhttp3.Call call, IOException e) {
+    @Override public void onResponse(okhttp3.Call call, okhttp3.Response rawResponse) {
+      if (listener != null) {
+        long now = System.nanoTime();
+        listener.networkEnd(OkHttpCall.this, serviceMethod.method, now);
+        listener.responseConversionStart(OkHttpCall.this, serviceMethod.method, now);
+      }
+      Response<T> response;
+      try {
+        response = parseResponse(rawResponse);
+      } catch (Throwable e) {
         callFailure(e);
+        return;
+      }
+      if (listener != null) {
+        listener.responseConversionEnd(OkHttpCall.this, serviceMethod.method, System.nanoTime());
       }
+      callSuccess(response);
+    }
 
-      private void callFailure(Throwable e) {
-        try {
-          callback.onFailure(OkHttpCall.this, e);
-        } catch (Throwable t) {
-          t.printStackTrace();
-        }
+    @Override public void onFailure(okhttp3.Call call, IOException e) {
+      callFailure(e);
+    }
+
+    @Override public void onResponse(Call<T> call, Response<T> response) {
+      if (listener != null) {
+        listener.networkEnd(OkHttpCall.this, serviceMethod.method, System.nanoTime());
       }
+      callSuccess(response);
+    }
 
-      private void callSuccess(Response<T> response) {
-        try {
-          callback.onResponse(OkHttpCall.this, response);
-        } catch (Throwable t) {
-          t.printStackTrace();
-        }
+    @Override public void onFailure(Call<T> call, Throwable t) {
+      callFailure(t);
+    }
+
+    private void callFailure(Throwable e) {
+      if (reportCallback) callbackStarted();
+      try {
+        callback.onFailure(OkHttpCall.this, e);
+      } catch (Throwable t) {
+        t.printStackTrace();
+      }
+      if (reportCallback) callbackEnded(e);
+    }
+
+    private void callSuccess(Response<T> response) {
+      if (reportCallback) callbackStarted();
+      try {
+        callback.onResponse(OkHttpCall.this, response);
+      } catch (Throwable t) {
+        t.printStackTrace();
       }
-    });
+      if (reportCallback) callbackEnded(null);
+    }
+  }
+
+  /** Notify the event listener, if any, that the callback of this call is being invoked. */
+  void callbackStarted() {
+    EventListener listener = serviceMethod.eventListener;
+    if (listener != null) {
+      listener.callbackStart(this, serviceMethod.method, System.nanoTime());
+    }
+  }
+
+  /**
+   * Notify the event listener, if any, that the callback of this call has returned. This ends the
+   * call, and it failed if {@code failure} is non-null.
+   */
+  void callbackEnded(@Nullable Throwable failure) {
+    EventListener listener = serviceMethod.eventListener;
+    if (listener != null) {
+      long now = System.nanoTime();
+      listener.callbackEnd(this, serviceMethod.method, now);
+      if (failure != null) {
+        listener.callFailed(this, serviceMethod.method, now, failure);
+      } else {
+        listener.callEnd(this, serviceMethod.method, now);
+      }
+    }
   }
 
   @Override public synchronized boolean isExecuted() {
@@ -144,12 +265,59 @@ final class OkHttpCall<T> implements Call<T> {
   }
 
   @Override public Response<T> execute() throws IOException {
-    okhttp3.Call call;
-
     synchronized (this) {
       if (executed) throw new IllegalStateException("Already executed.");
       executed = true;
+    }
+    if (serviceMethod.coalescer != null) {
+      return executeCoalesced();
+    }
+    EventListener listener = serviceMethod.eventListener;
+    if (listener == null) {
+      return parseResponse(executeRawCall());
+    }
+
+    listener.callStart(this, serviceMethod.method, System.nanoTime());
+    try {
+      okhttp3.Response rawResponse = executeRawCall();
+      long now = System.nanoTime();
+      listener.networkEnd(this, serviceMethod.method, now);
+      listener.responseConversionStart(this, serviceMethod.method, now);
+      Response<T> response = parseResponse(rawResponse);
+      now = System.nanoTime();
+      listener.responseConversionEnd(this, serviceMethod.method, now);
+      listener.callEnd(this, serviceMethod.method, now);
+      return response;
+    } catch (IOException | RuntimeException | Error e) {
+      listener.callFailed(this, serviceMethod.method, System.nanoTime(), e);
+      throw e;
+    }
+  }
 
+  /** Wait for the shared result of a coalesced call on the thread which executes it. */
+  private Response<T> executeCoalesced() throws IOException {
+    BlockingCallback callback = new BlockingCallback();
+    start(callback, false);
+
+    EventListener listener = serviceMethod.eventListener;
+    try {
+      Response<T> response = callback.await();
+      if (listener != null) {
+        listener.callEnd(this, serviceMethod.method, System.nanoTime());
+      }
+      return response;
+    } catch (IOException | RuntimeException | Error e) {
+      if (listener != null) {
+        listener.callFailed(this, serviceMethod.method, System.nanoTime(), e);
+      }
+      throw e;
+    }
+  }
+
+  private okhttp3.Response executeRawCall() throws IOException {
+    okhttp3.Call call;
+
+    synchronized (this) {
       if (creationFailure != null) {
         if (creationFailure instanceof IOException) {
           throw (IOException) creationFailure;
@@ -173,11 +341,30 @@ final class OkHttpCall<T> implements Call<T> {
       call.cancel();
     }
 
-    return parseResponse(call.execute());
+    EventListener listener = serviceMethod.eventListener;
+    if (listener != null) {
+      listener.networkStart(this, serviceMethod.method, System.nanoTime());
+    }
+    ResponseCache.Entry<T> entry = cacheEntry;
+    if (entry != null && entry.isFresh() && !call.isCanceled()) {
+      return entry.rawResponse;
+    }
+    return call.execute();
   }
 
   private okhttp3.Call createRawCall() throws IOException {
+    EventListener listener = serviceMethod.eventListener;
+    if (listener != null) {
+      listener.requestConversionStart(this, serviceMethod.method, System.nanoTime());
+    }
     Request request = serviceMethod.toRequest(args);
+    ResponseCache<T> cache = serviceMethod.responseCache;
+    if (cache != null) {
+      request = prepareCachedRequest(cache, request);
+    }
+    if (listener != null) {
+      listener.requestConversionEnd(this, serviceMethod.method, System.nanoTime());
+    }
     okhttp3.Call call = serviceMethod.callFactory.newCall(request);
     if (call == null) {
       throw new NullPointerException("Call.Factory returned null.");
@@ -185,7 +372,31 @@ final class OkHttpCall<T> implements Call<T> {
     return call;
   }
 
+  /**
+   * Look up the cached response for {@code request} and, if it has an entity tag, make the request
+   * conditional so that an unchanged response need not be converted again.
+   */
+  private Request prepareCachedRequest(ResponseCache<T> cache, Request request) {
+    String key = ResponseCache.key(request);
+    if (key == null) return request;
+    cacheKey = key;
+
+    ResponseCache.Entry<T> entry = cache.get(key);
+    if (entry == null) return request;
+    cacheEntry = entry;
+
+    if (entry.etag == null) return request;
+    return request.newBuilder()
+        .header("If-None-Match", entry.etag)
+        .build();
+  }
+
   Response<T> parseResponse(okhttp3.Response rawResponse) throws IOException {
+    ResponseCache.Entry<T> entry = cacheEntry;
+    if (entry != null && rawResponse == entry.rawResponse) {
+      return Response.success(entry.body, rawResponse);
+    }
+
     ResponseBody rawBody = rawResponse.body();
 
     // Remove the body's source (the only stateful object) so we can pass the response along.
@@ -194,6 +405,11 @@ final class OkHttpCall<T> implements Call<T> {
         .build();
 
     int code = rawResponse.code();
+    if (code == 304 && entry != null && entry.etag != null) {
+      rawBody.close();
+      return revalidated(entry, rawResponse);
+    }
+
     if (code < 200 || code >= 300) {
       try {
         // Buffer the entire body to avoid future I/O.
@@ -212,6 +428,11 @@ final class OkHttpCall<T> implements Call<T> {
     ExceptionCatchingRequestBody catchingBody = new ExceptionCatchingRequestBody(rawBody);
     try {
       T body = serviceMethod.toResponse(catchingBody);
+      ResponseCache<T> cache = serviceMethod.responseCache;
+      if (cache != null && cacheKey != null && body != null
+          && !rawResponse.cacheControl().noStore()) {
+        cache.put(cacheKey, body, rawResponse, rawResponse.header("ETag"));
+      }
       return Response.success(body, rawResponse);
     } catch (RuntimeException e) {
       // If the underlying source threw an exception, propagate that rather than indicating it was
@@ -221,9 +442,40 @@ final class OkHttpCall<T> implements Call<T> {
     }
   }
 
+  /**
+   * The server confirmed that {@code entry} is unchanged. Refresh its expiration and return its
+   * body with the {@code 304} as the network response, like OkHttp's cache does.
+   */
+  private Response<T> revalidated(ResponseCache.Entry<T> entry, okhttp3.Response notModified) {
+    okhttp3.Response rawResponse = entry.rawResponse.newBuilder()
+        .request(notModified.request())
+        .sentRequestAtMillis(notModified.sentRequestAtMillis())
+        .receivedResponseAtMillis(notModified.receivedResponseAtMillis())
+        .networkResponse(notModified.newBuilder()
+            .body(null)
+            .networkResponse(null)
+            .cacheResponse(null)
+            .priorResponse(null)
+            .build())
+        .build();
+    if (cacheKey != null) {
+      serviceMethod.responseCache.put(cacheKey, entry.body, rawResponse, entry.etag);
+    }
+    return Response.success(entry.body, rawResponse);
+  }
+
   public void cancel() {
     canceled = true;
 
+    CallCoalescer.Flight<T> flight = this.flight;
+    if (flight != null) {
+      flight.cancel(this);
+      return;
+    }
+    if (serviceMethod.coalescer != null) {
+      return; // The raw call may be shared, so only its flight may cancel it.
+    }
+
     okhttp3.Call call;
     synchronized (this) {
       call = rawCall;
@@ -242,6 +494,37 @@ final class OkHttpCall<T> implements Call<T> {
     }
   }
 
+  private final class BlockingCallback implements Callback<T> {
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private Response<T> response;
+    private Throwable failure;
+
+    @Override public void onResponse(Call<T> call, Response<T> response) {
+      this.response = response;
+      latch.countDown();
+    }
+
+    @Override public void onFailure(Call<T> call, Throwable t) {
+      this.failure = t;
+      latch.countDown();
+    }
+
+    Response<T> await() throws IOException {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        cancel();
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for a coalesced call.");
+      }
+      if (failure == null) return response;
+      if (failure instanceof IOException) throw (IOException) failure;
+      if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+      if (failure instanceof Error) throw (Error) failure;
+      throw new RuntimeException(failure);
+    }
+  }
+
   static final class NoContentResponseBody extends ResponseBody {
     private final MediaType contentType;
     private final long contentLength;
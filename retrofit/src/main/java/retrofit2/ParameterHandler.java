@@ -82,11 +82,13 @@ abstract class ParameterHandler<T> {
 
   static final class Path<T> extends ParameterHandler<T> {
     private final String name;
+    private final int slot;
     private final Converter<T, String> valueConverter;
     private final boolean encoded;
 
-    Path(String name, Converter<T, String> valueConverter, boolean encoded) {
+    Path(String name, int slot, Converter<T, String> valueConverter, boolean encoded) {
       this.name = checkNotNull(name, "name == null");
+      this.slot = slot;
       this.valueConverter = valueConverter;
       this.encoded = encoded;
     }
@@ -96,7 +98,7 @@ abstract class ParameterHandler<T> {
         throw new IllegalArgumentException(
             "Path parameter \"" + name + "\" value must not be null.");
       }
-      builder.addPathParam(name, valueConverter.convert(value), encoded);
+      builder.addPathParam(slot, valueConverter.convert(value), encoded);
     }
   }
 
@@ -21,6 +21,7 @@ import android.os.Looper;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.concurrent.Executor;
 import javax.annotation.Nullable;
 import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
@@ -68,8 +69,17 @@ class Platform {
     throw new UnsupportedOperationException();
   }
 
+  /** True if {@code type} is a {@code java.nio.file.Path}, which only exists on Java 7+. */
+  boolean isPath(Class<?> type) {
+    return false;
+  }
+
   @IgnoreJRERequirement // Only classloaded and used on Java 8.
   static class Java8 extends Platform {
+    @Override boolean isPath(Class<?> type) {
+      return Path.class.isAssignableFrom(type);
+    }
+
     @Override boolean isDefaultMethod(Method method) {
       return method.isDefault();
     }
@@ -35,6 +35,8 @@ final class RequestBuilder {
   private final String method;
 
   private final HttpUrl baseUrl;
+  private final @Nullable UrlTemplate relativeUrlTemplate;
+  private final @Nullable String[] pathParams;
   private @Nullable String relativeUrl;
   private @Nullable HttpUrl.Builder urlBuilder;
 
@@ -46,12 +48,15 @@ final class RequestBuilder {
   private @Nullable FormBody.Builder formBuilder;
   private @Nullable RequestBody body;
 
-  RequestBuilder(String method, HttpUrl baseUrl, @Nullable String relativeUrl,
+  RequestBuilder(String method, HttpUrl baseUrl, @Nullable UrlTemplate relativeUrlTemplate,
       @Nullable Headers headers, @Nullable MediaType contentType, boolean hasBody,
       boolean isFormEncoded, boolean isMultipart) {
     this.method = method;
     this.baseUrl = baseUrl;
-    this.relativeUrl = relativeUrl;
+    this.relativeUrlTemplate = relativeUrlTemplate;
+    this.pathParams = relativeUrlTemplate != null && relativeUrlTemplate.slotCount() > 0
+        ? new String[relativeUrlTemplate.slotCount()]
+        : null;
     this.requestBuilder = new Request.Builder();
     this.contentType = contentType;
     this.hasBody = hasBody;
@@ -86,12 +91,45 @@ final class RequestBuilder {
     }
   }
 
-  void addPathParam(String name, String value, boolean encoded) {
-    if (relativeUrl == null) {
-      // The relative URL is cleared when the first query parameter is set.
+  @SuppressWarnings("ConstantConditions") // Only called when the template has this slot.
+  void addPathParam(int slot, String value, boolean encoded) {
+    if (urlBuilder != null) {
+      // The relative URL is consumed when the first query parameter is set.
       throw new AssertionError();
     }
-    relativeUrl = relativeUrl.replace("{" + name + "}", canonicalizeForPath(value, encoded));
+    // Like a textual replacement, the first value for a repeated name wins.
+    if (pathParams[slot] == null) {
+      pathParams[slot] = canonicalizeForPath(value, encoded);
+    }
+  }
+
+  /**
+   * Returns a builder for the relative URL resolved against the base URL. Where the template
+   * allows, this appends its path segments to a pre-resolved URL rather than parsing the whole
+   * relative URL.
+   */
+  private HttpUrl.Builder newUrlBuilder() {
+    HttpUrl.Builder builder = relativeUrlTemplate != null
+        ? relativeUrlTemplate.newUrlBuilder(pathParams)
+        : null;
+    if (builder == null) {
+      String relativeUrl = relativeUrl();
+      builder = baseUrl.newBuilder(relativeUrl);
+      if (builder == null) {
+        throw new IllegalArgumentException(
+            "Malformed URL. Base: " + baseUrl + ", Relative: " + relativeUrl);
+      }
+    }
+    return builder;
+  }
+
+  /** Returns the relative URL from {@code @Url} or the expanded template. */
+  private String relativeUrl() {
+    if (relativeUrl != null) return relativeUrl;
+    //noinspection ConstantConditions Exactly one of a template or @Url is present.
+    return pathParams != null
+        ? relativeUrlTemplate.expand(pathParams)
+        : relativeUrlTemplate.template;
   }
 
   private static String canonicalizeForPath(String input, boolean alreadyEncoded) {
@@ -144,14 +182,9 @@ final class RequestBuilder {
   }
 
   void addQueryParam(String name, @Nullable String value, boolean encoded) {
-    if (relativeUrl != null) {
+    if (urlBuilder == null) {
       // Do a one-time combination of the built relative URL and the base URL.
-      urlBuilder = baseUrl.newBuilder(relativeUrl);
-      if (urlBuilder == null) {
-        throw new IllegalArgumentException(
-            "Malformed URL. Base: " + baseUrl + ", Relative: " + relativeUrl);
-      }
-      relativeUrl = null;
+      urlBuilder = newUrlBuilder();
     }
 
     if (encoded) {
@@ -191,14 +224,12 @@ final class RequestBuilder {
     HttpUrl.Builder urlBuilder = this.urlBuilder;
     if (urlBuilder != null) {
       url = urlBuilder.build();
+    } else if (relativeUrlTemplate != null && relativeUrlTemplate.resolved() != null) {
+      // A fixed relative URL was resolved against the base URL once, up front.
+      url = relativeUrlTemplate.resolved();
     } else {
       // No query parameters triggered builder creation, just combine the relative URL and base URL.
-      //noinspection ConstantConditions Non-null if urlBuilder is null.
-      url = baseUrl.resolve(relativeUrl);
-      if (url == null) {
-        throw new IllegalArgumentException(
-            "Malformed URL. Base: " + baseUrl + ", Relative: " + relativeUrl);
-      }
+      url = newUrlBuilder().build();
     }
 
     RequestBody body = this.body;
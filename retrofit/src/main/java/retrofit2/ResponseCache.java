@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import okhttp3.Request;
+
+/**
+ * A least recently used cache of converted response bodies for a method annotated with
+ * {@link retrofit2.http.Cacheable @Cacheable}.
+ */
+final class ResponseCache<T> {
+  private final long ttlNanos;
+  @GuardedBy("this")
+  private final LinkedHashMap<String, Entry<T>> entries;
+
+  ResponseCache(long ttlNanos, final int maxEntries) {
+    this.ttlNanos = ttlNanos;
+    this.entries = new LinkedHashMap<String, Entry<T>>(16, 0.75f, true) {
+      @Override protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns the key under which the response to {@code request} is cached, or null if it should
+   * bypass the cache because the caller is making its own conditional request.
+   */
+  static @Nullable String key(Request request) {
+    if (request.header("If-None-Match") != null) return null;
+    return request.url() + "\n" + request.headers();
+  }
+
+  synchronized @Nullable Entry<T> get(String key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Cache {@code body} which was converted from {@code rawResponse}. The raw response must not
+   * have a readable body.
+   */
+  Entry<T> put(String key, T body, okhttp3.Response rawResponse, @Nullable String etag) {
+    Entry<T> entry = new Entry<>(body, rawResponse, etag, System.nanoTime() + ttlNanos);
+    synchronized (this) {
+      entries.put(key, entry);
+    }
+    return entry;
+  }
+
+  static final class Entry<T> {
+    final T body;
+    final okhttp3.Response rawResponse;
+    final @Nullable String etag;
+    private final long expiresAtNanos;
+
+    Entry(T body, okhttp3.Response rawResponse, @Nullable String etag, long expiresAtNanos) {
+      this.body = body;
+      this.rawResponse = rawResponse;
+      this.etag = etag;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+
+    boolean isFresh() {
+      return System.nanoTime() - expiresAtNanos < 0;
+    }
+  }
+}
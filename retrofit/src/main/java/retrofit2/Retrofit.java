@@ -15,8 +15,11 @@
  */
 package retrofit2;
 
+import java.io.File;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
@@ -24,7 +27,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
@@ -58,23 +63,35 @@ import static retrofit2.Utils.checkNotNull;
  * @author Jake Wharton (jw@squareup.com)
  */
 public final class Retrofit {
-  private final Map<Method, ServiceMethod<?, ?>> serviceMethodCache = new ConcurrentHashMap<>();
+  private static final Object NO_GENERATED_SERVICE = new Object();
+
+  /** Values are a {@link ServiceMethod} or a placeholder lock held while one is being built. */
+  private final ConcurrentMap<Method, Object> serviceMethodCache = new ConcurrentHashMap<>();
+  /** Converters and call adapters resolved from {@link Memoizable} factories. */
+  private final ConcurrentMap<FactoryKey, Object> factoryCache = new ConcurrentHashMap<>();
+  /** Values are a generated service's constructor or {@link #NO_GENERATED_SERVICE}. */
+  private final ConcurrentMap<Class<?>, Object> generatedServiceCache = new ConcurrentHashMap<>();
 
   final okhttp3.Call.Factory callFactory;
   final HttpUrl baseUrl;
   final List<Converter.Factory> converterFactories;
   final List<CallAdapter.Factory> adapterFactories;
   final @Nullable Executor callbackExecutor;
+  final @Nullable EventListener eventListener;
+  final @Nullable File downloadDirectory;
   final boolean validateEagerly;
 
   Retrofit(okhttp3.Call.Factory callFactory, HttpUrl baseUrl,
       List<Converter.Factory> converterFactories, List<CallAdapter.Factory> adapterFactories,
-      @Nullable Executor callbackExecutor, boolean validateEagerly) {
+      @Nullable Executor callbackExecutor, @Nullable EventListener eventListener,
+      @Nullable File downloadDirectory, boolean validateEagerly) {
     this.callFactory = callFactory;
     this.baseUrl = baseUrl;
     this.converterFactories = unmodifiableList(converterFactories); // Defensive copy at call site.
     this.adapterFactories = unmodifiableList(adapterFactories); // Defensive copy at call site.
     this.callbackExecutor = callbackExecutor;
+    this.eventListener = eventListener;
+    this.downloadDirectory = downloadDirectory;
     this.validateEagerly = validateEagerly;
   }
 
@@ -96,7 +113,9 @@ public final class Retrofit {
    * <p>
    * The body of a request is denoted by the {@link retrofit2.http.Body @Body} annotation. The
    * object will be converted to request representation by one of the {@link Converter.Factory}
-   * instances. A {@link RequestBody} can also be used for a raw representation.
+   * instances. A {@link RequestBody} can also be used for a raw representation. A
+   * {@link java.io.File}, {@link java.nio.channels.FileChannel}, or {@code java.nio.file.Path} is
+   * streamed as {@code application/octet-stream} with a known length instead of being buffered.
    * <p>
    * Alternative request body formats are supported by method annotations and corresponding
    * parameter annotations:
@@ -115,6 +134,10 @@ public final class Retrofit {
    * parameter of the call is the response body type and will be converted by one of the
    * {@link Converter.Factory} instances. {@link ResponseBody} can also be used for a raw
    * representation. {@link Void} can be used if you do not care about the body contents.
+   * {@link java.io.File} downloads the body into a new file in the
+   * {@linkplain Builder#downloadDirectory download directory} which is returned once it is fully
+   * written and matches the response's {@code Content-Length}. The caller owns the file and must
+   * move or delete it.
    * <p>
    * For example:
    * <pre>
@@ -123,6 +146,9 @@ public final class Retrofit {
    *   Call&lt;List&lt;Item&gt;&gt; categoryList(@Path("cat") String a, @Query("page") int b);
    * }
    * </pre>
+   * <p>
+   * If the {@code retrofit-compiler} annotation processor generated an implementation of
+   * {@code service} it will be used instead of a {@link Proxy}.
    */
   @SuppressWarnings("unchecked") // Single-interface proxy creation guarded by parameter safety.
   public <T> T create(final Class<T> service) {
@@ -130,6 +156,10 @@ public final class Retrofit {
     if (validateEagerly) {
       eagerlyValidateMethods(service);
     }
+    T generated = createGeneratedService(service);
+    if (generated != null) {
+      return generated;
+    }
     return (T) Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[] { service },
         new InvocationHandler() {
           private final Platform platform = Platform.get();
@@ -151,6 +181,46 @@ public final class Retrofit {
         });
   }
 
+  private @Nullable <T> T createGeneratedService(Class<T> service) {
+    Object cached = generatedServiceCache.get(service);
+    if (cached == null) {
+      cached = findGeneratedService(service);
+      generatedServiceCache.putIfAbsent(service, cached);
+    }
+    if (cached == NO_GENERATED_SERVICE) {
+      return null;
+    }
+    Constructor<?> constructor = (Constructor<?>) cached;
+    try {
+      return service.cast(constructor.newInstance(this));
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw new RuntimeException("Unable to create " + constructor.getDeclaringClass().getName(),
+          cause);
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new RuntimeException("Unable to create " + constructor.getDeclaringClass().getName(),
+          e);
+    }
+  }
+
+  /** Looks up the generated implementation of {@code service} once instead of on every create. */
+  private static Object findGeneratedService(Class<?> service) {
+    Class<?> implementation;
+    try {
+      implementation = Class.forName(service.getName() + GeneratedService.SUFFIX, true,
+          service.getClassLoader());
+    } catch (ClassNotFoundException ignored) {
+      return NO_GENERATED_SERVICE;
+    }
+    try {
+      return implementation.getConstructor(Retrofit.class);
+    } catch (NoSuchMethodException e) {
+      throw new RuntimeException("Unable to create " + implementation.getName(), e);
+    }
+  }
+
   private void eagerlyValidateMethods(Class<?> service) {
     Platform platform = Platform.get();
     for (Method method : service.getDeclaredMethods()) {
@@ -160,18 +230,61 @@ public final class Retrofit {
     }
   }
 
+  /**
+   * Build the configuration of every method in each of the {@code services} interfaces in parallel
+   * on {@code executor}. This resolves each method's converters and call adapters ahead of its
+   * first invocation without blocking the calling thread.
+   * <p>
+   * The returned future completes once every method has been built. Its value maps each method
+   * to the time in nanoseconds spent building it. If any method is invalid the future fails with
+   * the same exception its invocation would throw, and the remaining builds are skipped.
+   *
+   * @see Builder#validateEagerly(boolean)
+   */
+  public Future<Map<Method, Long>> warmUp(Executor executor, Class<?>... services) {
+    checkNotNull(executor, "executor == null");
+    checkNotNull(services, "services == null");
+
+    Platform platform = Platform.get();
+    List<Method> methods = new ArrayList<>();
+    for (Class<?> service : services) {
+      Utils.validateServiceInterface(service);
+      for (Method method : service.getDeclaredMethods()) {
+        if (!platform.isDefaultMethod(method)) {
+          methods.add(method);
+        }
+      }
+    }
+
+    WarmUp warmUp = new WarmUp(this, methods);
+    warmUp.start(executor);
+    return warmUp.future;
+  }
+
   ServiceMethod<?, ?> loadServiceMethod(Method method) {
-    ServiceMethod<?, ?> result = serviceMethodCache.get(method);
-    if (result != null) return result;
-
-    synchronized (serviceMethodCache) {
-      result = serviceMethodCache.get(method);
-      if (result == null) {
-        result = new ServiceMethod.Builder<>(this, method).build();
-        serviceMethodCache.put(method, result);
+    Object cached = serviceMethodCache.get(method);
+    if (cached instanceof ServiceMethod) return (ServiceMethod<?, ?>) cached;
+
+    if (cached == null) {
+      // Claim the method with a placeholder lock so that only its callers wait on the build.
+      Object lock = new Object();
+      cached = serviceMethodCache.putIfAbsent(method, lock);
+      if (cached == null) {
+        cached = lock;
+      } else if (cached instanceof ServiceMethod) {
+        return (ServiceMethod<?, ?>) cached;
       }
     }
-    return result;
+
+    synchronized (cached) {
+      Object current = serviceMethodCache.get(method);
+      if (current instanceof ServiceMethod) return (ServiceMethod<?, ?>) current;
+
+      // If this throws the placeholder remains and the next caller retries the build.
+      ServiceMethod<?, ?> result = new ServiceMethod.Builder<>(this, method).build();
+      serviceMethodCache.put(method, result);
+      return result;
+    }
   }
 
   /**
@@ -216,10 +329,23 @@ public final class Retrofit {
     checkNotNull(returnType, "returnType == null");
     checkNotNull(annotations, "annotations == null");
 
+    FactoryKey key = new FactoryKey(FactoryKey.CALL_ADAPTER, skipPast, returnType, annotations,
+        null);
+    CallAdapter<?, ?> cached = (CallAdapter<?, ?>) factoryCache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
     int start = adapterFactories.indexOf(skipPast) + 1;
+    boolean cacheable = true;
     for (int i = start, count = adapterFactories.size(); i < count; i++) {
-      CallAdapter<?, ?> adapter = adapterFactories.get(i).get(returnType, annotations, this);
+      CallAdapter.Factory factory = adapterFactories.get(i);
+      cacheable &= isMemoizable(factory);
+      CallAdapter<?, ?> adapter = factory.get(returnType, annotations, this);
       if (adapter != null) {
+        if (cacheable) {
+          factoryCache.putIfAbsent(key, adapter);
+        }
         return adapter;
       }
     }
@@ -275,12 +401,25 @@ public final class Retrofit {
     checkNotNull(parameterAnnotations, "parameterAnnotations == null");
     checkNotNull(methodAnnotations, "methodAnnotations == null");
 
+    FactoryKey key = new FactoryKey(FactoryKey.REQUEST_BODY, skipPast, type, parameterAnnotations,
+        methodAnnotations);
+    Object cached = factoryCache.get(key);
+    if (cached != null) {
+      //noinspection unchecked
+      return (Converter<T, RequestBody>) cached;
+    }
+
     int start = converterFactories.indexOf(skipPast) + 1;
+    boolean cacheable = true;
     for (int i = start, count = converterFactories.size(); i < count; i++) {
       Converter.Factory factory = converterFactories.get(i);
+      cacheable &= isMemoizable(factory);
       Converter<?, RequestBody> converter =
           factory.requestBodyConverter(type, parameterAnnotations, methodAnnotations, this);
       if (converter != null) {
+        if (cacheable) {
+          factoryCache.putIfAbsent(key, converter);
+        }
         //noinspection unchecked
         return (Converter<T, RequestBody>) converter;
       }
@@ -324,11 +463,23 @@ public final class Retrofit {
     checkNotNull(type, "type == null");
     checkNotNull(annotations, "annotations == null");
 
+    FactoryKey key = new FactoryKey(FactoryKey.RESPONSE_BODY, skipPast, type, annotations, null);
+    Object cached = factoryCache.get(key);
+    if (cached != null) {
+      //noinspection unchecked
+      return (Converter<ResponseBody, T>) cached;
+    }
+
     int start = converterFactories.indexOf(skipPast) + 1;
+    boolean cacheable = true;
     for (int i = start, count = converterFactories.size(); i < count; i++) {
-      Converter<ResponseBody, ?> converter =
-          converterFactories.get(i).responseBodyConverter(type, annotations, this);
+      Converter.Factory factory = converterFactories.get(i);
+      cacheable &= isMemoizable(factory);
+      Converter<ResponseBody, ?> converter = factory.responseBodyConverter(type, annotations, this);
       if (converter != null) {
+        if (cacheable) {
+          factoryCache.putIfAbsent(key, converter);
+        }
         //noinspection unchecked
         return (Converter<ResponseBody, T>) converter;
       }
@@ -359,18 +510,33 @@ public final class Retrofit {
     checkNotNull(type, "type == null");
     checkNotNull(annotations, "annotations == null");
 
-    for (int i = 0, count = converterFactories.size(); i < count; i++) {
-      Converter<?, String> converter =
-          converterFactories.get(i).stringConverter(type, annotations, this);
-      if (converter != null) {
-        //noinspection unchecked
-        return (Converter<T, String>) converter;
-      }
+    FactoryKey key = new FactoryKey(FactoryKey.STRING, null, type, annotations, null);
+    Object cached = factoryCache.get(key);
+    if (cached != null) {
+      //noinspection unchecked
+      return (Converter<T, String>) cached;
     }
 
-    // Nothing matched. Resort to default converter which just calls toString().
+    boolean cacheable = true;
+    Converter<?, String> converter = null;
+    for (int i = 0, count = converterFactories.size(); i < count && converter == null; i++) {
+      Converter.Factory factory = converterFactories.get(i);
+      cacheable &= isMemoizable(factory);
+      converter = factory.stringConverter(type, annotations, this);
+    }
+    if (converter == null) {
+      // Nothing matched. Resort to default converter which just calls toString().
+      converter = BuiltInConverters.ToStringConverter.INSTANCE;
+    }
+    if (cacheable) {
+      factoryCache.putIfAbsent(key, converter);
+    }
     //noinspection unchecked
-    return (Converter<T, String>) BuiltInConverters.ToStringConverter.INSTANCE;
+    return (Converter<T, String>) converter;
+  }
+
+  private static boolean isMemoizable(Object factory) {
+    return factory.getClass().isAnnotationPresent(Memoizable.class);
   }
 
   /**
@@ -381,6 +547,19 @@ public final class Retrofit {
     return callbackExecutor;
   }
 
+  /** The listener notified of the phases of each call, or null if none was installed. */
+  public @Nullable EventListener eventListener() {
+    return eventListener;
+  }
+
+  /**
+   * The directory in which {@link java.io.File} response bodies are created, or null to use the
+   * system's default temporary directory.
+   */
+  public @Nullable File downloadDirectory() {
+    return downloadDirectory;
+  }
+
   public Builder newBuilder() {
     return new Builder(this);
   }
@@ -398,6 +577,8 @@ public final class Retrofit {
     private final List<Converter.Factory> converterFactories = new ArrayList<>();
     private final List<CallAdapter.Factory> adapterFactories = new ArrayList<>();
     private @Nullable Executor callbackExecutor;
+    private @Nullable EventListener eventListener;
+    private @Nullable File downloadDirectory;
     private boolean validateEagerly;
 
     Builder(Platform platform) {
@@ -420,6 +601,8 @@ public final class Retrofit {
       // Remove the default, platform-aware call adapter added by build().
       adapterFactories.remove(adapterFactories.size() - 1);
       callbackExecutor = retrofit.callbackExecutor;
+      eventListener = retrofit.eventListener;
+      downloadDirectory = retrofit.downloadDirectory;
       validateEagerly = retrofit.validateEagerly;
     }
 
@@ -543,9 +726,33 @@ public final class Retrofit {
       return this;
     }
 
+    /**
+     * Configure a listener for the phases of every call, such as converting the request and
+     * waiting on the network. Use this to find where the time of a call is spent.
+     */
+    public Builder eventListener(EventListener eventListener) {
+      this.eventListener = checkNotNull(eventListener, "eventListener == null");
+      return this;
+    }
+
+    /**
+     * The directory in which {@link java.io.File} response bodies are created. Call adapters which
+     * need temporary files may use it as well. Defaults to the system's temporary directory, which
+     * may be small or cleared while a file is still in use.
+     * <p>
+     * Files are not deleted by Retrofit. Whoever receives one owns it and must delete it.
+     */
+    public Builder downloadDirectory(File directory) {
+      this.downloadDirectory = checkNotNull(directory, "directory == null");
+      return this;
+    }
+
     /**
      * When calling {@link #create} on the resulting {@link Retrofit} instance, eagerly validate
      * the configuration of all methods in the supplied interface.
+     * <p>
+     * Validation happens on the thread calling {@link #create}. Use {@link Retrofit#warmUp} to
+     * instead validate in the background.
      */
     public Builder validateEagerly(boolean validateEagerly) {
       this.validateEagerly = validateEagerly;
@@ -581,7 +788,7 @@ public final class Retrofit {
       List<Converter.Factory> converterFactories = new ArrayList<>(this.converterFactories);
 
       return new Retrofit(callFactory, baseUrl, converterFactories, adapterFactories,
-          callbackExecutor, validateEagerly);
+          callbackExecutor, eventListener, downloadDirectory, validateEagerly);
     }
   }
 }
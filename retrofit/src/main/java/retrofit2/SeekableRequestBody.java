@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import javax.annotation.Nullable;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import static retrofit2.Utils.checkNotNull;
+
+/**
+ * A request body whose content can be written starting at any offset. The bodies created for
+ * {@code File}, {@code FileChannel}, and {@code Path} parameters are seekable so that call adapters
+ * can send a range of them without first copying the whole body elsewhere.
+ */
+public abstract class SeekableRequestBody extends RequestBody {
+  /**
+   * Returns a body which reads {@code file} each time it is written. Its length is taken when the
+   * body is created.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static SeekableRequestBody create(@Nullable MediaType contentType, File file) {
+    checkNotNull(file, "file == null");
+    return new FileBody(contentType, file, file.length());
+  }
+
+  /**
+   * Returns a body with the content of {@code channel} from its current position to its end.
+   * Writing the body does not move the channel's position and the channel is not closed.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static SeekableRequestBody create(@Nullable MediaType contentType, FileChannel channel)
+      throws IOException {
+    checkNotNull(channel, "channel == null");
+    long position = channel.position();
+    return new FileChannelBody(contentType, channel, position, channel.size() - position);
+  }
+
+  @Override public abstract long contentLength() throws IOException;
+
+  /** Writes {@code byteCount} bytes of this body starting at {@code position} to {@code sink}. */
+  public abstract void writeTo(BufferedSink sink, long position, long byteCount)
+      throws IOException;
+
+  @Override public void writeTo(BufferedSink sink) throws IOException {
+    writeTo(sink, 0L, contentLength());
+  }
+
+  /**
+   * Writes {@code byteCount} bytes of {@code channel} starting at {@code position}. Positional
+   * transfers leave the channel's own position alone so that ranges can share the channel.
+   */
+  static void transfer(FileChannel channel, long position, long byteCount, BufferedSink sink)
+      throws IOException {
+    WritableByteChannel target = Channels.newChannel(sink.outputStream());
+    long end = position + byteCount;
+    while (position < end) {
+      long transferred = channel.transferTo(position, end - position, target);
+      // Unlike read, transferTo returns 0 rather than -1 at the end of the channel.
+      if (transferred == 0L && position >= channel.size()) {
+        throw new EOFException("Expected " + byteCount + " bytes but channel ended after "
+            + (byteCount - (end - position)) + " bytes");
+      }
+      position += transferred;
+    }
+  }
+
+  static final class FileBody extends SeekableRequestBody {
+    private final @Nullable MediaType contentType;
+    private final File file;
+    private final long contentLength;
+
+    FileBody(@Nullable MediaType contentType, File file, long contentLength) {
+      this.contentType = contentType;
+      this.file = file;
+      this.contentLength = contentLength;
+    }
+
+    @Override public @Nullable MediaType contentType() {
+      return contentType;
+    }
+
+    @Override public long contentLength() {
+      return contentLength;
+    }
+
+    @Override public void writeTo(BufferedSink sink, long position, long byteCount)
+        throws IOException {
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+      try {
+        transfer(randomAccessFile.getChannel(), position, byteCount, sink);
+      } finally {
+        randomAccessFile.close();
+      }
+    }
+  }
+
+  static final class FileChannelBody extends SeekableRequestBody {
+    private final @Nullable MediaType contentType;
+    private final FileChannel channel;
+    private final long position;
+    private final long contentLength;
+
+    FileChannelBody(@Nullable MediaType contentType, FileChannel channel, long position,
+        long contentLength) {
+      this.contentType = contentType;
+      this.channel = channel;
+      this.position = position;
+      this.contentLength = contentLength;
+    }
+
+    @Override public @Nullable MediaType contentType() {
+      return contentType;
+    }
+
+    @Override public long contentLength() {
+      return contentLength;
+    }
+
+    @Override public void writeTo(BufferedSink sink, long position, long byteCount)
+        throws IOException {
+      transfer(channel, this.position + position, byteCount, sink);
+    }
+  }
+}
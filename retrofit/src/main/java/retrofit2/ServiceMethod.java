@@ -15,15 +15,16 @@
  */
 package retrofit2;
 
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.URI;
-import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
@@ -35,6 +36,8 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.http.Body;
+import retrofit2.http.Cacheable;
+import retrofit2.http.Coalesce;
 import retrofit2.http.DELETE;
 import retrofit2.http.Field;
 import retrofit2.http.FieldMap;
@@ -55,6 +58,7 @@ import retrofit2.http.Path;
 import retrofit2.http.Query;
 import retrofit2.http.QueryMap;
 import retrofit2.http.QueryName;
+import retrofit2.http.Streaming;
 import retrofit2.http.Url;
 
 /** Adapts an invocation of an interface method into an HTTP call. */
@@ -66,11 +70,15 @@ final class ServiceMethod<R, T> {
 
   final okhttp3.Call.Factory callFactory;
   final CallAdapter<R, T> callAdapter;
+  final Method method;
+  final @Nullable EventListener eventListener;
+  final @Nullable ResponseCache<R> responseCache;
+  final @Nullable CallCoalescer<R> coalescer;
 
   private final HttpUrl baseUrl;
   private final Converter<ResponseBody, R> responseConverter;
   private final String httpMethod;
-  private final String relativeUrl;
+  private final UrlTemplate relativeUrl;
   private final Headers headers;
   private final MediaType contentType;
   private final boolean hasBody;
@@ -81,10 +89,14 @@ final class ServiceMethod<R, T> {
   ServiceMethod(Builder<R, T> builder) {
     this.callFactory = builder.retrofit.callFactory();
     this.callAdapter = builder.callAdapter;
+    this.method = builder.method;
+    this.eventListener = builder.retrofit.eventListener();
+    this.responseCache = builder.responseCache;
+    this.coalescer = builder.coalescer;
     this.baseUrl = builder.retrofit.baseUrl();
     this.responseConverter = builder.responseConverter;
     this.httpMethod = builder.httpMethod;
-    this.relativeUrl = builder.relativeUrl;
+    this.relativeUrl = builder.relativeUrlTemplate;
     this.headers = builder.headers;
     this.contentType = builder.contentType;
     this.hasBody = builder.hasBody;
@@ -145,10 +157,14 @@ final class ServiceMethod<R, T> {
     String relativeUrl;
     Headers headers;
     MediaType contentType;
-    Set<String> relativeUrlParamNames;
+    UrlTemplate relativeUrlTemplate;
     ParameterHandler<?>[] parameterHandlers;
     Converter<ResponseBody, T> responseConverter;
     CallAdapter<T, R> callAdapter;
+    Cacheable cacheable;
+    ResponseCache<T> responseCache;
+    boolean coalesce;
+    CallCoalescer<T> coalescer;
 
     Builder(Retrofit retrofit, Method method) {
       this.retrofit = retrofit;
@@ -216,6 +232,14 @@ final class ServiceMethod<R, T> {
       if (isMultipart && !gotPart) {
         throw methodError("Multipart method must contain at least one @Part.");
       }
+      if (cacheable != null) {
+        validateSharedResponse("@Cacheable");
+        responseCache = createResponseCache();
+      }
+      if (coalesce) {
+        validateSharedResponse("@Coalesce");
+        coalescer = new CallCoalescer<>();
+      }
 
       return new ServiceMethod<>(this);
     }
@@ -275,7 +299,43 @@ final class ServiceMethod<R, T> {
           throw methodError("Only one encoding annotation is allowed.");
         }
         isFormEncoded = true;
+      } else if (annotation instanceof Cacheable) {
+        cacheable = (Cacheable) annotation;
+      } else if (annotation instanceof Coalesce) {
+        coalesce = true;
+      }
+    }
+
+    /** Validate a method whose converted responses are shared between calls. */
+    private void validateSharedResponse(String annotation) {
+      if (!"GET".equals(httpMethod)) {
+        throw methodError("%s can only be used with GET. Found: %s.", annotation, httpMethod);
+      }
+      if (responseType == ResponseBody.class
+          || Utils.isAnnotationPresent(methodAnnotations, Streaming.class)) {
+        throw methodError("%s cannot be used with a streamed or raw ResponseBody.", annotation);
+      }
+      // Each of these can only be consumed once, or is deleted by whoever is done with it first.
+      Class<?> rawType = Utils.getRawType(responseType);
+      if (rawType == File.class
+          || Closeable.class.isAssignableFrom(rawType)
+          || Iterator.class.isAssignableFrom(rawType)) {
+        throw methodError("%s cannot be used with single-use response type %s.", annotation,
+            Utils.typeToString(responseType));
+      }
+    }
+
+    private ResponseCache<T> createResponseCache() {
+      long ttl = cacheable.ttl();
+      if (ttl < 0) {
+        throw methodError("@Cacheable ttl must not be negative: %s.", ttl);
       }
+      int maxEntries = cacheable.maxEntries();
+      if (maxEntries < 1) {
+        throw methodError("@Cacheable maxEntries must be positive: %s.", maxEntries);
+      }
+      long ttlNanos = cacheable.unit().toNanos(ttl);
+      return new ResponseCache<>(ttlNanos, maxEntries);
     }
 
     private void parseHttpMethodAndPath(String httpMethod, String value, boolean hasBody) {
@@ -303,7 +363,7 @@ final class ServiceMethod<R, T> {
       }
 
       this.relativeUrl = value;
-      this.relativeUrlParamNames = parsePathParameters(value);
+      this.relativeUrlTemplate = UrlTemplate.parse(retrofit.baseUrl(), value);
     }
 
     private Headers parseHeaders(String[] headers) {
@@ -396,10 +456,10 @@ final class ServiceMethod<R, T> {
 
         Path path = (Path) annotation;
         String name = path.value();
-        validatePathName(p, name);
+        int slot = validatePathName(p, name);
 
         Converter<?, String> converter = retrofit.stringConverter(type, annotations);
-        return new ParameterHandler.Path<>(name, converter, path.encoded());
+        return new ParameterHandler.Path<>(name, slot, converter, path.encoded());
 
       } else if (annotation instanceof Query) {
         Query query = (Query) annotation;
@@ -719,15 +779,18 @@ final class ServiceMethod<R, T> {
       return null; // Not a Retrofit annotation.
     }
 
-    private void validatePathName(int p, String name) {
+    /** Returns the slot of {@code name} in the relative URL template. */
+    private int validatePathName(int p, String name) {
       if (!PARAM_NAME_REGEX.matcher(name).matches()) {
         throw parameterError(p, "@Path parameter name must match %s. Found: %s",
             PARAM_URL_REGEX.pattern(), name);
       }
       // Verify URL replacement name is actually present in the URL path.
-      if (!relativeUrlParamNames.contains(name)) {
+      int slot = relativeUrlTemplate.slot(name);
+      if (slot == -1) {
         throw parameterError(p, "URL \"%s\" does not contain \"{%s}\".", relativeUrl, name);
       }
+      return slot;
     }
 
     private Converter<ResponseBody, T> createResponseConverter() {
@@ -762,19 +825,6 @@ final class ServiceMethod<R, T> {
     }
   }
 
-  /**
-   * Gets the set of unique path parameters used in the given URI. If a parameter is used twice
-   * in the URI, it will only show up once in the set.
-   */
-  static Set<String> parsePathParameters(String path) {
-    Matcher m = PARAM_URL_REGEX.matcher(path);
-    Set<String> patterns = new LinkedHashSet<>();
-    while (m.find()) {
-      patterns.add(m.group(1));
-    }
-    return patterns;
-  }
-
   static Class<?> boxIfPrimitive(Class<?> type) {
     if (boolean.class == type) return Boolean.class;
     if (byte.class == type) return Byte.class;
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import javax.annotation.Nullable;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+
+/**
+ * A request body which serializes its value each time it is written instead of holding the
+ * serialized bytes in memory. Converters create one by implementing {@link #writeTo}.
+ * <p>
+ * The value is serialized directly to the network when the call is executed rather than into
+ * memory when the call is created. It is serialized again for every write, such as a retry or a
+ * redirect, so it must not change until the call completes.
+ * <p>
+ * Unless the body is created to compute it, the length is unknown and the body is sent with
+ * chunked transfer encoding. Computing the length serializes the value an extra time without
+ * keeping the output.
+ */
+public abstract class StreamingRequestBody extends RequestBody {
+  private final @Nullable MediaType contentType;
+  private final boolean computeContentLength;
+  private long contentLength = -1L;
+
+  /**
+   * @param computeContentLength whether {@link #contentLength()} reports the length, found by
+   * writing the body once to a sink which discards it. Otherwise it is unknown.
+   */
+  protected StreamingRequestBody(@Nullable MediaType contentType, boolean computeContentLength) {
+    this.contentType = contentType;
+    this.computeContentLength = computeContentLength;
+  }
+
+  @Override public @Nullable MediaType contentType() {
+    return contentType;
+  }
+
+  @Override public long contentLength() throws IOException {
+    if (computeContentLength && contentLength == -1L) {
+      CountingSink counter = new CountingSink();
+      BufferedSink sink = Okio.buffer(counter);
+      writeTo(sink);
+      sink.flush();
+      contentLength = counter.byteCount;
+    }
+    return contentLength;
+  }
+
+  /** Counts the bytes written to it and discards them. */
+  static final class CountingSink extends ForwardingSink {
+    long byteCount;
+
+    CountingSink() {
+      super(Okio.blackhole());
+    }
+
+    @Override public void write(Buffer source, long byteCount) throws IOException {
+      this.byteCount += byteCount;
+      super.write(source, byteCount);
+    }
+  }
+}
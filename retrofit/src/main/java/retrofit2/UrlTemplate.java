@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import javax.annotation.Nullable;
+import okhttp3.HttpUrl;
+
+import static retrofit2.ServiceMethod.PARAM_URL_REGEX;
+
+/**
+ * A relative URL split at its {@code {name}} placeholders. Each distinct name is assigned a slot
+ * so that path parameters can be recorded by index and the URL assembled in a single pass.
+ * <p>
+ * Where possible the template is also resolved against the base URL up front. Templates without
+ * placeholders resolve to a fixed URL. Templates whose placeholders all follow a literal directory
+ * only need their remaining path segments appended to a pre-resolved URL on each request.
+ */
+final class UrlTemplate {
+  final String template;
+  /** The text between placeholders. Always one longer than {@link #placeholders}. */
+  private final String[] literals;
+  /** The slot filling each placeholder, in order of appearance. */
+  private final int[] placeholders;
+  /** The distinct placeholder names, indexed by slot. */
+  private final String[] names;
+
+  /** The resolved URL of a template without placeholders, or null if there are placeholders. */
+  private final @Nullable HttpUrl resolved;
+  /** The resolved literal directory that the expanded path segments are appended to. */
+  private final @Nullable HttpUrl directory;
+  /** Offset of the expanded path segments in the first literal. */
+  private final int segmentsStart;
+  /** Offset of the '?' in the last literal, or its length if there is no query. */
+  private final int segmentsEnd;
+  private final @Nullable String query;
+
+  private UrlTemplate(HttpUrl baseUrl, String template, String[] literals, int[] placeholders,
+      String[] names) {
+    this.template = template;
+    this.literals = literals;
+    this.placeholders = placeholders;
+    this.names = names;
+
+    String last = literals[literals.length - 1];
+    int question = last.indexOf('?');
+    this.segmentsEnd = question != -1 ? question : last.length();
+    this.query = question != -1 ? last.substring(question + 1) : null;
+
+    if (placeholders.length == 0) {
+      this.resolved = baseUrl.resolve(template);
+      this.directory = null;
+      this.segmentsStart = 0;
+    } else {
+      this.resolved = null;
+      this.segmentsStart = literals[0].lastIndexOf('/') + 1;
+      this.directory = isDirectoryLiteral(template, segmentsStart)
+          ? baseUrl.resolve(template.substring(0, segmentsStart))
+          : null;
+    }
+  }
+
+  /**
+   * Returns true if the first {@code length} characters of {@code template} are a directory which
+   * resolves the same way regardless of what follows. That is a non-empty path with no scheme,
+   * authority, or fragment. Other templates are resolved as text on each request.
+   */
+  private static boolean isDirectoryLiteral(String template, int length) {
+    if (length == 0 || template.startsWith("//")) return false;
+    if (template.charAt(0) <= ' ' || template.charAt(template.length() - 1) <= ' ') return false;
+    if (template.indexOf('\\') != -1 || template.indexOf('#') != -1) return false;
+    // A colon in the first segment of a relative path would be parsed as a scheme.
+    int firstSlash = template.indexOf('/');
+    return template.lastIndexOf(':', firstSlash) == -1;
+  }
+
+  static UrlTemplate parse(HttpUrl baseUrl, String template) {
+    List<String> literals = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    List<Integer> placeholders = new ArrayList<>();
+
+    Matcher m = PARAM_URL_REGEX.matcher(template);
+    int literalStart = 0;
+    while (m.find()) {
+      literals.add(template.substring(literalStart, m.start()));
+      String name = m.group(1);
+      int slot = names.indexOf(name);
+      if (slot == -1) {
+        slot = names.size();
+        names.add(name);
+      }
+      placeholders.add(slot);
+      literalStart = m.end();
+    }
+    literals.add(template.substring(literalStart));
+
+    int[] placeholderArray = new int[placeholders.size()];
+    for (int i = 0; i < placeholderArray.length; i++) {
+      placeholderArray[i] = placeholders.get(i);
+    }
+    return new UrlTemplate(baseUrl, template, literals.toArray(new String[literals.size()]),
+        placeholderArray, names.toArray(new String[names.size()]));
+  }
+
+  /** Returns the number of distinct placeholder names. */
+  int slotCount() {
+    return names.length;
+  }
+
+  /** Returns the slot for {@code name}, or -1 if the template has no such placeholder. */
+  int slot(String name) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(name)) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the template with each placeholder replaced by the value in its slot. Placeholders
+   * whose slot is null are left as-is.
+   */
+  String expand(String[] values) {
+    if (placeholders.length == 0) return template;
+    return expand(values, 0, literals[placeholders.length].length());
+  }
+
+  private String expand(String[] values, int start, int end) {
+    StringBuilder result = new StringBuilder(template.length() + 16 * placeholders.length);
+    for (int i = 0; i < placeholders.length; i++) {
+      String literal = literals[i];
+      result.append(literal, i == 0 ? start : 0, literal.length());
+      int slot = placeholders[i];
+      String value = values[slot];
+      if (value != null) {
+        result.append(value);
+      } else {
+        result.append('{').append(names[slot]).append('}');
+      }
+    }
+    return result.append(literals[placeholders.length], 0, end).toString();
+  }
+
+  /**
+   * Returns the resolved URL without re-parsing the template, or null if the template has
+   * placeholders or does not resolve against the base URL.
+   */
+  @Nullable HttpUrl resolved() {
+    return resolved;
+  }
+
+  /**
+   * Returns a builder for the template resolved against the base URL with {@code values} in its
+   * slots, or null if the expanded template must instead be resolved as text.
+   */
+  @Nullable HttpUrl.Builder newUrlBuilder(@Nullable String[] values) {
+    if (resolved != null) return resolved.newBuilder();
+    if (directory == null) return null;
+
+    //noinspection ConstantConditions A template with a directory has placeholders.
+    String segments = expand(values, segmentsStart, segmentsEnd);
+    if (segmentsStart == 1 && segments.startsWith("/")) {
+      // A leading "//" would be resolved as a host.
+      return null;
+    }
+    if (segments.indexOf('?') != -1 || segments.indexOf('#') != -1) {
+      // Only text resolution splits a value's query or fragment out of the path.
+      return null;
+    }
+    HttpUrl.Builder builder = directory.newBuilder().addEncodedPathSegments(segments);
+    if (query != null) {
+      builder.encodedQuery(query);
+    }
+    return builder;
+  }
+
+  @Override public String toString() {
+    return template;
+  }
+}
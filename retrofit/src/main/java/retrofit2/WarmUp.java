@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Builds the service methods for a list of methods concurrently. The future completes once every
+ * build has finished, either with the build time of each method or with the first failure.
+ */
+final class WarmUp implements Callable<Map<Method, Long>> {
+  private final Retrofit retrofit;
+  private final List<Method> methods;
+  private final long[] durations;
+  private final AtomicInteger remaining;
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  final FutureTask<Map<Method, Long>> future = new FutureTask<>(this);
+
+  WarmUp(Retrofit retrofit, List<Method> methods) {
+    this.retrofit = retrofit;
+    this.methods = methods;
+    this.durations = new long[methods.size()];
+    this.remaining = new AtomicInteger(methods.size());
+  }
+
+  void start(Executor executor) {
+    int count = methods.size();
+    if (count == 0) {
+      future.run();
+      return;
+    }
+    for (int i = 0; i < count; i++) {
+      final int index = i;
+      try {
+        executor.execute(new Runnable() {
+          @Override public void run() {
+            build(index);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        failure.compareAndSet(null, e);
+        // Account for this method and every one which will not be submitted.
+        for (int j = i; j < count; j++) {
+          finished();
+        }
+        return;
+      }
+    }
+  }
+
+  void build(int index) {
+    try {
+      if (!future.isCancelled() && failure.get() == null) {
+        long start = System.nanoTime();
+        retrofit.loadServiceMethod(methods.get(index));
+        durations[index] = System.nanoTime() - start;
+      }
+    } catch (Throwable t) {
+      failure.compareAndSet(null, t);
+    } finally {
+      finished();
+    }
+  }
+
+  private void finished() {
+    // The decrement publishes each build's duration to the thread completing the future.
+    if (remaining.decrementAndGet() == 0) {
+      future.run();
+    }
+  }
+
+  @Override public Map<Method, Long> call() throws Exception {
+    Throwable t = failure.get();
+    if (t instanceof Exception) throw (Exception) t;
+    if (t instanceof Error) throw (Error) t;
+
+    Map<Method, Long> result = new LinkedHashMap<>();
+    for (int i = 0, count = methods.size(); i < count; i++) {
+      result.put(methods.get(i), durations[i]);
+    }
+    return unmodifiableMap(result);
+  }
+}
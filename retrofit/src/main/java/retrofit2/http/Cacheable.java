@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Keep the converted bodies of successful responses in memory, keyed by the request URL and
+ * headers. A cached body is returned without contacting the server for {@link #ttl()}. After
+ * that the request is revalidated with {@code If-None-Match} when the response had an
+ * {@code ETag}, and a {@code 304 Not Modified} returns the cached body without converting again.
+ * <pre><code>
+ * &#64;Cacheable(ttl = 5, unit = MINUTES)
+ * &#64;GET("users/{user}")
+ * Call&lt;User&gt; user(@Path("user") String user);
+ * </code></pre>
+ * Only {@link GET} methods can be cached. Cached bodies are shared by every call which hits the
+ * cache so they should not be mutated.
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Cacheable {
+  /** How long a cached body is used before it must be revalidated. Zero always revalidates. */
+  long ttl();
+
+  TimeUnit unit() default TimeUnit.SECONDS;
+
+  /** The number of responses kept. The least recently used one is evicted first. */
+  int maxEntries() default 64;
+}
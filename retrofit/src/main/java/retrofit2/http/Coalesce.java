@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Share one HTTP exchange between identical calls which are in flight at the same time. Calls
+ * are identical when their requests have the same URL and headers. Every call receives the same
+ * converted body, so it should not be mutated.
+ * <pre><code>
+ * &#64;Coalesce
+ * &#64;GET("users/{user}")
+ * Call&lt;User&gt; user(@Path("user") String user);
+ * </code></pre>
+ * Canceling one call only fails that call. The exchange is canceled once every call waiting for
+ * it has been canceled. Coalesced calls are always sent asynchronously, and their response
+ * conversion is reported to an {@link retrofit2.EventListener} as part of the network phase.
+ * <p>
+ * Only {@link GET} methods can be coalesced.
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Coalesce {
+}
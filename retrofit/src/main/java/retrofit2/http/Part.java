@@ -26,13 +26,16 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 /**
  * Denotes a single part of a multi-part request.
  * <p>
- * The parameter type on which this annotation exists will be processed in one of three ways:
+ * The parameter type on which this annotation exists will be processed in one of four ways:
  * <ul>
  * <li>If the type is {@link okhttp3.MultipartBody.Part} the contents will be used directly. Omit
  * the name from the annotation (i.e., {@code @Part MultipartBody.Part part}).</li>
  * <li>If the type is {@link okhttp3.RequestBody RequestBody} the value will be used
  * directly with its content type. Supply the part name in the annotation (e.g.,
  * {@code @Part("foo") RequestBody foo}).</li>
+ * <li>If the type is {@link java.io.File File}, {@link java.nio.channels.FileChannel FileChannel},
+ * or {@code java.nio.file.Path} the contents will be streamed as
+ * {@code application/octet-stream}. Supply the part name in the annotation.</li>
  * <li>Other object types will be converted to an appropriate representation by using
  * {@linkplain Converter a converter}. Supply the part name in the annotation (e.g.,
  * {@code @Part("foo") Image photo}).</li>
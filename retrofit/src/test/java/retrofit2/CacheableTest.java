@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.BufferedSource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.helpers.SingleUseConverterFactory;
+import retrofit2.helpers.ToStringConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.Cacheable;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.POST;
+import retrofit2.http.Path;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class CacheableTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @Cacheable(ttl = 1, unit = HOURS)
+    @GET("/{path}") Call<String> fresh(@Path("path") String path);
+
+    @Cacheable(ttl = 0)
+    @GET("/") Call<String> revalidate();
+
+    @Cacheable(ttl = 0)
+    @GET("/") Call<String> revalidate(@Header("If-None-Match") String etag);
+
+    @Cacheable(ttl = 1, unit = HOURS, maxEntries = 1)
+    @GET("/{path}") Call<String> single(@Path("path") String path);
+  }
+
+  interface InvalidService {
+    @Cacheable(ttl = 1)
+    @POST("/") Call<String> post(@Body String body);
+
+    @Cacheable(ttl = 1)
+    @GET("/") Call<ResponseBody> body();
+
+    @Cacheable(ttl = -1)
+    @GET("/") Call<String> negativeTtl();
+  }
+
+  interface SingleUseService {
+    @Cacheable(ttl = 1)
+    @GET("/") Call<InputStream> inputStream();
+
+    @Cacheable(ttl = 1)
+    @GET("/") Call<BufferedSource> source();
+
+    @Cacheable(ttl = 1)
+    @GET("/") Call<File> file();
+
+    @Cacheable(ttl = 1)
+    @GET("/") Call<Iterator<String>> lines();
+  }
+
+  private Retrofit retrofit;
+  private Service service;
+
+  @Before public void setUp() {
+    retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void freshResponseIsServedWithoutNetwork() throws IOException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    String first = service.fresh("a").execute().body();
+    Response<String> second = service.fresh("a").execute();
+    assertThat(second.body()).isSameAs(first);
+    assertThat(second.isSuccessful()).isTrue();
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test public void freshResponseIsServedAsync() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+    String first = service.fresh("a").execute().body();
+
+    final AtomicReference<Response<String>> responseRef = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    service.fresh("a").enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        responseRef.set(response);
+        latch.countDown();
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        t.printStackTrace();
+      }
+    });
+    assertTrue(latch.await(10, SECONDS));
+
+    assertThat(responseRef.get().body()).isSameAs(first);
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test public void requestsAreKeyedByUrl() throws IOException {
+    server.enqueue(new MockResponse().setBody("A"));
+    server.enqueue(new MockResponse().setBody("B"));
+
+    assertThat(service.fresh("a").execute().body()).isEqualTo("A");
+    assertThat(service.fresh("b").execute().body()).isEqualTo("B");
+    assertThat(service.fresh("a").execute().body()).isEqualTo("A");
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test public void notModifiedReturnsCachedBody() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("Hi"));
+    server.enqueue(new MockResponse().setResponseCode(304));
+
+    String first = service.revalidate().execute().body();
+    Response<String> second = service.revalidate().execute();
+    assertThat(second.isSuccessful()).isTrue();
+    assertThat(second.body()).isSameAs(first);
+    assertThat(second.raw().networkResponse().code()).isEqualTo(304);
+
+    assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+    assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v1\"");
+  }
+
+  @Test public void modifiedResponseReplacesCachedBody() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("Hi"));
+    server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody("Hello"));
+    server.enqueue(new MockResponse().setResponseCode(304));
+
+    assertThat(service.revalidate().execute().body()).isEqualTo("Hi");
+    assertThat(service.revalidate().execute().body()).isEqualTo("Hello");
+    assertThat(service.revalidate().execute().body()).isEqualTo("Hello");
+
+    server.takeRequest();
+    assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v1\"");
+    assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v2\"");
+  }
+
+  @Test public void staleResponseWithoutEtagIsFetchedAgain()
+      throws IOException, InterruptedException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+    server.enqueue(new MockResponse().setBody("Hello"));
+
+    assertThat(service.revalidate().execute().body()).isEqualTo("Hi");
+    assertThat(service.revalidate().execute().body()).isEqualTo("Hello");
+
+    server.takeRequest();
+    assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+  }
+
+  @Test public void callerConditionalRequestBypassesCache() throws IOException {
+    server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("Hi"));
+    server.enqueue(new MockResponse().setResponseCode(304));
+
+    assertThat(service.revalidate().execute().body()).isEqualTo("Hi");
+    Response<String> response = service.revalidate("\"v1\"").execute();
+    assertThat(response.code()).isEqualTo(304);
+    assertThat(response.isSuccessful()).isFalse();
+  }
+
+  @Test public void noStoreIsNotCached() throws IOException {
+    server.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("Hi"));
+    server.enqueue(new MockResponse().setBody("Hello"));
+
+    assertThat(service.fresh("a").execute().body()).isEqualTo("Hi");
+    assertThat(service.fresh("a").execute().body()).isEqualTo("Hello");
+  }
+
+  @Test public void errorsAreNotCached() throws IOException {
+    server.enqueue(new MockResponse().setResponseCode(500).setBody("Oops"));
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    assertThat(service.fresh("a").execute().isSuccessful()).isFalse();
+    assertThat(service.fresh("a").execute().body()).isEqualTo("Hi");
+  }
+
+  @Test public void leastRecentlyUsedIsEvicted() throws IOException {
+    server.enqueue(new MockResponse().setBody("A"));
+    server.enqueue(new MockResponse().setBody("B"));
+    server.enqueue(new MockResponse().setBody("A2"));
+
+    assertThat(service.single("a").execute().body()).isEqualTo("A");
+    assertThat(service.single("b").execute().body()).isEqualTo("B");
+    assertThat(service.single("b").execute().body()).isEqualTo("B");
+    assertThat(service.single("a").execute().body()).isEqualTo("A2");
+    assertThat(server.getRequestCount()).isEqualTo(3);
+  }
+
+  @Test public void cacheableRequiresGet() {
+    InvalidService invalid = retrofit.create(InvalidService.class);
+    try {
+      invalid.post("Hi");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Cacheable can only be used with GET. Found: POST.\n"
+          + "    for method InvalidService.post");
+    }
+  }
+
+  @Test public void cacheableRejectsResponseBody() {
+    InvalidService invalid = retrofit.create(InvalidService.class);
+    try {
+      invalid.body();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Cacheable cannot be used with a streamed or raw ResponseBody.\n"
+          + "    for method InvalidService.body");
+    }
+  }
+
+  @Test public void cacheableRejectsNegativeTtl() {
+    InvalidService invalid = retrofit.create(InvalidService.class);
+    try {
+      invalid.negativeTtl();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Cacheable ttl must not be negative: -1.\n"
+          + "    for method InvalidService.negativeTtl");
+    }
+  }
+
+  @Test public void cacheableRejectsInputStream() {
+    SingleUseService invalid = singleUseService();
+    try {
+      invalid.inputStream();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Cacheable cannot be used with single-use response type "
+          + "java.io.InputStream.\n"
+          + "    for method SingleUseService.inputStream");
+    }
+  }
+
+  @Test public void cacheableRejectsSource() {
+    SingleUseService invalid = singleUseService();
+    try {
+      invalid.source();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Cacheable cannot be used with single-use response type "
+          + "okio.BufferedSource.\n"
+          + "    for method SingleUseService.source");
+    }
+  }
+
+  @Test public void cacheableRejectsFile() {
+    SingleUseService invalid = singleUseService();
+    try {
+      invalid.file();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Cacheable cannot be used with single-use response type "
+          + "java.io.File.\n"
+          + "    for method SingleUseService.file");
+    }
+  }
+
+  @Test public void cacheableRejectsLines() {
+    SingleUseService invalid = singleUseService();
+    try {
+      invalid.lines();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Cacheable cannot be used with single-use response type "
+          + "java.util.Iterator<java.lang.String>.\n"
+          + "    for method SingleUseService.lines");
+    }
+  }
+
+  private SingleUseService singleUseService() {
+    return new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new SingleUseConverterFactory())
+        .build()
+        .create(SingleUseService.class);
+  }
+}
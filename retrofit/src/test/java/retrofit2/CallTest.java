@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import okhttp3.Interceptor;
@@ -34,6 +35,7 @@ import okio.ForwardingSource;
 import okio.Okio;
 import org.junit.Rule;
 import org.junit.Test;
+import retrofit2.helpers.RecordingEventListener;
 import retrofit2.helpers.ToStringConverterFactory;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
@@ -41,6 +43,7 @@ import retrofit2.http.POST;
 import retrofit2.http.Path;
 import retrofit2.http.Streaming;
 
+import static java.util.Arrays.asList;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static okhttp3.mockwebserver.SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -978,4 +981,135 @@ public final class CallTest {
     }
     assertThat(writeCount.get()).isEqualTo(1);
   }
+
+  @Test public void eventsSync() throws Exception {
+    RecordingEventListener listener = new RecordingEventListener();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .eventListener(listener)
+        .build();
+    Service example = retrofit.create(Service.class);
+
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    assertThat(example.postString("Hey").execute().body()).isEqualTo("Hi");
+    assertThat(listener.awaitEvents()).isEqualTo(asList("callStart", "requestConversionStart",
+        "requestConversionEnd", "networkStart", "networkEnd", "responseConversionStart",
+        "responseConversionEnd", "callEnd"));
+    assertThat(listener.method).isEqualTo(Service.class.getMethod("postString", String.class));
+  }
+
+  @Test public void eventsSyncFailure() throws Exception {
+    RecordingEventListener listener = new RecordingEventListener();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .eventListener(listener)
+        .build();
+    Service example = retrofit.create(Service.class);
+
+    server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+    try {
+      example.getString().execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(listener.failure).isSameAs(e);
+    }
+    assertThat(listener.awaitEvents()).isEqualTo(asList("callStart", "requestConversionStart",
+        "requestConversionEnd", "networkStart", "callFailed"));
+  }
+
+  @Test public void eventsAsync() throws Exception {
+    RecordingEventListener listener = new RecordingEventListener();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .eventListener(listener)
+        .build();
+    Service example = retrofit.create(Service.class);
+
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    example.getString().enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+      }
+    });
+    assertThat(listener.awaitEvents()).isEqualTo(asList("callStart", "requestConversionStart",
+        "requestConversionEnd", "networkStart", "networkEnd", "responseConversionStart",
+        "responseConversionEnd", "callbackStart", "callbackEnd", "callEnd"));
+  }
+
+  @Test public void eventsAsyncCallbackExecutor() throws Exception {
+    RecordingEventListener listener = new RecordingEventListener();
+    final AtomicInteger executions = new AtomicInteger();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .callbackExecutor(new Executor() {
+          @Override public void execute(Runnable command) {
+            executions.incrementAndGet();
+            command.run();
+          }
+        })
+        .eventListener(listener)
+        .build();
+    Service example = retrofit.create(Service.class);
+
+    server.enqueue(new MockResponse().setResponseCode(404).setBody("Hi"));
+
+    example.getString().enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+      }
+    });
+    assertThat(listener.awaitEvents()).isEqualTo(asList("callStart", "requestConversionStart",
+        "requestConversionEnd", "networkStart", "networkEnd", "responseConversionStart",
+        "responseConversionEnd", "callbackStart", "callbackEnd", "callEnd"));
+    assertThat(executions.get()).isEqualTo(1);
+  }
+
+  @Test public void eventsAsyncCallbackExecutorCallbackThrows() throws Exception {
+    RecordingEventListener listener = new RecordingEventListener();
+    final AtomicReference<Throwable> thrown = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .callbackExecutor(new Executor() {
+          @Override public void execute(Runnable command) {
+            try {
+              command.run();
+            } catch (RuntimeException e) {
+              thrown.set(e);
+              latch.countDown();
+            }
+          }
+        })
+        .eventListener(listener)
+        .build();
+    Service example = retrofit.create(Service.class);
+
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    example.getString().enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        throw new RuntimeException("Broken!");
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+      }
+    });
+    assertThat(listener.awaitEvents()).isEqualTo(asList("callStart", "requestConversionStart",
+        "requestConversionEnd", "networkStart", "networkEnd", "responseConversionStart",
+        "responseConversionEnd", "callbackStart", "callbackEnd", "callEnd"));
+    assertTrue(latch.await(10, SECONDS));
+    assertThat(thrown.get()).hasMessage("Broken!");
+  }
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.BufferedSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.helpers.SingleUseConverterFactory;
+import retrofit2.helpers.ToStringConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.Coalesce;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+import retrofit2.http.Path;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class CoalesceTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @Coalesce
+    @GET("/{path}") Call<String> get(@Path("path") String path);
+
+    @Coalesce
+    @POST("/") Call<String> post(@Body String body);
+  }
+
+  interface SingleUseService {
+    @Coalesce
+    @GET("/") Call<InputStream> inputStream();
+
+    @Coalesce
+    @GET("/") Call<BufferedSource> source();
+
+    @Coalesce
+    @GET("/") Call<File> file();
+
+    @Coalesce
+    @GET("/") Call<Iterator<String>> lines();
+  }
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private Service service;
+
+  @Before public void setUp() {
+    server.setDispatcher(new Dispatcher() {
+      @Override public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        release.await();
+        if (request.getPath().equals("/error")) {
+          return new MockResponse().setResponseCode(500).setBody("Oops");
+        }
+        return new MockResponse().setBody("Hi");
+      }
+    });
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @After public void tearDown() {
+    release.countDown();
+  }
+
+  @Test public void concurrentCallsShareOneExchange() throws Exception {
+    RecordingCallback first = new RecordingCallback();
+    service.get("a").enqueue(first);
+    server.takeRequest();
+
+    RecordingCallback second = new RecordingCallback();
+    service.get("a").enqueue(second);
+    release.countDown();
+
+    assertThat(first.awaitResponse().body()).isEqualTo("Hi");
+    assertThat(second.awaitResponse().body()).isSameAs(first.response.get().body());
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test public void executeSharesEnqueuedExchange() throws Exception {
+    RecordingCallback first = new RecordingCallback();
+    service.get("a").enqueue(first);
+    server.takeRequest();
+
+    final AtomicReference<Response<String>> second = new AtomicReference<>();
+    Thread thread = new Thread() {
+      @Override public void run() {
+        try {
+          second.set(service.get("a").execute());
+        } catch (IOException e) {
+          throw new AssertionError(e);
+        }
+      }
+    };
+    thread.start();
+    Thread.sleep(100); // Give the executing thread time to join.
+    release.countDown();
+    thread.join(10_000);
+
+    assertThat(second.get().body()).isSameAs(first.awaitResponse().body());
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test public void differentRequestsAreNotShared() throws Exception {
+    RecordingCallback first = new RecordingCallback();
+    service.get("a").enqueue(first);
+    server.takeRequest();
+
+    RecordingCallback second = new RecordingCallback();
+    service.get("b").enqueue(second);
+    release.countDown();
+
+    assertThat(first.awaitResponse().body()).isEqualTo("Hi");
+    assertThat(second.awaitResponse().body()).isEqualTo("Hi");
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test public void completedExchangeIsNotShared() throws IOException {
+    release.countDown();
+    String first = service.get("a").execute().body();
+    String second = service.get("a").execute().body();
+    assertThat(second).isNotSameAs(first);
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test public void cancelingOneCallLeavesOthersWaiting() throws Exception {
+    RecordingCallback first = new RecordingCallback();
+    Call<String> firstCall = service.get("a");
+    firstCall.enqueue(first);
+    server.takeRequest();
+
+    RecordingCallback second = new RecordingCallback();
+    service.get("a").enqueue(second);
+
+    firstCall.cancel();
+    assertThat(firstCall.isCanceled()).isTrue();
+    assertThat(first.awaitFailure()).isInstanceOf(IOException.class).hasMessage("Canceled");
+
+    release.countDown();
+    assertThat(second.awaitResponse().body()).isEqualTo("Hi");
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test public void cancelingEveryCallCancelsExchange() throws Exception {
+    RecordingCallback first = new RecordingCallback();
+    Call<String> firstCall = service.get("a");
+    firstCall.enqueue(first);
+    server.takeRequest();
+
+    RecordingCallback second = new RecordingCallback();
+    Call<String> secondCall = service.get("a");
+    secondCall.enqueue(second);
+
+    secondCall.cancel();
+    firstCall.cancel();
+    assertThat(first.awaitFailure()).hasMessage("Canceled");
+    assertThat(second.awaitFailure()).hasMessage("Canceled");
+
+    // A canceled exchange is not joined by later calls.
+    RecordingCallback third = new RecordingCallback();
+    service.get("a").enqueue(third);
+    server.takeRequest();
+    release.countDown();
+    assertThat(third.awaitResponse().body()).isEqualTo("Hi");
+  }
+
+  @Test public void cancelBeforeEnqueue() throws Exception {
+    RecordingCallback callback = new RecordingCallback();
+    Call<String> call = service.get("a");
+    call.cancel();
+    call.enqueue(callback);
+    assertThat(callback.awaitFailure()).hasMessage("Canceled");
+    assertThat(server.getRequestCount()).isEqualTo(0);
+  }
+
+  @Test public void eachCallReadsItsOwnErrorBody() throws Exception {
+    RecordingCallback first = new RecordingCallback();
+    service.get("error").enqueue(first);
+    server.takeRequest();
+
+    RecordingCallback second = new RecordingCallback();
+    service.get("error").enqueue(second);
+    release.countDown();
+
+    assertThat(first.awaitResponse().errorBody().string()).isEqualTo("Oops");
+    assertThat(second.awaitResponse().errorBody().string()).isEqualTo("Oops");
+  }
+
+  @Test public void coalesceRequiresGet() {
+    try {
+      service.post("Hi");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Coalesce can only be used with GET. Found: POST.\n"
+          + "    for method Service.post");
+    }
+  }
+
+  static final class RecordingCallback implements Callback<String> {
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicReference<Response<String>> response = new AtomicReference<>();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    @Override public void onResponse(Call<String> call, Response<String> response) {
+      this.response.set(response);
+      latch.countDown();
+    }
+
+    @Override public void onFailure(Call<String> call, Throwable t) {
+      failure.set(t);
+      latch.countDown();
+    }
+
+    Response<String> awaitResponse() throws InterruptedException {
+      assertTrue(latch.await(10, SECONDS));
+      assertThat(failure.get()).isNull();
+      return response.get();
+    }
+
+    Throwable awaitFailure() throws InterruptedException {
+      assertTrue(latch.await(10, SECONDS));
+      return failure.get();
+    }
+  }
+
+  @Test public void coalesceRejectsInputStream() {
+    SingleUseService invalid = singleUseService();
+    try {
+      invalid.inputStream();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Coalesce cannot be used with single-use response type "
+          + "java.io.InputStream.\n"
+          + "    for method SingleUseService.inputStream");
+    }
+  }
+
+  @Test public void coalesceRejectsSource() {
+    SingleUseService invalid = singleUseService();
+    try {
+      invalid.source();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Coalesce cannot be used with single-use response type "
+          + "okio.BufferedSource.\n"
+          + "    for method SingleUseService.source");
+    }
+  }
+
+  @Test public void coalesceRejectsFile() {
+    SingleUseService invalid = singleUseService();
+    try {
+      invalid.file();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Coalesce cannot be used with single-use response type "
+          + "java.io.File.\n"
+          + "    for method SingleUseService.file");
+    }
+  }
+
+  @Test public void coalesceRejectsLines() {
+    SingleUseService invalid = singleUseService();
+    try {
+      invalid.lines();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Coalesce cannot be used with single-use response type "
+          + "java.util.Iterator<java.lang.String>.\n"
+          + "    for method SingleUseService.lines");
+    }
+  }
+
+  private SingleUseService singleUseService() {
+    return new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new SingleUseConverterFactory())
+        .build()
+        .create(SingleUseService.class);
+  }
+}
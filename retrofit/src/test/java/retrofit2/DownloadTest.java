@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class DownloadTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  interface Service {
+    @Streaming
+    @GET("/") Call<File> download();
+  }
+
+  private Service service;
+
+  @Before public void setUp() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void bodyIsWrittenToFile() throws IOException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    File file = service.download().execute().body();
+    try {
+      assertThat(Okio.buffer(Okio.source(file)).readUtf8()).isEqualTo("Hi");
+    } finally {
+      assertThat(file.delete()).isTrue();
+    }
+  }
+
+  @Test public void chunkedBodyIsWrittenToFile() throws IOException {
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      expected.append("Hello, ");
+    }
+    server.enqueue(new MockResponse().setChunkedBody(expected.toString(), 1024));
+
+    File file = service.download().execute().body();
+    try {
+      assertThat(file.length()).isEqualTo(expected.length());
+      assertThat(Okio.buffer(Okio.source(file)).readUtf8()).isEqualTo(expected.toString());
+    } finally {
+      assertThat(file.delete()).isTrue();
+    }
+  }
+
+  @Test public void bodyIsWrittenToDownloadDirectory() throws IOException {
+    File directory = temporaryFolder.newFolder();
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .downloadDirectory(directory)
+        .build()
+        .create(Service.class);
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    File file = service.download().execute().body();
+    assertThat(file.getParentFile()).isEqualTo(directory);
+    assertThat(Okio.buffer(Okio.source(file)).readUtf8()).isEqualTo("Hi");
+  }
+
+  @Test public void errorBodyIsNotWrittenToFile() throws IOException {
+    server.enqueue(new MockResponse().setResponseCode(404).setBody("Nope"));
+
+    Response<File> response = service.download().execute();
+    assertThat(response.body()).isNull();
+    assertThat(response.errorBody().string()).isEqualTo("Nope");
+  }
+
+  @Test public void lengthMismatchFails() throws IOException {
+    ResponseBody body =
+        ResponseBody.create(MediaType.parse("text/plain"), 10, new Buffer().writeUtf8("Hi"));
+    try {
+      new BuiltInConverters.FileResponseBodyConverter(null).convert(body);
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Expected 10 bytes but received 2 bytes");
+    }
+  }
+}
@@ -853,6 +853,34 @@ public final class RequestBuilderTest {
     assertThat(request.body()).isNull();
   }
 
+  @Test public void getWithEncodedPathParamContainingQuestionMark() {
+    class Example {
+      @GET("/foo/bar/{ping}") //
+      Call<ResponseBody> method(@Path(value = "ping", encoded = true) String ping) {
+        return null;
+      }
+    }
+    Request request = buildRequest(Example.class, "a?b=c");
+    assertThat(request.method()).isEqualTo("GET");
+    assertThat(request.headers().size()).isZero();
+    assertThat(request.url().toString()).isEqualTo("http://example.com/foo/bar/a%3Fb=c");
+    assertThat(request.body()).isNull();
+  }
+
+  @Test public void getWithEncodedPathParamContainingHash() {
+    class Example {
+      @GET("/foo/bar/{ping}") //
+      Call<ResponseBody> method(@Path(value = "ping", encoded = true) String ping) {
+        return null;
+      }
+    }
+    Request request = buildRequest(Example.class, "a#frag");
+    assertThat(request.method()).isEqualTo("GET");
+    assertThat(request.headers().size()).isZero();
+    assertThat(request.url().toString()).isEqualTo("http://example.com/foo/bar/a%23frag");
+    assertThat(request.body()).isNull();
+  }
+
   @Test public void getWithUnencodedPathSegmentsPreventsRequestSplitting() {
     class Example {
       @GET("/foo/bar/{ping}/") //
@@ -15,16 +15,20 @@
  */
 package retrofit2;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Retention;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -46,6 +50,7 @@ import retrofit2.helpers.NonMatchingCallAdapterFactory;
 import retrofit2.helpers.NonMatchingConverterFactory;
 import retrofit2.helpers.ToStringConverterFactory;
 import retrofit2.http.Body;
+import retrofit2.http.Cacheable;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Query;
@@ -113,9 +118,36 @@ public final class RetrofitTest {
     @Retention(RUNTIME)
     @interface Foo {}
   }
+  interface Memoized {
+    @GET("/a") Call<String> first(@Query("a") String a);
+    @GET("/b") Call<String> second(@Query("b") String b);
+    @GET("/c") @Annotated.Foo Call<String> annotated(@Annotated.Foo @Query("c") String c);
+    @GET("/d") @Cacheable(ttl = 1) Call<String> cacheable(@Query("d") String d);
+  }
+  @Memoizable
+  static final class MemoizableToStringConverterFactory extends ToStringConverterFactory {
+  }
   interface MutableParameters {
     @GET("/") Call<String> method(@Query("i") AtomicInteger value);
   }
+  interface Generated {
+    @GET("/") Call<ResponseBody> get(@Query("foo") String foo);
+  }
+  /** Mirrors the output of the annotation processor for {@link Generated}. */
+  static final class Generated_RetrofitImpl extends GeneratedService implements Generated {
+    private static final java.lang.reflect.Method[] METHODS = {
+        method(Generated.class, "get", String.class),
+    };
+
+    public Generated_RetrofitImpl(Retrofit retrofit) {
+      super(retrofit, METHODS);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override public Call<ResponseBody> get(String foo) {
+      return (Call<ResponseBody>) invoke(0, new Object[] { foo });
+    }
+  }
 
   @SuppressWarnings("EqualsBetweenInconvertibleTypes") // We are explicitly testing this behavior.
   @Test public void objectMethodsStillWork() {
@@ -250,6 +282,114 @@ public final class RetrofitTest {
     }
   }
 
+  @Test public void generatedImplementationUsedWhenPresent() throws Exception {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build();
+    Generated example = retrofit.create(Generated.class);
+    assertThat(example).isInstanceOf(Generated_RetrofitImpl.class);
+
+    server.enqueue(new MockResponse().setBody("Hi"));
+    Response<ResponseBody> response = example.get("bar").execute();
+    assertThat(response.body().string()).isEqualTo("Hi");
+    assertThat(server.takeRequest().getPath()).isEqualTo("/?foo=bar");
+  }
+
+  @Test public void generatedServiceIsCreatedEachTime() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build();
+    Generated first = retrofit.create(Generated.class);
+    Generated second = retrofit.create(Generated.class);
+    assertThat(first).isInstanceOf(Generated_RetrofitImpl.class);
+    assertThat(second).isInstanceOf(Generated_RetrofitImpl.class);
+    assertThat(second).isNotSameAs(first);
+  }
+
+  @Test public void unrelatedMethodsLoadWhileAnotherIsBuilding() throws Exception {
+    final CountDownLatch building = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Converter.Factory blockingFactory = new Converter.Factory() {
+      @Override public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+          Annotation[] annotations, Retrofit retrofit) {
+        if (type != String.class) return null;
+        building.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        return new ToStringConverterFactory().responseBodyConverter(type, annotations, retrofit);
+      }
+    };
+    final Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(blockingFactory)
+        .build();
+
+    final Method slowMethod = CallMethod.class.getMethod("disallowed");
+    final Method fastMethod = CallMethod.class.getMethod("getResponseBody");
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> slow = executor.submit(new Runnable() {
+        @Override public void run() {
+          retrofit.loadServiceMethod(slowMethod);
+        }
+      });
+      assertTrue(building.await(2, TimeUnit.SECONDS));
+
+      Future<?> fast = executor.submit(new Runnable() {
+        @Override public void run() {
+          retrofit.loadServiceMethod(fastMethod);
+        }
+      });
+      // Times out if building one method blocks the others.
+      fast.get(2, TimeUnit.SECONDS);
+
+      release.countDown();
+      slow.get(2, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  @Test public void warmUpBuildsEveryMethod() throws Exception {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Map<Method, Long> timings =
+          retrofit.warmUp(executor, Generated.class).get(2, TimeUnit.SECONDS);
+      Method method = Generated.class.getMethod("get", String.class);
+      assertThat(timings.keySet()).containsExactly(method);
+      assertThat(timings.get(method)).isGreaterThan(0L);
+      assertThat(retrofit.warmUp(executor).get(2, TimeUnit.SECONDS)).isEmpty();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test public void warmUpFailsWithMethodError() throws Exception {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      retrofit.warmUp(executor, VoidService.class).get(2, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(IllegalArgumentException.class);
+      assertThat(e.getCause()).hasMessageStartingWith(
+          "Service methods cannot return void.\n    for method VoidService.nope");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test public void callCallAdapterAddedByDefault() {
     Retrofit retrofit = new Retrofit.Builder()
         .baseUrl(server.url("/"))
@@ -1198,6 +1338,41 @@ public final class RetrofitTest {
     assertThat(nonMatchingFactory.called).isTrue();
   }
 
+  @Test public void memoizableFactoryResultsSharedBetweenMethods() throws Exception {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new MemoizableToStringConverterFactory())
+        .build();
+    Annotation[] first = Memoized.class.getMethod("first", String.class).getAnnotations();
+    Annotation[] second = Memoized.class.getMethod("second", String.class).getAnnotations();
+    Annotation[] annotated = Memoized.class.getMethod("annotated", String.class).getAnnotations();
+
+    assertThat(retrofit.responseBodyConverter(String.class, second))
+        .isSameAs(retrofit.responseBodyConverter(String.class, first));
+    assertThat(retrofit.responseBodyConverter(String.class, annotated))
+        .isNotSameAs(retrofit.responseBodyConverter(String.class, first));
+
+    Annotation[] cacheable = Memoized.class.getMethod("cacheable", String.class).getAnnotations();
+    assertThat(retrofit.responseBodyConverter(String.class, cacheable))
+        .isNotSameAs(retrofit.responseBodyConverter(String.class, first));
+
+    Type callOfString = Memoized.class.getMethod("first", String.class).getGenericReturnType();
+    assertThat(retrofit.callAdapter(callOfString, second))
+        .isSameAs(retrofit.callAdapter(callOfString, first));
+  }
+
+  @Test public void nonMemoizableFactoryResultsResolvedPerLookup() throws Exception {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new NonMatchingConverterFactory())
+        .addConverterFactory(new MemoizableToStringConverterFactory())
+        .build();
+    Annotation[] first = Memoized.class.getMethod("first", String.class).getAnnotations();
+
+    assertThat(retrofit.responseBodyConverter(String.class, first))
+        .isNotSameAs(retrofit.responseBodyConverter(String.class, first));
+  }
+
   @Test public void callbackExecutorNullThrows() {
     try {
       new Retrofit.Builder().callbackExecutor(null);
@@ -1207,6 +1382,32 @@ public final class RetrofitTest {
     }
   }
 
+  @Test public void downloadDirectoryNullThrows() {
+    try {
+      new Retrofit.Builder().downloadDirectory(null);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e).hasMessage("directory == null");
+    }
+  }
+
+  @Test public void downloadDirectoryDefaultsToNull() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com/")
+        .build();
+    assertThat(retrofit.downloadDirectory()).isNull();
+  }
+
+  @Test public void downloadDirectoryPropagated() {
+    File directory = new File("downloads");
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com/")
+        .downloadDirectory(directory)
+        .build();
+    assertThat(retrofit.downloadDirectory()).isSameAs(directory);
+    assertThat(retrofit.newBuilder().build().downloadDirectory()).isSameAs(directory);
+  }
+
   @Test public void callbackExecutorPropagatesDefaultJvm() {
     Retrofit retrofit = new Retrofit.Builder()
         .baseUrl("http://example.com/")
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.annotation.Annotation;
+import java.nio.channels.FileChannel;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class SeekableRequestBodyTest {
+  private static final MediaType TEXT = MediaType.parse("text/plain");
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File file;
+
+  @Before public void setUp() throws IOException {
+    file = temporaryFolder.newFile();
+    BufferedSink sink = Okio.buffer(Okio.sink(file));
+    sink.writeUtf8("Hello, World!");
+    sink.close();
+  }
+
+  @Test public void fileRange() throws IOException {
+    SeekableRequestBody body = SeekableRequestBody.create(TEXT, file);
+    assertThat(body.contentType()).isEqualTo(TEXT);
+    assertThat(body.contentLength()).isEqualTo(13L);
+
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer, 7L, 5L);
+    assertThat(buffer.readUtf8()).isEqualTo("World");
+
+    body.writeTo(buffer);
+    assertThat(buffer.readUtf8()).isEqualTo("Hello, World!");
+  }
+
+  @Test public void channelRangeIsRelativeToPosition() throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      channel.position(7L);
+      SeekableRequestBody body = SeekableRequestBody.create(TEXT, channel);
+      assertThat(body.contentLength()).isEqualTo(6L);
+
+      Buffer buffer = new Buffer();
+      body.writeTo(buffer, 1L, 4L);
+      assertThat(buffer.readUtf8()).isEqualTo("orld");
+      body.writeTo(buffer);
+      assertThat(buffer.readUtf8()).isEqualTo("World!");
+      assertThat(channel.position()).isEqualTo(7L);
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  @Test public void fileShorterThanRangeThrows() throws IOException {
+    SeekableRequestBody body = SeekableRequestBody.create(TEXT, file);
+    try {
+      body.writeTo(new Buffer(), 10L, 5L);
+      fail();
+    } catch (EOFException e) {
+      assertThat(e).hasMessage("Expected 5 bytes but channel ended after 3 bytes");
+    }
+  }
+
+  @Test public void subclassWritesWholeContent() throws IOException {
+    SeekableRequestBody body = new SeekableRequestBody() {
+      @Override public MediaType contentType() {
+        return TEXT;
+      }
+
+      @Override public long contentLength() {
+        return 13L;
+      }
+
+      @Override public void writeTo(BufferedSink sink, long position, long byteCount)
+          throws IOException {
+        sink.writeUtf8("Hello, World!", (int) position, (int) (position + byteCount));
+      }
+    };
+
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer);
+    assertThat(buffer.readUtf8()).isEqualTo("Hello, World!");
+  }
+
+  @Test public void fileBodiesAreSeekable() throws IOException {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com/")
+        .build();
+    Converter<File, RequestBody> converter =
+        retrofit.requestBodyConverter(File.class, new Annotation[0], new Annotation[0]);
+
+    RequestBody body = converter.convert(file);
+    assertThat(body).isInstanceOf(SeekableRequestBody.class);
+    assertThat(body.contentLength()).isEqualTo(13L);
+  }
+}
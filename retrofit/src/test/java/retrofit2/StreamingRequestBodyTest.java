@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import okhttp3.MediaType;
+import okio.Buffer;
+import okio.BufferedSink;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class StreamingRequestBodyTest {
+  private static final MediaType TEXT = MediaType.parse("text/plain");
+
+  static final class CountingBody extends StreamingRequestBody {
+    int writes;
+
+    CountingBody(boolean computeContentLength) {
+      super(TEXT, computeContentLength);
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      writes++;
+      sink.writeUtf8("Hello, World!");
+    }
+  }
+
+  @Test public void lengthIsUnknownByDefault() throws IOException {
+    CountingBody body = new CountingBody(false);
+    assertThat(body.contentType()).isEqualTo(TEXT);
+    assertThat(body.contentLength()).isEqualTo(-1L);
+    assertThat(body.writes).isEqualTo(0);
+  }
+
+  @Test public void lengthIsComputedOnce() throws IOException {
+    CountingBody body = new CountingBody(true);
+    assertThat(body.contentLength()).isEqualTo(13L);
+    assertThat(body.contentLength()).isEqualTo(13L);
+    assertThat(body.writes).isEqualTo(1);
+
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer);
+    assertThat(buffer.readUtf8()).isEqualTo("Hello, World!");
+  }
+
+  @Test public void valueIsSerializedForEachWrite() throws IOException {
+    CountingBody body = new CountingBody(false);
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer);
+    body.writeTo(buffer);
+    assertThat(buffer.readUtf8()).isEqualTo("Hello, World!Hello, World!");
+    assertThat(body.writes).isEqualTo(2);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.BufferedSink;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.http.Body;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class UploadTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  interface Service {
+    @POST("/") Call<Void> file(@Body File body);
+    @POST("/") Call<Void> channel(@Body FileChannel body);
+    @POST("/") Call<Void> path(@Body Path body);
+
+    @Multipart
+    @POST("/") Call<Void> part(@Part("file") File file);
+  }
+
+  private Service service;
+  private File file;
+
+  @Before public void setUp() throws IOException {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build();
+    service = retrofit.create(Service.class);
+
+    file = temporaryFolder.newFile();
+    BufferedSink sink = Okio.buffer(Okio.sink(file));
+    for (int i = 0; i < 10000; i++) {
+      sink.writeUtf8("Hello, ");
+    }
+    sink.close();
+  }
+
+  @Test public void fileBody() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse());
+
+    service.file(file).execute();
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/octet-stream");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("70000");
+    assertThat(request.getBody().readByteString())
+        .isEqualTo(Okio.buffer(Okio.source(file)).readByteString());
+  }
+
+  @Test public void channelBodyStartsAtPosition() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse());
+
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      channel.position(69993L);
+      service.channel(channel).execute();
+
+      // The channel is left open and where it was for the caller.
+      assertThat(channel.isOpen()).isTrue();
+      assertThat(channel.position()).isEqualTo(69993L);
+    } finally {
+      randomAccessFile.close();
+    }
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getHeader("Content-Length")).isEqualTo("7");
+    assertThat(request.getBody().readUtf8()).isEqualTo("Hello, ");
+  }
+
+  @Test public void pathBody() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse());
+
+    service.path(file.toPath()).execute();
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/octet-stream");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("70000");
+    assertThat(request.getBody().size()).isEqualTo(70000L);
+  }
+
+  @Test public void filePartHasKnownLength() throws IOException, InterruptedException {
+    server.enqueue(new MockResponse());
+
+    service.part(file).execute();
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getHeader("Transfer-Encoding")).isNull();
+    long contentLength = Long.parseLong(request.getHeader("Content-Length"));
+    assertThat(request.getBody().size()).isEqualTo(contentLength).isGreaterThan(70000L);
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import okhttp3.HttpUrl;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class UrlTemplateTest {
+  private static final HttpUrl BASE = HttpUrl.parse("http://example.com/api/?base=1");
+
+  @Test public void noPlaceholders() {
+    UrlTemplate template = UrlTemplate.parse(BASE, "/foo/bar?baz=1");
+    assertThat(template.slotCount()).isEqualTo(0);
+    assertThat(template.slot("foo")).isEqualTo(-1);
+    assertThat(template.expand(new String[0])).isEqualTo("/foo/bar?baz=1");
+  }
+
+  @Test public void slotsAreAssignedInOrderOfFirstAppearance() {
+    UrlTemplate template = UrlTemplate.parse(BASE, "/{taco}/or/{burrito}/{taco}");
+    assertThat(template.slotCount()).isEqualTo(2);
+    assertThat(template.slot("taco")).isEqualTo(0);
+    assertThat(template.slot("burrito")).isEqualTo(1);
+    assertThat(template.expand(new String[] { "a", "b" })).isEqualTo("/a/or/b/a");
+  }
+
+  @Test public void invalidPlaceholdersAreLiterals() {
+    UrlTemplate template = UrlTemplate.parse(BASE, "/{}/{1}/{!!!}/{t}");
+    assertThat(template.slotCount()).isEqualTo(1);
+    assertThat(template.expand(new String[] { "x" })).isEqualTo("/{}/{1}/{!!!}/x");
+  }
+
+  @Test public void placeholderNameParsing() {
+    expectNames("/");
+    expectNames("/foo");
+    expectNames("/foo/bar");
+    expectNames("/foo/bar/{}");
+    expectNames("/foo/bar/{taco}", "taco");
+    expectNames("/foo/bar/{t}", "t");
+    expectNames("/foo/bar/{!!!}/"); // Invalid parameter.
+    expectNames("/foo/bar/{}/{taco}", "taco");
+    expectNames("/foo/bar/{taco}/or/{burrito}", "taco", "burrito");
+    expectNames("/foo/bar/{taco}/or/{taco}", "taco");
+    expectNames("/foo/bar/{taco-shell}", "taco-shell");
+    expectNames("/foo/bar/{taco_shell}", "taco_shell");
+    expectNames("/foo/bar/{sha256}", "sha256");
+    expectNames("/foo/bar/{TACO}", "TACO");
+    expectNames("/foo/bar/{taco}/{tAco}/{taCo}", "taco", "tAco", "taCo");
+    expectNames("/foo/bar/{1}"); // Invalid parameter, name cannot start with digit.
+  }
+
+  private static void expectNames(String path, String... expected) {
+    UrlTemplate template = UrlTemplate.parse(BASE, path);
+    assertThat(template.slotCount()).isEqualTo(expected.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(template.slot(expected[i])).isEqualTo(i);
+    }
+  }
+
+  @Test public void unfilledSlotsAreLeftAsPlaceholders() {
+    UrlTemplate template = UrlTemplate.parse(BASE, "{a}/{b}");
+    assertThat(template.expand(new String[] { null, "b" })).isEqualTo("{a}/b");
+  }
+
+  @Test public void fixedTemplateIsResolvedOnce() {
+    UrlTemplate template = UrlTemplate.parse(BASE, "foo/bar?baz=1");
+    HttpUrl expected = HttpUrl.parse("http://example.com/api/foo/bar?baz=1");
+    assertThat(template.resolved()).isEqualTo(expected);
+    assertThat(template.newUrlBuilder(null).build()).isEqualTo(expected);
+  }
+
+  @Test public void templatesWithoutLiteralDirectoryAreResolvedAsText() {
+    String[] value = { "a" };
+    assertThat(UrlTemplate.parse(BASE, "{a}/b").newUrlBuilder(value)).isNull();
+    assertThat(UrlTemplate.parse(BASE, "b{a}").newUrlBuilder(value)).isNull();
+    assertThat(UrlTemplate.parse(BASE, "http://host/{a}").newUrlBuilder(value)).isNull();
+    assertThat(UrlTemplate.parse(BASE, "//host/{a}").newUrlBuilder(value)).isNull();
+    assertThat(UrlTemplate.parse(BASE, "b:c/{a}").newUrlBuilder(value)).isNull();
+    assertThat(UrlTemplate.parse(BASE, "b/{a}#c").newUrlBuilder(value)).isNull();
+    assertThat(UrlTemplate.parse(BASE, "/{a}").newUrlBuilder(new String[] { "/b" })).isNull();
+  }
+
+  @Test public void appendedSegmentsMatchTextResolution() {
+    String[] templates = {
+        "/{a}", "/b/{a}", "b/{a}", "b/{a}/", "b/{a}.json", "/b/{a}/c/{a}?d=e", "b/{a}?",
+        "b/./{a}/../c", "b/{a}/%2F/{a}?d=%20e&f", "b/c{a}d/e", "b:c/d/{a}", "/b/{a}/{c}",
+    };
+    String[] values = {
+        "x", "", ".", "..", "x/y", "/x", "x/../../y", "%2F", "%zz", "\u00e9", "x%20y", "x:y",
+    };
+    for (String template : templates) {
+      UrlTemplate urlTemplate = UrlTemplate.parse(BASE, template);
+      for (String value : values) {
+        String[] slots = new String[urlTemplate.slotCount()];
+        slots[0] = value;
+        HttpUrl.Builder builder = urlTemplate.newUrlBuilder(slots);
+        if (builder == null) continue;
+        assertThat(builder.build())
+            .describedAs("%s with %s", template, value)
+            .isEqualTo(BASE.resolve(urlTemplate.expand(slots)));
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.helpers;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import retrofit2.Call;
+import retrofit2.EventListener;
+
+/** Records the name of each event and checks that their timestamps never go backwards. */
+public final class RecordingEventListener extends EventListener {
+  private final List<String> events = new ArrayList<>();
+  private final CountDownLatch ended = new CountDownLatch(1);
+  private long lastNanoTime = Long.MIN_VALUE;
+  public volatile Method method;
+  public volatile Throwable failure;
+
+  private synchronized void record(String event, Method method, long nanoTime) {
+    if (nanoTime < lastNanoTime) {
+      throw new AssertionError(event + " at " + nanoTime + " is before " + lastNanoTime);
+    }
+    lastNanoTime = nanoTime;
+    this.method = method;
+    events.add(event);
+  }
+
+  /** Waits for the call to end or fail and returns every recorded event. */
+  public List<String> awaitEvents() throws InterruptedException {
+    if (!ended.await(10, TimeUnit.SECONDS)) {
+      throw new AssertionError("Call did not end.");
+    }
+    synchronized (this) {
+      return new ArrayList<>(events);
+    }
+  }
+
+  @Override public void callStart(Call<?> call, Method method, long nanoTime) {
+    record("callStart", method, nanoTime);
+  }
+
+  @Override public void requestConversionStart(Call<?> call, Method method, long nanoTime) {
+    record("requestConversionStart", method, nanoTime);
+  }
+
+  @Override public void requestConversionEnd(Call<?> call, Method method, long nanoTime) {
+    record("requestConversionEnd", method, nanoTime);
+  }
+
+  @Override public void networkStart(Call<?> call, Method method, long nanoTime) {
+    record("networkStart", method, nanoTime);
+  }
+
+  @Override public void networkEnd(Call<?> call, Method method, long nanoTime) {
+    record("networkEnd", method, nanoTime);
+  }
+
+  @Override public void responseConversionStart(Call<?> call, Method method, long nanoTime) {
+    record("responseConversionStart", method, nanoTime);
+  }
+
+  @Override public void responseConversionEnd(Call<?> call, Method method, long nanoTime) {
+    record("responseConversionEnd", method, nanoTime);
+  }
+
+  @Override public void callbackStart(Call<?> call, Method method, long nanoTime) {
+    record("callbackStart", method, nanoTime);
+  }
+
+  @Override public void callbackEnd(Call<?> call, Method method, long nanoTime) {
+    record("callbackEnd", method, nanoTime);
+  }
+
+  @Override public void callEnd(Call<?> call, Method method, long nanoTime) {
+    record("callEnd", method, nanoTime);
+    ended.countDown();
+  }
+
+  @Override public void callFailed(Call<?> call, Method method, long nanoTime, Throwable t) {
+    record("callFailed", method, nanoTime);
+    failure = t;
+    ended.countDown();
+  }
+}
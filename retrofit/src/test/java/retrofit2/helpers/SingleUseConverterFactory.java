@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.helpers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Iterator;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/** Converts responses to single-use types: {@link InputStream}, {@link BufferedSource}, and lines. */
+public final class SingleUseConverterFactory extends Converter.Factory {
+  @Override
+  public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+      Retrofit retrofit) {
+    if (type == InputStream.class) {
+      return new Converter<ResponseBody, InputStream>() {
+        @Override public InputStream convert(ResponseBody value) {
+          return value.byteStream();
+        }
+      };
+    }
+    if (type == BufferedSource.class) {
+      return new Converter<ResponseBody, BufferedSource>() {
+        @Override public BufferedSource convert(ResponseBody value) {
+          return value.source();
+        }
+      };
+    }
+    if (getRawType(type) == Iterator.class) {
+      return new Converter<ResponseBody, Iterator<String>>() {
+        @Override public Iterator<String> convert(ResponseBody value) throws IOException {
+          return Arrays.asList(value.string().split("\n")).iterator();
+        }
+      };
+    }
+    return null;
+  }
+}